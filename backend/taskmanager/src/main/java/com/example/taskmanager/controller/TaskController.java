@@ -1,54 +1,256 @@
 package com.example.taskmanager.controller;
 
+import com.example.taskmanager.dto.BulkItemResult;
+import com.example.taskmanager.dto.BulkOperation;
+import com.example.taskmanager.dto.CacheStatsDto;
+import com.example.taskmanager.dto.TaskChanges;
 import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.dto.TaskPage;
+import com.example.taskmanager.dto.TaskQuery;
+import com.example.taskmanager.dto.TaskSearchHit;
+import com.example.taskmanager.dto.TaskStatsDto;
+import com.example.taskmanager.service.TaskEventBroadcaster;
+import com.example.taskmanager.service.TaskFields;
+import com.example.taskmanager.service.TaskIdempotencyStore;
 import com.example.taskmanager.service.TaskService;
-import lombok.RequiredArgsConstructor;
+import com.example.taskmanager.service.TaskWriteCoalescer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @RestController
 @RequestMapping("/api/tasks")
-@RequiredArgsConstructor
-@CrossOrigin(origins = "http://localhost:8081")
+@CrossOrigin(origins = "http://localhost:8081", exposedHeaders = {HttpHeaders.ETAG, TaskController.CHANGE_TOKEN})
 public class TaskController {
 
+    // Response header of the full list carrying the token to pass to /changes for what changed after the read
+    static final String CHANGE_TOKEN = "Change-Token";
+
+    private static final int EXPORT_FLUSH_INTERVAL = 1000;
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final TaskService taskService;
+    private final TaskEventBroadcaster taskEventBroadcaster;
+    private final ObjectMapper objectMapper;
+    private final TaskIdempotencyStore idempotencyStore;
+    // Present when taskmanager.write-batching.enabled is set
+    private final Optional<TaskWriteCoalescer> writeCoalescer;
+    private final Duration exportTimeout;
+    private final UninterruptibleTaskExecutor exportExecutor;
+
+    public TaskController(
+            TaskService taskService,
+            TaskEventBroadcaster taskEventBroadcaster,
+            ObjectMapper objectMapper,
+            TaskIdempotencyStore idempotencyStore,
+            Optional<TaskWriteCoalescer> writeCoalescer,
+            @Value("${taskmanager.export.timeout:10m}") Duration exportTimeout,
+            UninterruptibleTaskExecutor exportExecutor
+    ) {
+        this.taskService = taskService;
+        this.taskEventBroadcaster = taskEventBroadcaster;
+        this.objectMapper = objectMapper;
+        this.idempotencyStore = idempotencyStore;
+        this.writeCoalescer = writeCoalescer;
+        this.exportTimeout = exportTimeout;
+        this.exportExecutor = exportExecutor;
+    }
 
-    // Create a new task
+    // Create a new task; a retry carrying the same Idempotency-Key gets the task the first attempt created
     @PostMapping
-    public ResponseEntity<TaskDto> createTask(@RequestBody TaskDto taskDto) {
-        TaskDto createdTask = taskService.createTask(taskDto);
+    public ResponseEntity<TaskDto> createTask(
+            @RequestBody TaskDto taskDto,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey
+    ) {
+        TaskDto createdTask = idempotencyKey != null
+                ? idempotencyStore.create(idempotencyKey, taskDto, () -> taskService.createTask(taskDto))
+                : taskService.createTask(taskDto);
         return new ResponseEntity<>(createdTask, HttpStatus.CREATED);
     }
 
-    // Get all tasks
+    // Apply many create, update, complete and delete operations in one request
+    @PostMapping("/_bulk")
+    public ResponseEntity<List<BulkItemResult>> bulk(@RequestBody List<BulkOperation> operations) {
+        List<BulkItemResult> results = taskService.bulk(operations);
+        return ResponseEntity.ok(results);
+    }
+
+    // Get all tasks, optionally filtered and sorted, with all fields or only those listed in ?fields=
     @GetMapping
-    public ResponseEntity<List<TaskDto>> getAllTasks() {
-        List<TaskDto> tasks = taskService.getAllTasks();
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<MappingJacksonValue> getAllTasks(
+            @ModelAttribute TaskQuery query,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        TaskFields taskFields = TaskFields.parse(fields);
+        // Read the version before the rows so a concurrent write leaves the tag behind the data, never ahead of it
+        String etag = TaskETags.forList(taskService.getListVersion());
+        String changeToken = taskService.getChangeToken();
+        if (TaskETags.matchesIfNoneMatch(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).header(CHANGE_TOKEN, changeToken).build();
+        }
+        List<TaskDto> tasks = taskFields.isAll()
+                ? taskService.getAllTasks(query)
+                : taskService.getAllTasks(query, taskFields);
+        return ResponseEntity.ok().eTag(etag).header(CHANGE_TOKEN, changeToken).body(withFields(tasks, taskFields));
+    }
+
+    // Get one page of tasks using keyset pagination, optionally filtered and sorted
+    @GetMapping(params = "limit")
+    public ResponseEntity<MappingJacksonValue> getTaskPage(
+            @ModelAttribute TaskQuery query,
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        TaskFields taskFields = TaskFields.parse(fields);
+        String etag = TaskETags.forList(taskService.getListVersion());
+        if (TaskETags.matchesIfNoneMatch(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        TaskPage page = taskFields.isAll()
+                ? taskService.getTaskPage(query, limit, cursor)
+                : taskService.getTaskPage(query, limit, cursor, taskFields);
+        return ResponseEntity.ok().eTag(etag).body(withFields(page, taskFields));
+    }
+
+    // Get what changed since the token from a previous call; without one, every task
+    @GetMapping("/changes")
+    public ResponseEntity<TaskChanges> getChanges(@RequestParam(required = false) String since) {
+        return ResponseEntity.ok(taskService.getChanges(since));
+    }
+
+    // Push every committed change as a Server-Sent Event instead of polling the list
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTasks() {
+        return taskEventBroadcaster.subscribe();
+    }
+
+    // Export every task as newline-delimited JSON, streamed row by row. The export has its own timeout instead of
+    // the default for async requests. A timed-out export is not interrupted, since that would break the durable H2
+    // file store mid-scan; it stops at the next row instead, which ends the scan and releases its read transaction
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public WebAsyncTask<Void> exportTasks(HttpServletResponse response) {
+        ObjectWriter writer = objectMapper.writerFor(TaskDto.class);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        AtomicBoolean timedOut = new AtomicBoolean();
+        WebAsyncTask<Void> export = new WebAsyncTask<>(exportTimeout.toMillis(), exportExecutor, () -> {
+            OutputStream outputStream = response.getOutputStream();
+            int[] written = {0};
+            taskService.exportTasks(task -> {
+                if (timedOut.get()) {
+                    throw new CancellationException("Export timed out after " + written[0] + " tasks");
+                }
+                try {
+                    outputStream.write(writer.writeValueAsBytes(task));
+                    outputStream.write('\n');
+                    // Flush the first line right away so clients see bytes before the scan finishes
+                    if (written[0]++ % EXPORT_FLUSH_INTERVAL == 0) {
+                        outputStream.flush();
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            outputStream.flush();
+            return null;
+        });
+        // The request still ends as any timed-out async request does
+        export.onTimeout(() -> {
+            timedOut.set(true);
+            throw new AsyncRequestTimeoutException();
+        });
+        return export;
+    }
+
+    // Full-text search over title and description
+    @GetMapping("/search")
+    public ResponseEntity<List<TaskSearchHit>> searchTasks(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return ResponseEntity.ok(taskService.searchTasks(q, limit));
+    }
+
+    // Get statistics of the single-task cache
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CacheStatsDto> getCacheStats() {
+        return ResponseEntity.ok(taskService.getCacheStats());
+    }
+
+    // Get open and completed counts and tasks created and completed per day, without scanning the tasks
+    @GetMapping("/stats")
+    public ResponseEntity<TaskStatsDto> getStats() {
+        return ResponseEntity.ok(taskService.getStats());
     }
 
     // Get task by ID
     @GetMapping("/{id}")
-    public ResponseEntity<TaskDto> getTaskById(@PathVariable Long id) {
-        TaskDto task = taskService.getTaskById(id);
-        return ResponseEntity.ok(task);
+    public ResponseEntity<MappingJacksonValue> getTaskById(
+            @PathVariable Long id,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        TaskFields taskFields = TaskFields.parse(fields);
+        if (ifNoneMatch != null) {
+            String etag = TaskETags.forTask(taskService.getTaskVersion(id), accept, taskFields);
+            if (TaskETags.matchesIfNoneMatch(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
+        TaskDto task = taskFields.isAll() ? taskService.getTaskById(id) : taskService.getTaskById(id, taskFields);
+        return ResponseEntity.ok()
+                .eTag(TaskETags.forTask(task.getVersion(), accept, taskFields))
+                .body(withFields(task, taskFields));
     }
 
     // Update a task
     @PutMapping("/{id}")
-    public ResponseEntity<TaskDto> updateTask(@PathVariable Long id, @RequestBody TaskDto taskDto) {
-        TaskDto updatedTask = taskService.updateTask(id, taskDto);
-        return ResponseEntity.ok(updatedTask);
+    public ResponseEntity<TaskDto> updateTask(
+            @PathVariable Long id,
+            @RequestBody TaskDto taskDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        Long expectedVersion = TaskETags.parseIfMatch(ifMatch);
+        // Conditional updates are checked against the version on their own path; bulk operations carry no version
+        TaskDto updatedTask = expectedVersion != null
+                ? taskService.updateTask(id, taskDto, expectedVersion)
+                : writeCoalescer.map(coalescer -> coalescer.update(id, taskDto))
+                        .orElseGet(() -> taskService.updateTask(id, taskDto));
+        return ResponseEntity.ok()
+                .eTag(TaskETags.forTask(updatedTask.getVersion(), accept, TaskFields.ALL))
+                .body(updatedTask);
     }
 
     // Mark a task as completed
     @PatchMapping("/complete/{id}")
     public ResponseEntity<TaskDto> markTaskAsCompleted(@PathVariable Long id) {
-        TaskDto completedTask = taskService.markTaskAsCompleted(id);
+        TaskDto completedTask = writeCoalescer.map(coalescer -> coalescer.complete(id))
+                .orElseGet(() -> taskService.markTaskAsCompleted(id));
         return ResponseEntity.ok(completedTask);
     }
 
@@ -58,4 +260,14 @@ public class TaskController {
         taskService.deleteTask(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    // Every TaskDto in the body is written with only the requested fields; see WebConfiguration
+    private static MappingJacksonValue withFields(Object body, TaskFields fields) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        if (!fields.isAll()) {
+            value.setFilters(new SimpleFilterProvider().addFilter(WebConfiguration.TASK_FIELDS_FILTER,
+                    SimpleBeanPropertyFilter.filterOutAllExcept(fields.names())));
+        }
+        return value;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.taskmanager.controller;
+
+import com.example.taskmanager.exception.PreconditionFailedException;
+import com.example.taskmanager.service.TaskFields;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Entity tags for tasks: a task's tag is its @Version, the list's tag is the table-wide change version.
+// Task tags are strong, because If-Match compares them. A strong tag promises identical bytes, so the CBOR and Smile
+// encodings of a version carry a suffix ("5-cbor") and JSON keeps the bare version. A sparse fieldset adds its mask
+// ("5-f3"), so a slim body never validates a cached full one or the other way round. List tags are weak: Tomcat only
+// compresses responses without a strong tag, since compressing changes the bytes, and lists are the responses that
+// gain from compression. Weak tags may be shared by equivalent representations, so they carry no suffix
+final class TaskETags {
+
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    // In the order Spring MVC prefers the converters when Accept allows several
+    private static final List<MediaType> ENCODINGS =
+            List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, SMILE);
+    private static final List<String> SUFFIXES = List.of("", "-cbor", "-smile");
+    private static final int ALL_FIELDS = TaskFields.ALL.mask();
+    // Version, encoding suffix, fieldset suffix
+    private static final Pattern TASK_TAG = Pattern.compile("(\\d+)(?:-cbor|-smile)?(?:-f[0-9a-f]+)?");
+
+    private TaskETags() {
+    }
+
+    // The tag of one representation of a task version: the encoding content negotiation picks for the Accept header,
+    // written with the given fields. Every representation gets a different tag; there is deliberately no variant that
+    // leaves either part out
+    static String forTask(Long version, String accept, TaskFields fields) {
+        if (version == null) {
+            return null;
+        }
+        int mask = fields.mask();
+        String fieldset = mask == ALL_FIELDS ? "" : "-f" + Integer.toHexString(mask);
+        return "\"" + version + SUFFIXES.get(encoding(accept)) + fieldset + "\"";
+    }
+
+    static String forList(String listVersion) {
+        return listVersion == null ? null : "W/\"list-" + listVersion + "\"";
+    }
+
+    // If-None-Match uses weak comparison, so W/ prefixes are ignored
+    static boolean matchesIfNoneMatch(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String opaqueTag = withoutWeakPrefix(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (withoutWeakPrefix(tag).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Returns the task version a single strong If-Match tag asks for, or null when any version is acceptable
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            throw new PreconditionFailedException("If-Match must be a single strong entity tag");
+        }
+        // Whichever representation the client read the task in, the version is what the update is checked against
+        Matcher opaqueTag = TASK_TAG.matcher(tag.substring(1, tag.length() - 1));
+        if (!opaqueTag.matches()) {
+            throw new PreconditionFailedException("If-Match does not match any task version: " + tag);
+        }
+        try {
+            return Long.parseLong(opaqueTag.group(1));
+        } catch (NumberFormatException ex) {
+            throw new PreconditionFailedException("If-Match does not match any task version: " + tag);
+        }
+    }
+
+    // Index into ENCODINGS of the first encoding the most preferred acceptable type allows; JSON when there is no
+    // usable Accept header, which is also the encoding the response falls back to
+    private static int encoding(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return 0;
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException ex) {
+            return 0;
+        }
+        MimeTypeUtils.sortBySpecificity(acceptable);
+        for (MediaType mediaType : acceptable) {
+            for (int i = 0; i < ENCODINGS.size(); i++) {
+                if (mediaType.isCompatibleWith(ENCODINGS.get(i))) {
+                    return i;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static String withoutWeakPrefix(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
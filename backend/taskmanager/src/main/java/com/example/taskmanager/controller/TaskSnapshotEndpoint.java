@@ -0,0 +1,25 @@
+package com.example.taskmanager.controller;
+
+import com.example.taskmanager.dto.SnapshotResult;
+import com.example.taskmanager.service.TaskSnapshotService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+// POST /actuator/snapshot writes an online snapshot of all tasks under taskmanager.snapshot.dir.
+// Only in the durable profile, which also exposes it over HTTP
+@Component
+@Profile("durable")
+@Endpoint(id = "snapshot")
+@RequiredArgsConstructor
+public class TaskSnapshotEndpoint {
+
+    private final TaskSnapshotService taskSnapshotService;
+
+    @WriteOperation
+    public SnapshotResult snapshot() {
+        return taskSnapshotService.snapshot();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.taskmanager.controller;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs async requests whose futures ignore cancel(true). Spring MVC cancels a timed-out WebAsyncTask by interrupting
+// its thread, and an interrupt during file I/O closes the channel of H2's durable store until restart. Tasks run here
+// have to notice a timeout themselves and stop
+public class UninterruptibleTaskExecutor implements AsyncTaskExecutor, AutoCloseable {
+
+    private final ExecutorService threads;
+
+    public UninterruptibleTaskExecutor(String threadNamePrefix) {
+        AtomicInteger count = new AtomicInteger();
+        this.threads = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, threadNamePrefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        threads.execute(task);
+    }
+
+    // A CompletableFuture never interrupts the thread computing it, whatever cancel is passed
+    @Override
+    public Future<?> submit(Runnable task) {
+        return CompletableFuture.runAsync(task, threads);
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.call();
+            } catch (RuntimeException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new CompletionException(ex);
+            }
+        }, threads);
+    }
+
+    @Override
+    public void close() {
+        threads.shutdown();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.taskmanager.controller;
+
+import com.example.taskmanager.dto.TaskDto;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Binary encodings of the task API next to JSON: clients that send Accept: application/cbor or
+// application/x-jackson-smile get those, everyone else keeps getting JSON. Both formats read request bodies too.
+// Response compression is plain server.compression configuration, see application.properties.
+// All formats also honour the sparse fieldsets of ?fields=.
+@Configuration
+public class WebConfiguration implements WebMvcConfigurer {
+
+    // Property filter of TaskDto, which TaskController sets per response to honour ?fields=
+    static final String TASK_FIELDS_FILTER = "taskFields";
+
+    @JsonFilter(TASK_FIELDS_FILTER)
+    private interface TaskFieldsFilterMixIn {
+    }
+
+    // Every mapper built from Spring Boot's builder, the binary ones below included, writes all TaskDto fields
+    // unless a response asks otherwise. Mappers created elsewhere never see the filter
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer taskFieldsFilter() {
+        return builder -> builder
+                .mixIn(TaskDto.class, TaskFieldsFilterMixIn.class)
+                .filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+
+    // Registered as beans, Spring Boot puts these in place of the converters Spring MVC would create for the same
+    // formats, which would not pick up the spring.jackson settings
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(binaryMapper(builder.factory(new CBORFactory())));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(binaryMapper(builder.factory(new SmileFactory())));
+    }
+
+    // The same model as the JSON, except that dates go out as arrays of numbers instead of ISO strings,
+    // which is both smaller and cheaper to parse. Jackson reads either form back
+    private static ObjectMapper binaryMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+    }
+
+    // Threads for /api/tasks/export, which ends on its own when it times out rather than being interrupted
+    @Bean
+    public UninterruptibleTaskExecutor exportTaskExecutor() {
+        return new UninterruptibleTaskExecutor("task-export-");
+    }
+
+    // The same URL answers in several formats, so shared caches must key on Accept as well
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                return true;
+            }
+        }).addPathPatterns("/api/tasks/**");
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkItemResult {
+    // Position of the operation in the request
+    private int index;
+    private BulkOperation.Type op;
+    // HTTP status the operation would have produced on its own endpoint
+    private int status;
+    private TaskDto task;
+    private String error;
+}
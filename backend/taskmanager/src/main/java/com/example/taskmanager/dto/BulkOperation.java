@@ -0,0 +1,26 @@
+package com.example.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkOperation {
+
+    public enum Type {
+        CREATE,
+        UPDATE,
+        COMPLETE,
+        DELETE
+    }
+
+    private Type op;
+    // Target task id; required for everything except CREATE
+    private Long id;
+    // Task payload; required for CREATE and UPDATE
+    private TaskDto task;
+}
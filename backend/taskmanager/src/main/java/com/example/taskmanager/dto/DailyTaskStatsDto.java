@@ -0,0 +1,19 @@
+package com.example.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyTaskStatsDto {
+    private LocalDate date;
+    private long created;
+    // Tasks that went from open to completed that day
+    private long completed;
+}
@@ -0,0 +1,17 @@
+package com.example.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SnapshotResult {
+    private String path;
+    private long tasks;
+    private long tombstones;
+    private long millis;
+}
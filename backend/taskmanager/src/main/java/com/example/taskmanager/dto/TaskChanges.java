@@ -0,0 +1,23 @@
+package com.example.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskChanges {
+    // Tasks created or updated since the token, oldest change first
+    private List<TaskDto> changed;
+    // Ids of tasks deleted since the token
+    private List<Long> deleted;
+    // True when changed holds every task and the client must replace its copy instead of merging
+    private boolean full;
+    // Opaque token to pass as since on the next call
+    private String token;
+}
@@ -0,0 +1,24 @@
+package com.example.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A committed change to one task, pushed to stream subscribers
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskEvent {
+
+    public enum Type {
+        CHANGED,
+        DELETED
+    }
+
+    private Type type;
+    private Long id;
+    // The task as committed; null for DELETED
+    private TaskDto task;
+}
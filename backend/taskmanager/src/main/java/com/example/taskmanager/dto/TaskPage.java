@@ -0,0 +1,18 @@
+package com.example.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskPage {
+    private List<TaskDto> items;
+    // Opaque cursor for the following page, null when this is the last page
+    private String next;
+}
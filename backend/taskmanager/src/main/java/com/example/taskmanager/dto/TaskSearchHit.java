@@ -0,0 +1,16 @@
+package com.example.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskSearchHit {
+    private TaskDto task;
+    // Relevance, higher is better; only comparable within one result list
+    private double score;
+}
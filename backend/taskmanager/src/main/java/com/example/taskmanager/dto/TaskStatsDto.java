@@ -0,0 +1,23 @@
+package com.example.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskStatsDto {
+    private long open;
+    private long completed;
+    private long total;
+    // Daily counts start here; days before it are reported as zero
+    private LocalDateTime countingSince;
+    // One entry per day, oldest first, ending today
+    private List<DailyTaskStatsDto> days;
+}
@@ -0,0 +1,9 @@
+package com.example.taskmanager.exception;
+
+// Thrown when an Idempotency-Key comes back with a request other than the one it was first used with
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
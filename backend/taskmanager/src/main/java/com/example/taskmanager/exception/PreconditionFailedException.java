@@ -0,0 +1,9 @@
+package com.example.taskmanager.exception;
+
+// Thrown when a conditional request (If-Match) no longer matches the stored task
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.taskmanager.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.handler.HandlerMappingIntrospector;
+
+import java.time.Duration;
+
+// Load shedding for the task API; see ConcurrencyLimitFilter. On unless taskmanager.concurrency-limit.enabled=false.
+@Configuration
+@ConditionalOnProperty(name = "taskmanager.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            @Value("${taskmanager.concurrency-limit.read.initial:20}") int readInitial,
+            @Value("${taskmanager.concurrency-limit.read.min:4}") int readMin,
+            @Value("${taskmanager.concurrency-limit.read.max:150}") int readMax,
+            @Value("${taskmanager.concurrency-limit.write.initial:10}") int writeInitial,
+            @Value("${taskmanager.concurrency-limit.write.min:2}") int writeMin,
+            @Value("${taskmanager.concurrency-limit.write.max:50}") int writeMax,
+            @Value("${taskmanager.concurrency-limit.retry-after:1s}") Duration retryAfter,
+            ObjectMapper objectMapper,
+            // Resolves the CORS configuration Spring MVC applies to a request, @CrossOrigin included
+            HandlerMappingIntrospector handlerMappingIntrospector,
+            MeterRegistry meterRegistry
+    ) {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(
+                new GradientConcurrencyLimit(readInitial, readMin, readMax),
+                new GradientConcurrencyLimit(writeInitial, writeMin, writeMax),
+                retryAfter,
+                objectMapper,
+                handlerMappingIntrospector,
+                meterRegistry);
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        // Behind the filter that times requests, so rejections still show up in http.server.requests
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
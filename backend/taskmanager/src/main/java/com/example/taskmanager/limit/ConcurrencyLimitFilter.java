@@ -0,0 +1,129 @@
+package com.example.taskmanager.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.CorsConfigurationSource;
+import org.springframework.web.cors.CorsProcessor;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.cors.DefaultCorsProcessor;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Admits task API requests up to an adaptive concurrency limit and answers the rest with 503 and Retry-After at once,
+// so a slow database shows up as fast rejections instead of request threads queueing for connections. Reads and writes
+// have limits of their own, so a burst of one cannot starve the other. The stream and export endpoints hold their
+// requests open for as long as the client listens and are not limited.
+// The filter runs before Spring MVC, which adds the CORS headers; rejections get the headers MVC would have added from
+// the same configuration, so a browser client on another origin can see the 503 and its Retry-After.
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final GradientConcurrencyLimit readLimit;
+    private final GradientConcurrencyLimit writeLimit;
+    private final String retryAfterSeconds;
+    private final ObjectMapper objectMapper;
+    private final CorsConfigurationSource corsConfigurationSource;
+    private final CorsProcessor corsProcessor = new DefaultCorsProcessor();
+    private final Counter readRejections;
+    private final Counter writeRejections;
+
+    public ConcurrencyLimitFilter(
+            GradientConcurrencyLimit readLimit,
+            GradientConcurrencyLimit writeLimit,
+            Duration retryAfter,
+            ObjectMapper objectMapper,
+            CorsConfigurationSource corsConfigurationSource,
+            MeterRegistry registry
+    ) {
+        this.readLimit = readLimit;
+        this.writeLimit = writeLimit;
+        this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+        this.objectMapper = objectMapper;
+        this.corsConfigurationSource = corsConfigurationSource;
+        this.readRejections = register(readLimit, "read", registry);
+        this.writeRejections = register(writeLimit, "write", registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return HttpMethod.OPTIONS.matches(request.getMethod())
+                || path.endsWith("/stream")
+                || path.endsWith("/export");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean read = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        GradientConcurrencyLimit limit = read ? readLimit : writeLimit;
+        if (!limit.tryAcquire()) {
+            (read ? readRejections : writeRejections).increment();
+            reject(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            chain.doFilter(request, response);
+            completed = true;
+        } finally {
+            // Server errors come back fast or time out; neither is the latency of a served request
+            if (completed && response.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                limit.onSuccess(System.nanoTime() - start);
+            } else {
+                limit.onIgnore();
+            }
+        }
+    }
+
+    // The same body GlobalExceptionHandler writes for errors raised inside the controllers
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (CorsUtils.isCorsRequest(request)) {
+            CorsConfiguration cors = corsConfigurationSource.getCorsConfiguration(request);
+            // A disallowed origin gets the 403 Spring MVC would have sent it
+            if (cors != null && !corsProcessor.processRequest(cors, request, response)) {
+                return;
+            }
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        body.put("message", "Too many concurrent requests, retry later");
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private static Counter register(GradientConcurrencyLimit limit, String kind, MeterRegistry registry) {
+        Gauge.builder("taskmanager.concurrency.limit", limit, GradientConcurrencyLimit::limit)
+                .description("Concurrent task API requests currently admitted at most")
+                .tag("kind", kind)
+                .register(registry);
+        Gauge.builder("taskmanager.concurrency.in.flight", limit, GradientConcurrencyLimit::inFlight)
+                .description("Task API requests being served")
+                .tag("kind", kind)
+                .register(registry);
+        return Counter.builder("taskmanager.concurrency.rejected")
+                .description("Task API requests answered with 503 because the limit was reached")
+                .tag("kind", kind)
+                .register(registry);
+    }
+}
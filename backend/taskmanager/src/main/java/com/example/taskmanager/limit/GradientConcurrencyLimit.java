@@ -0,0 +1,91 @@
+package com.example.taskmanager.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// A concurrency limit that follows the latency of the requests it admits, after the gradient algorithm of Netflix's
+// concurrency-limits. A long-term average of the round trip time stands for the latency without queueing; each sample
+// that comes in slower than that average by more than the tolerance shrinks the limit by their ratio, down to half per
+// sample. A sample within the tolerance grows the limit by its square root. The limit only grows while at least half
+// of it is in use, so a quiet period cannot inflate it.
+public class GradientConcurrencyLimit {
+
+    // Samples averaged before the long-term round trip time starts to move slowly
+    private static final int WARMUP_SAMPLES = 10;
+    // Samples over which the long-term round trip time follows a lasting change in latency
+    private static final double LONG_WINDOW = 600;
+    // Share of each new estimate taken into the limit
+    private static final double SMOOTHING = 0.2;
+    // How much slower than the long-term average a request may be before the limit shrinks
+    private static final double TOLERANCE = 1.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimatedLimit;
+    private double longRttNanos;
+    private long samples;
+
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    // Take a slot, or false without waiting when all are in use
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // Free the slot of a request that completed after rttNanos, and let its latency adjust the limit
+    public void onSuccess(long rttNanos) {
+        int inFlightAtEnd = inFlight.getAndDecrement();
+        update(rttNanos, inFlightAtEnd);
+    }
+
+    // Free the slot of a request whose latency says nothing about the load, such as one that failed
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long rttNanos, int inFlightAtEnd) {
+        double rtt = Math.max(rttNanos, 1);
+        samples++;
+        double window = samples <= WARMUP_SAMPLES ? samples : LONG_WINDOW;
+        longRttNanos += (rtt - longRttNanos) / window;
+        // After latency drops back, stop comparing against the slow period much sooner than the window would
+        if (longRttNanos > 2 * rtt) {
+            longRttNanos *= 0.95;
+        }
+        if (inFlightAtEnd < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / rtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.taskmanager.limit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// With spring.threads.virtual.enabled=true on Java 21 or later, Spring Boot serves every request on a virtual thread
+// instead of a thread from Tomcat's pool, so nothing bounds how many requests reach the connection pool at once.
+// This puts a JdbcConcurrencyGate sized to the pool in front of it. On Java 17, or without the property, requests
+// keep running on the platform thread pool and the data source is left as it is.
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class JdbcConcurrencyGateConfiguration {
+
+    // Static since it post-processes beans; sized and timed like the Hikari pool it guards
+    @Bean
+    public static BeanPostProcessor jdbcConcurrencyGate(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof JdbcConcurrencyGate) {
+                    return bean;
+                }
+                int maxConnections = environment.getProperty(
+                        "spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                Duration timeout = environment.getProperty(
+                        "spring.datasource.hikari.connection-timeout", Duration.class, Duration.ofSeconds(30));
+                return new JdbcConcurrencyGate(dataSource, maxConnections, timeout);
+            }
+        };
+    }
+
+    // Found through the data source bean, which the SQL log may have wrapped around the gate
+    @Bean
+    public MeterBinder jdbcConcurrencyGateMetrics(DataSource dataSource) {
+        return registry -> {
+            JdbcConcurrencyGate gate = DataSourceUnwrapper.unwrap(dataSource, JdbcConcurrencyGate.class);
+            if (gate == null) {
+                return;
+            }
+            Gauge.builder("taskmanager.jdbc.gate.available", gate, JdbcConcurrencyGate::availablePermits)
+                    .description("Connections that can be taken without waiting at the gate")
+                    .register(registry);
+            Gauge.builder("taskmanager.jdbc.gate.waiting", gate, JdbcConcurrencyGate::queueLength)
+                    .description("Threads waiting at the gate for a connection")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.taskmanager.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// Metrics and SQL logging that Spring Boot does not provide out of the box.
+// Timers for HTTP requests, repositories, @Timed service methods, Hibernate statistics and the Hikari pool
+// are auto-configured; see the management.* section of application.properties.
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    // Hand the counter to Hibernate so it sees every statement the session factory prepares
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer(SqlStatementCounter sqlStatementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementCountFilter> statementCountFilter(
+            SqlStatementCounter sqlStatementCounter,
+            SqlLog sqlLog,
+            MeterRegistry meterRegistry
+    ) {
+        FilterRegistrationBean<StatementCountFilter> registration =
+                new FilterRegistrationBean<>(new StatementCountFilter(sqlStatementCounter, sqlLog, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    // Wrap the pool so the execution time of every statement reaches the SQL log; static since it post-processes beans
+    @Bean
+    public static BeanPostProcessor sqlLogDataSourceProxy(ObjectProvider<SqlLog> sqlLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(new SqlLogListener(sqlLog))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
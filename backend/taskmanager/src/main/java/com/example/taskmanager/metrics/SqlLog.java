@@ -0,0 +1,128 @@
+package com.example.taskmanager.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+// Logs slow statements, a sample of the fast ones and requests that look like N+1 queries.
+// Callers only offer an entry to a bounded queue; one background thread formats and writes them,
+// so a request thread never waits on log I/O. When the queue is full the entry is dropped and counted.
+@Slf4j
+@Component
+public class SqlLog {
+
+    enum Kind { SLOW, SAMPLED, REPEATED_SELECT }
+
+    private record Entry(Kind kind, String sql, long millis, int batchSize, boolean success,
+                         String request, int count, int total) {
+    }
+
+    private final long slowThresholdMillis;
+    private final double sampleRate;
+    private final int repeatedSelectThreshold;
+    private final BlockingQueue<Entry> queue;
+    private final BiConsumer<Kind, String> sink;
+    private final Thread writer;
+    private final AtomicLong dropped = new AtomicLong();
+
+    @Autowired
+    public SqlLog(
+            @Value("${taskmanager.sql-log.slow-threshold:100ms}") Duration slowThreshold,
+            @Value("${taskmanager.sql-log.sample-rate:0.01}") double sampleRate,
+            @Value("${taskmanager.sql-log.repeated-select-threshold:10}") int repeatedSelectThreshold,
+            @Value("${taskmanager.sql-log.buffer-capacity:4096}") int bufferCapacity,
+            MeterRegistry meterRegistry
+    ) {
+        this(slowThreshold, sampleRate, repeatedSelectThreshold, bufferCapacity, (kind, message) -> {
+            if (kind == Kind.SAMPLED) {
+                log.info(message);
+            } else {
+                log.warn(message);
+            }
+        });
+        FunctionCounter.builder("taskmanager.sql.log.dropped", dropped, AtomicLong::get)
+                .description("SQL log entries dropped because the buffer was full")
+                .register(meterRegistry);
+    }
+
+    SqlLog(Duration slowThreshold, double sampleRate, int repeatedSelectThreshold, int bufferCapacity,
+           BiConsumer<Kind, String> sink) {
+        this.slowThresholdMillis = slowThreshold.toMillis();
+        this.sampleRate = sampleRate;
+        this.repeatedSelectThreshold = repeatedSelectThreshold;
+        this.queue = new ArrayBlockingQueue<>(bufferCapacity);
+        this.sink = sink;
+        this.writer = new Thread(this::drain, "sql-log");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // Called on the executing thread after every statement or batch
+    public void statementExecuted(String sql, long millis, int batchSize, boolean success) {
+        if (millis >= slowThresholdMillis || !success) {
+            offer(new Entry(Kind.SLOW, sql, millis, batchSize, success, null, 0, 0));
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            offer(new Entry(Kind.SAMPLED, sql, millis, batchSize, true, null, 0, 0));
+        }
+    }
+
+    // Called once per request with the statements it issued
+    public void requestFinished(String request, SqlStatementCounter.Counts counts) {
+        if (counts.getMostRepeatedCount() >= repeatedSelectThreshold) {
+            offer(new Entry(Kind.REPEATED_SELECT, counts.getMostRepeatedSelect(), 0, 0, true, request,
+                    counts.getMostRepeatedCount(), counts.getTotal()));
+        }
+    }
+
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.interrupt();
+    }
+
+    private void offer(Entry entry) {
+        if (!queue.offer(entry)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                write(queue.take());
+            }
+        } catch (InterruptedException e) {
+            // Flush what is already buffered, then stop
+            Entry entry;
+            while ((entry = queue.poll()) != null) {
+                write(entry);
+            }
+        }
+    }
+
+    private void write(Entry entry) {
+        String batch = entry.batchSize() > 0 ? " (batch of " + entry.batchSize() + ")" : "";
+        String message = switch (entry.kind()) {
+            case SLOW -> (entry.success() ? "Slow statement " : "Failed statement ")
+                    + entry.millis() + " ms" + batch + ": " + entry.sql();
+            case SAMPLED -> "Sampled statement " + entry.millis() + " ms" + batch + ": " + entry.sql();
+            case REPEATED_SELECT -> "Possible N+1: " + entry.request() + " ran the same select "
+                    + entry.count() + " times (" + entry.total() + " statements in total): " + entry.sql();
+        };
+        sink.accept(entry.kind(), message);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.taskmanager.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+
+// Hands the text and duration of every executed statement to the SQL log.
+// The log is looked up on first use because the data source is created before it.
+public class SqlLogListener implements QueryExecutionListener {
+
+    private final ObjectProvider<SqlLog> sqlLogProvider;
+    private volatile SqlLog sqlLog;
+
+    public SqlLogListener(ObjectProvider<SqlLog> sqlLogProvider) {
+        this.sqlLogProvider = sqlLogProvider;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlLog log = sqlLog;
+        if (log == null) {
+            log = sqlLogProvider.getIfAvailable();
+            if (log == null) {
+                return;
+            }
+            sqlLog = log;
+        }
+        String sql = queryInfoList.size() == 1 ? queryInfoList.get(0).getQuery() : describe(queryInfoList);
+        log.statementExecuted(sql, execInfo.getElapsedTime(), execInfo.isBatch() ? execInfo.getBatchSize() : 0,
+                execInfo.isSuccess());
+    }
+
+    // A statement batch may mix several texts
+    private static String describe(List<QueryInfo> queryInfoList) {
+        StringBuilder sql = new StringBuilder();
+        for (QueryInfo queryInfo : queryInfoList) {
+            if (!sql.isEmpty()) {
+                sql.append("; ");
+            }
+            sql.append(queryInfo.getQuery());
+        }
+        return sql.toString();
+    }
+}
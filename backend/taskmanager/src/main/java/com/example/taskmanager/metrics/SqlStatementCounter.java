@@ -0,0 +1,83 @@
+package com.example.taskmanager.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Counts the SQL statements Hibernate prepares on the current thread while counting is switched on,
+// and which SELECT was repeated most often, the signature of an N+1 query.
+// The per-thread state is reused from request to request, so counting allocates only for new statement texts.
+public class SqlStatementCounter implements StatementInspector {
+
+    // What one thread saw between start and stop; valid until that thread starts counting again
+    public static final class Counts {
+        private boolean active;
+        private int total;
+        private final Map<String, int[]> selects = new HashMap<>();
+        private String mostRepeatedSelect;
+        private int mostRepeatedCount;
+
+        public int getTotal() {
+            return total;
+        }
+
+        public String getMostRepeatedSelect() {
+            return mostRepeatedSelect;
+        }
+
+        public int getMostRepeatedCount() {
+            return mostRepeatedCount;
+        }
+
+        private void reset() {
+            total = 0;
+            selects.clear();
+            mostRepeatedSelect = null;
+            mostRepeatedCount = 0;
+        }
+    }
+
+    private static final Counts NONE = new Counts();
+
+    private final ThreadLocal<Counts> counts = ThreadLocal.withInitial(Counts::new);
+
+    // Start counting on this thread, discarding anything counted before
+    public void start() {
+        Counts current = counts.get();
+        current.reset();
+        current.active = true;
+    }
+
+    // Stop counting on this thread and return what was seen since start
+    public Counts stop() {
+        Counts current = counts.get();
+        if (!current.active) {
+            return NONE;
+        }
+        current.active = false;
+        return current;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Counts current = counts.get();
+        if (!current.active) {
+            return sql;
+        }
+        current.total++;
+        if (sql.regionMatches(true, 0, "select", 0, 6) && !isSequenceRead(sql)) {
+            int[] repeats = current.selects.computeIfAbsent(sql, key -> new int[1]);
+            if (++repeats[0] > current.mostRepeatedCount) {
+                current.mostRepeatedCount = repeats[0];
+                current.mostRepeatedSelect = sql;
+            }
+        }
+        return sql;
+    }
+
+    // Pooled id generation reads the sequence once per allocation block; that repeats by design
+    private static boolean isSequenceRead(String sql) {
+        return sql.regionMatches(true, 7, "next value for", 0, 14) || sql.contains("nextval(");
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.taskmanager.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Records how many SQL statements each request issued, so N+1 queries show up as a shifted distribution,
+// and hands the counts to the SQL log, which reports a select repeated too often within one request.
+// Only statements run on the request thread are seen; work handed to async threads (export, stream) is not.
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    private final SqlStatementCounter counter;
+    private final SqlLog sqlLog;
+    private final DistributionSummary statementsPerRequest;
+
+    public StatementCountFilter(SqlStatementCounter counter, SqlLog sqlLog, MeterRegistry registry) {
+        this.counter = counter;
+        this.sqlLog = sqlLog;
+        this.statementsPerRequest = DistributionSummary.builder("hibernate.statements.per.request")
+                .description("SQL statements prepared while serving one HTTP request")
+                .baseUnit("statements")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        counter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlStatementCounter.Counts counts = counter.stop();
+            statementsPerRequest.record(counts.getTotal());
+            sqlLog.requestFinished(request.getMethod() + " " + request.getRequestURI(), counts);
+        }
+    }
+}
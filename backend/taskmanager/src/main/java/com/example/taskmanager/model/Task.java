@@ -6,15 +6,25 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        // "Open tasks, newest first" and other completed-filtered views sorted by last update
+        @Index(name = "idx_tasks_completed_updated_at_id", columnList = "completed, updated_at DESC, id DESC"),
+        // Unfiltered views sorted or ranged by last update
+        @Index(name = "idx_tasks_updated_at_id", columnList = "updated_at, id"),
+        @Index(name = "idx_tasks_created_at_id", columnList = "created_at, id")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @ToString
 @Builder
 @Data
 public class Task {
+    // Pooled sequence: one sequence call hands out ID_ALLOCATION_SIZE keys, so inserts can be JDBC batched
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_id_seq")
+    @SequenceGenerator(name = "task_id_seq", sequenceName = "task_id_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private String title;
@@ -23,6 +33,10 @@ public class Task {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // Optimistic lock; also the task's entity tag
+    @Version
+    private Long version;
+
     @PrePersist
     public void prePersist() {
         this.createdAt = LocalDateTime.now();
@@ -0,0 +1,24 @@
+package com.example.taskmanager.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Marker left behind by a hard delete so delta-sync clients learn that the task is gone
+@Entity
+@Table(name = "task_tombstones", indexes = {
+        @Index(name = "idx_task_tombstones_deleted_at", columnList = "deleted_at")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@Builder
+@Data
+public class TaskTombstone {
+    // Id of the deleted task; ids come from a sequence and are never reused
+    @Id
+    private Long taskId;
+
+    private LocalDateTime deletedAt;
+}
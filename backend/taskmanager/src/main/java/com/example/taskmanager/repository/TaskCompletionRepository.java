@@ -0,0 +1,14 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.model.Task;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+// Completing a task in one statement that also returns the row it wrote
+public interface TaskCompletionRepository {
+
+    // Complete an open task, setting updatedAt and bumping the version as entity callbacks would, and return it as
+    // updated; empty when the task does not exist or is already completed
+    Optional<Task> completeById(Long id, LocalDateTime updatedAt);
+}
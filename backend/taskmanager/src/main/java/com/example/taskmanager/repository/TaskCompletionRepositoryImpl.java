@@ -0,0 +1,53 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.model.Task;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+// Picked up by Spring Data as the implementation of the TaskCompletionRepository fragment of TaskRepository.
+// H2's FINAL TABLE returns the rows an UPDATE wrote, so the task comes back without a second SELECT. The row is read
+// into a new Task rather than an entity result, which would hand back an instance already loaded in the persistence
+// context with its old state
+@RequiredArgsConstructor
+class TaskCompletionRepositoryImpl implements TaskCompletionRepository {
+
+    private static final String COMPLETE_RETURNING = "select id, title, description, completed, created_at, "
+            + "updated_at, version from final table (update tasks set completed = true, updated_at = :updatedAt, "
+            + "version = version + 1 where id = :id and completed = false)";
+
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public Optional<Task> completeById(Long id, LocalDateTime updatedAt) {
+        List<Tuple> rows = entityManager.createNativeQuery(COMPLETE_RETURNING, Tuple.class)
+                .unwrap(NativeQuery.class)
+                .addScalar("id", Long.class)
+                .addScalar("title", String.class)
+                .addScalar("description", String.class)
+                .addScalar("completed", Boolean.class)
+                .addScalar("created_at", LocalDateTime.class)
+                .addScalar("updated_at", LocalDateTime.class)
+                .addScalar("version", Long.class)
+                .setParameter("id", id)
+                .setParameter("updatedAt", updatedAt)
+                .getResultList();
+        return rows.stream().findFirst().map(row -> Task.builder()
+                .id(row.get(0, Long.class))
+                .title(row.get(1, String.class))
+                .description(row.get(2, String.class))
+                .completed(row.get(3, Boolean.class))
+                .createdAt(row.get(4, LocalDateTime.class))
+                .updatedAt(row.get(5, LocalDateTime.class))
+                .version(row.get(6, Long.class))
+                .build());
+    }
+}
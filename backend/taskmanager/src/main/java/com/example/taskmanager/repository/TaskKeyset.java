@@ -0,0 +1,13 @@
+package com.example.taskmanager.repository;
+
+import java.time.LocalDateTime;
+
+// Where a keyset page starts: strictly after (lastValue, lastId) in the order of field, then id. Stores with an index
+// on that order can seek to it instead of testing every task against the predicate
+public record TaskKeyset(
+        String field,
+        boolean descending,
+        LocalDateTime lastValue,
+        Long lastId
+) {
+}
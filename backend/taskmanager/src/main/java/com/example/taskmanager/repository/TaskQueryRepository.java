@@ -0,0 +1,16 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.model.Task;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+// Queries taking a TaskSpecification, which every task store can evaluate, unlike an arbitrary Specification
+public interface TaskQueryRepository {
+
+    // At most limit matching tasks in the given order
+    List<Task> findTasks(TaskSpecification spec, Sort sort, int limit);
+
+    // At most limit summaries of matching tasks in the given order, selecting only the summary columns
+    List<TaskSummary> findSummaries(TaskSpecification spec, Sort sort, int limit);
+}
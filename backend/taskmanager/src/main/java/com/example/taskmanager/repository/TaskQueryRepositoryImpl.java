@@ -0,0 +1,58 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.model.Task;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+// Picked up by Spring Data as the implementation of the TaskQueryRepository fragment of TaskRepository
+@RequiredArgsConstructor
+class TaskQueryRepositoryImpl implements TaskQueryRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Task> findTasks(TaskSpecification spec, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Task> query = cb.createQuery(Task.class);
+        Root<Task> root = query.from(Task.class);
+        query.select(root);
+        return resultList(query, root, spec, sort, limit);
+    }
+
+    @Override
+    public List<TaskSummary> findSummaries(TaskSpecification spec, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskSummary> query = cb.createQuery(TaskSummary.class);
+        Root<Task> root = query.from(Task.class);
+        query.select(cb.construct(TaskSummary.class,
+                root.get("id"),
+                root.get("title"),
+                root.get("completed"),
+                root.get("createdAt"),
+                root.get("updatedAt"),
+                root.get("version")));
+        return resultList(query, root, spec, sort, limit);
+    }
+
+    private <T> List<T> resultList(CriteriaQuery<T> query, Root<Task> root, TaskSpecification spec, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        if (spec != null) {
+            query.where(spec.toPredicate(root, query, cb));
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        TypedQuery<T> typedQuery = entityManager.createQuery(query);
+        if (limit < Integer.MAX_VALUE) {
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultList();
+    }
+}
@@ -1,9 +1,81 @@
 package com.example.taskmanager.repository;
 
 import com.example.taskmanager.model.Task;
-import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Only the operations the application uses, so that every task store can implement all of them. The CRUD methods
+// share their signatures with JpaRepository, so Spring Data serves them from its JPA implementation
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
-}
\ No newline at end of file
+public interface TaskRepository extends org.springframework.data.repository.Repository<Task, Long>,
+        TaskQueryRepository, TaskCompletionRepository {
+
+    <S extends Task> S save(S entity);
+
+    <S extends Task> List<S> saveAll(Iterable<S> entities);
+
+    <S extends Task> S saveAndFlush(S entity);
+
+    Optional<Task> findById(Long id);
+
+    boolean existsById(Long id);
+
+    // Every task, in no particular order
+    List<Task> findAll();
+
+    List<Task> findAllById(Iterable<Long> ids);
+
+    long count();
+
+    void deleteById(Long id);
+
+    void delete(Task entity);
+
+    void deleteAll();
+
+    // One DELETE statement, without loading the tasks first
+    void deleteAllInBatch();
+
+    void flush();
+
+    // Version of a single task, read without hydrating the entity
+    @Query("select t.version from Task t where t.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    // A single task without its description
+    @Query("select new com.example.taskmanager.repository.TaskSummary(t.id, t.title, t.completed, t.createdAt, "
+            + "t.updatedAt, t.version) from Task t where t.id = :id")
+    Optional<TaskSummary> findSummaryById(Long id);
+
+    // Single-statement delete, unlike deleteById which loads the entity first. Deletes the task only when its completed
+    // flag matches, so the row count also tells the caller which flag it had, without reading the row first.
+    // Returns the number of rows deleted, 0 when there is no such task with that flag
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Task t where t.id = :id and t.completed = :completed")
+    int removeByIdAndCompleted(Long id, boolean completed);
+
+    // Served by idx_tasks_completed_updated_at_id without touching the table
+    long countByCompleted(boolean completed);
+
+    // Tasks written after the watermark; a range scan on idx_tasks_updated_at_id
+    List<Task> findByUpdatedAtAfterOrderByUpdatedAtAscIdAsc(LocalDateTime since);
+
+    // Cursor-backed stream over every task; must be consumed inside a transaction and closed
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<Task> streamAllByOrderByIdAsc();
+}
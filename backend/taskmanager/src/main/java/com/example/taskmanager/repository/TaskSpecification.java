@@ -0,0 +1,56 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.model.Task;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+// A Specification that can also be tested against a task in memory, for task stores that do not run JPA queries.
+// Combining two of them with and() keeps both forms; combining with any other Specification only keeps the Criteria one.
+// A specification that starts a keyset page also carries its keyset, for stores that can seek to it.
+public final class TaskSpecification implements Specification<Task> {
+
+    private final Specification<Task> criteria;
+    private final java.util.function.Predicate<Task> filter;
+    private final TaskKeyset keyset;
+
+    TaskSpecification(Specification<Task> criteria, java.util.function.Predicate<Task> filter) {
+        this(criteria, filter, null);
+    }
+
+    TaskSpecification(Specification<Task> criteria, java.util.function.Predicate<Task> filter, TaskKeyset keyset) {
+        this.criteria = criteria;
+        this.filter = filter;
+        this.keyset = keyset;
+    }
+
+    @Override
+    public Predicate toPredicate(Root<Task> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        return criteria.toPredicate(root, query, cb);
+    }
+
+    // Whether the task matches, with the same outcome as the Criteria predicate would have in the database
+    public boolean test(Task task) {
+        return filter.test(task);
+    }
+
+    // The keyset page this specification starts after, or null; the predicate already excludes the earlier tasks
+    public TaskKeyset keyset() {
+        return keyset;
+    }
+
+    public TaskSpecification and(TaskSpecification other) {
+        return new TaskSpecification(criteria.and(other.criteria), filter.and(other.filter),
+                keyset != null ? keyset : other.keyset);
+    }
+
+    @Override
+    public Specification<Task> and(Specification<Task> other) {
+        if (other instanceof TaskSpecification taskSpecification) {
+            return and(taskSpecification);
+        }
+        return Specification.super.and(other);
+    }
+}
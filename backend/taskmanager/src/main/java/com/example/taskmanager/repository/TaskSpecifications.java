@@ -0,0 +1,78 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.dto.TaskQuery;
+import com.example.taskmanager.model.Task;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+// Criteria for the filtered task list; each predicate lines up with a column of the tasks indexes.
+// Every specification carries an in-memory twin of its predicate for stores that do not run JPA queries.
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {
+    }
+
+    public static TaskSpecification matching(TaskQuery query) {
+        Specification<Task> criteria = (root, criteriaQuery, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (query.getCompleted() != null) {
+                predicates.add(cb.equal(root.get("completed"), query.getCompleted()));
+            }
+            if (query.getCreatedAfter() != null) {
+                predicates.add(cb.greaterThan(root.get("createdAt"), query.getCreatedAfter()));
+            }
+            if (query.getCreatedBefore() != null) {
+                predicates.add(cb.lessThan(root.get("createdAt"), query.getCreatedBefore()));
+            }
+            if (query.getUpdatedSince() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("updatedAt"), query.getUpdatedSince()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+        // As in SQL, a comparison with a missing timestamp does not match
+        return new TaskSpecification(criteria, task ->
+                (query.getCompleted() == null || query.getCompleted() == task.isCompleted())
+                        && (query.getCreatedAfter() == null
+                        || task.getCreatedAt() != null && task.getCreatedAt().isAfter(query.getCreatedAfter()))
+                        && (query.getCreatedBefore() == null
+                        || task.getCreatedAt() != null && task.getCreatedAt().isBefore(query.getCreatedBefore()))
+                        && (query.getUpdatedSince() == null
+                        || task.getUpdatedAt() != null && !task.getUpdatedAt().isBefore(query.getUpdatedSince())));
+    }
+
+    // Rows strictly after (lastValue, lastId) in the given order; lastValue is ignored when sorting by id
+    public static TaskSpecification after(String field, boolean descending, LocalDateTime lastValue, Long lastId) {
+        Specification<Task> criteria = (root, criteriaQuery, cb) -> {
+            Predicate idAfter = descending
+                    ? cb.lessThan(root.get("id"), lastId)
+                    : cb.greaterThan(root.get("id"), lastId);
+            if (field.equals("id")) {
+                return idAfter;
+            }
+            Predicate valueAfter = descending
+                    ? cb.lessThan(root.get(field), lastValue)
+                    : cb.greaterThan(root.get(field), lastValue);
+            return cb.or(valueAfter, cb.and(cb.equal(root.get(field), lastValue), idAfter));
+        };
+        TaskKeyset keyset = new TaskKeyset(field, descending, lastValue, lastId);
+        if (field.equals("id")) {
+            return new TaskSpecification(criteria,
+                    task -> descending ? task.getId() < lastId : task.getId() > lastId, keyset);
+        }
+        Function<Task, LocalDateTime> value = field.equals("createdAt") ? Task::getCreatedAt : Task::getUpdatedAt;
+        return new TaskSpecification(criteria, task -> {
+            LocalDateTime taskValue = value.apply(task);
+            if (taskValue == null) {
+                return false;
+            }
+            int order = descending ? lastValue.compareTo(taskValue) : taskValue.compareTo(lastValue);
+            boolean idAfter = descending ? task.getId() < lastId : task.getId() > lastId;
+            return order > 0 || order == 0 && idAfter;
+        }, keyset);
+    }
+}
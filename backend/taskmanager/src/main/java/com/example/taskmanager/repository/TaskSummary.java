@@ -0,0 +1,14 @@
+package com.example.taskmanager.repository;
+
+import java.time.LocalDateTime;
+
+// Every column of a task except its description, the only one that can be large; read by list views that do not show it
+public record TaskSummary(
+        Long id,
+        String title,
+        boolean completed,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long version
+) {
+}
@@ -0,0 +1,24 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.model.TaskTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+
+    // Range scan on idx_task_tombstones_deleted_at
+    List<TaskTombstone> findByDeletedAtAfterOrderByDeletedAtAsc(LocalDateTime since);
+
+    // Single-statement prune of tombstones no client can still need
+    @Transactional
+    @Modifying
+    @Query("delete from TaskTombstone t where t.deletedAt < :cutoff")
+    int removeByDeletedAtBefore(LocalDateTime cutoff);
+}
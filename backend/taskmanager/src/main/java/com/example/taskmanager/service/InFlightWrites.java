@@ -0,0 +1,37 @@
+package com.example.taskmanager.service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Start times of the writes that have not committed yet. Every timestamp a write stamps on its rows is taken after it
+// began, so a delta-sync that resumes from the oldest start still in flight cannot miss a write that commits later,
+// however long its transaction takes
+final class InFlightWrites {
+
+    private final ConcurrentMap<Long, LocalDateTime> started = new ConcurrentHashMap<>();
+    private final AtomicLong tickets = new AtomicLong();
+
+    // Register a write about to start; pass the ticket to end once its changes are committed and counted
+    long begin() {
+        long ticket = tickets.incrementAndGet();
+        started.put(ticket, LocalDateTime.now());
+        return ticket;
+    }
+
+    void end(long ticket) {
+        started.remove(ticket);
+    }
+
+    // The start of the oldest write in flight, or the given time when no write started before it
+    LocalDateTime oldestStartOr(LocalDateTime time) {
+        LocalDateTime oldest = time;
+        for (LocalDateTime start : started.values()) {
+            if (start.isBefore(oldest)) {
+                oldest = start;
+            }
+        }
+        return oldest;
+    }
+}
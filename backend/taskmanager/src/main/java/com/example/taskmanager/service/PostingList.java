@@ -0,0 +1,120 @@
+package com.example.taskmanager.service;
+
+import java.util.Arrays;
+
+// Open-addressing map from task id to term frequency, kept on primitives so a posting costs 12 bytes, not a boxed entry
+final class PostingList {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] ids;
+    private int[] freqs;
+    private int size;
+
+    PostingList() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Frequency of the id, 0 when absent
+    int get(long id) {
+        int slot = find(id);
+        return slot < 0 ? 0 : freqs[slot];
+    }
+
+    void put(long id, int freq) {
+        if ((size + 1) * 2 > ids.length) {
+            resize(ids.length * 2);
+        }
+        int mask = ids.length - 1;
+        int slot = home(id, mask);
+        while (ids[slot] != EMPTY && ids[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        if (ids[slot] == EMPTY) {
+            size++;
+        }
+        ids[slot] = id;
+        freqs[slot] = freq;
+    }
+
+    boolean remove(long id) {
+        int slot = find(id);
+        if (slot < 0) {
+            return false;
+        }
+        size--;
+        // Backward-shift deletion keeps every probe chain unbroken without tombstones
+        int mask = ids.length - 1;
+        int gap = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (ids[next] == EMPTY) {
+                break;
+            }
+            int home = home(ids[next], mask);
+            boolean stays = gap <= next ? (gap < home && home <= next) : (gap < home || home <= next);
+            if (!stays) {
+                ids[gap] = ids[next];
+                freqs[gap] = freqs[next];
+                gap = next;
+            }
+        }
+        ids[gap] = EMPTY;
+        return true;
+    }
+
+    // Visit postings until the visitor returns false
+    void forEach(Visitor visitor) {
+        for (int slot = 0; slot < ids.length; slot++) {
+            if (ids[slot] != EMPTY && !visitor.visit(ids[slot], freqs[slot])) {
+                return;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface Visitor {
+        boolean visit(long id, int freq);
+    }
+
+    private int find(long id) {
+        int mask = ids.length - 1;
+        int slot = home(id, mask);
+        while (ids[slot] != EMPTY) {
+            if (ids[slot] == id) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static int home(long id, int mask) {
+        long mixed = id * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        ids = new long[capacity];
+        freqs = new int[capacity];
+        Arrays.fill(ids, EMPTY);
+    }
+
+    private void resize(int capacity) {
+        long[] oldIds = ids;
+        int[] oldFreqs = freqs;
+        allocate(capacity);
+        size = 0;
+        for (int slot = 0; slot < oldIds.length; slot++) {
+            if (oldIds[slot] != EMPTY) {
+                put(oldIds[slot], oldFreqs[slot]);
+            }
+        }
+    }
+}
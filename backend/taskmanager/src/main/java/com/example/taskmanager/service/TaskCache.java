@@ -0,0 +1,103 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.CacheStatsDto;
+import com.example.taskmanager.dto.TaskDto;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+// Bounded read-through cache of TaskDto by id, evicting by size and time since write.
+// Writers must invalidate after their change is committed; a load that races with an
+// invalidation is discarded because the invalidation removes the load's pending entry.
+// Loads run on the caller's thread outside any map lock, and concurrent readers of the same id wait for the first
+// one's load, so a load that waits on the database never blocks the readers of other ids or pins a virtual thread.
+// Readers that waited on a load that failed run their own.
+@Component
+public class TaskCache {
+
+    private final AsyncCache<Long, TaskDto> cache;
+    // Entries are claimed through the map view, which does not count hits and misses; get counts them itself
+    private final StatsCounter statsCounter = new ConcurrentStatsCounter();
+
+    public TaskCache(
+            @Value("${taskmanager.cache.maximum-size:10000}") long maximumSize,
+            @Value("${taskmanager.cache.ttl:5m}") Duration ttl
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats(() -> statsCounter)
+                .buildAsync();
+    }
+
+    public TaskDto get(Long id, Function<Long, TaskDto> loader) {
+        while (true) {
+            CompletableFuture<TaskDto> loading = new CompletableFuture<>();
+            CompletableFuture<TaskDto> cached = cache.asMap().putIfAbsent(id, loading);
+            if (cached == null) {
+                statsCounter.recordMisses(1);
+                return load(id, loader, loading);
+            }
+            TaskDto task = cached.join();
+            if (task != null) {
+                statsCounter.recordHits(1);
+                return task;
+            }
+            // The load this reader waited for failed; run one of its own, as a reader arriving now would
+        }
+    }
+
+    // Cached entry without loading it or waiting for a load in progress, or null
+    public TaskDto peek(Long id) {
+        CompletableFuture<TaskDto> cached = cache.getIfPresent(id);
+        return cached != null && cached.isDone() ? cached.join() : null;
+    }
+
+    public void put(TaskDto task) {
+        cache.put(task.getId(), CompletableFuture.completedFuture(task));
+    }
+
+    public void invalidate(Long id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    // Run pending maintenance such as evictions now instead of on a later access
+    void cleanUp() {
+        cache.synchronous().cleanUp();
+    }
+
+    public CacheStatsDto stats() {
+        CacheStats stats = cache.synchronous().stats();
+        return CacheStatsDto.builder()
+                .size(cache.synchronous().estimatedSize())
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .evictions(stats.evictionCount())
+                .hitRate(stats.hitRate())
+                .build();
+    }
+
+    private TaskDto load(Long id, Function<Long, TaskDto> loader, CompletableFuture<TaskDto> loading) {
+        TaskDto task = null;
+        try {
+            task = loader.apply(id);
+            return task;
+        } finally {
+            // A null result drops the entry, so a failed load leaves nothing behind; failing the future instead
+            // would have Caffeine log every missing task as a warning
+            loading.complete(task);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.taskmanager.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Opaque delta-sync token: the list version it was issued at plus the change watermark to resume from
+final class TaskChangeToken {
+
+    private static final String SEPARATOR = "|";
+
+    private final String listVersion;
+    private final LocalDateTime watermark;
+
+    private TaskChangeToken(String listVersion, LocalDateTime watermark) {
+        this.listVersion = listVersion;
+        this.watermark = watermark;
+    }
+
+    static String encode(String listVersion, LocalDateTime watermark) {
+        String raw = listVersion + SEPARATOR + watermark;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TaskChangeToken decode(String token) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", -1);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid change token: " + token, ex);
+        }
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid change token: " + token);
+        }
+        try {
+            return new TaskChangeToken(parts[0], LocalDateTime.parse(parts[1]));
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid change token: " + token, ex);
+        }
+    }
+
+    String listVersion() {
+        return listVersion;
+    }
+
+    LocalDateTime watermark() {
+        return watermark;
+    }
+}
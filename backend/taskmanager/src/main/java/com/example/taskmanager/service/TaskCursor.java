@@ -0,0 +1,54 @@
+package com.example.taskmanager.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Opaque keyset cursor handed out to clients: the sort it belongs to plus the sort key and id of the last row seen
+final class TaskCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime value;
+    private final Long id;
+
+    private TaskCursor(LocalDateTime value, Long id) {
+        this.value = value;
+        this.id = id;
+    }
+
+    static String encode(TaskSort sort, LocalDateTime value, Long id) {
+        String raw = sort.key() + SEPARATOR + (sort.byId() ? "" : value) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TaskCursor decode(String cursor, TaskSort sort) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", -1);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, ex);
+        }
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        if (!parts[0].equals(sort.key())) {
+            throw new IllegalArgumentException("Cursor was issued for sort " + parts[0] + ", not " + sort.key());
+        }
+        try {
+            LocalDateTime value = sort.byId() ? null : LocalDateTime.parse(parts[1]);
+            return new TaskCursor(value, Long.parseLong(parts[2]));
+        } catch (DateTimeParseException | NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, ex);
+        }
+    }
+
+    LocalDateTime value() {
+        return value;
+    }
+
+    Long id() {
+        return id;
+    }
+}
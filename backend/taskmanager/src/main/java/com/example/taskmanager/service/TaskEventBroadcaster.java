@@ -0,0 +1,200 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Fans committed task events out to Server-Sent Events subscribers.
+// Each event is encoded once into a complete SSE frame whose bytes every subscriber shares; they go out
+// through the byte array converter untouched, with no per-subscriber serialization. Publishing only
+// enqueues the frame; a small sender pool writes to the sockets, so a slow client never blocks the writer.
+// A subscriber whose queue fills up is disconnected rather than buffered for without limit.
+@Slf4j
+@Component
+public class TaskEventBroadcaster {
+
+    private static final byte[] HEARTBEAT = ":heartbeat\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+    private final int queueCapacity;
+    private final long timeoutMillis;
+    private final ExecutorService senders;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong eventIds = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<byte[]> queue;
+        // Set while a sender owns this subscriber, so its frames go out in order on one thread at a time
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, int queueCapacity) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+    }
+
+    public TaskEventBroadcaster(
+            ObjectMapper objectMapper,
+            @Value("${taskmanager.stream.queue-capacity:256}") int queueCapacity,
+            @Value("${taskmanager.stream.sender-threads:8}") int senderThreads,
+            @Value("${taskmanager.stream.timeout:30m}") Duration timeout
+    ) {
+        this.objectMapper = objectMapper;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = timeout.toMillis();
+        AtomicInteger threadIds = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "task-stream-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Register a new subscriber, removed once its connection ends or the stream timeout passes. Browsers reconnect
+    // on their own after a timeout, so a finite one only bounds how long a vanished client can hold its request
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter, queueCapacity);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> {
+            subscribers.remove(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        // Commits the response headers right away so clients know the stream is open
+        enqueue(subscriber, HEARTBEAT);
+        return emitter;
+    }
+
+    @EventListener
+    public void onTaskEvent(TaskEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        String raw = "id:" + eventIds.incrementAndGet() + "\n"
+                + "event:" + event.getType().name().toLowerCase(Locale.ROOT) + "\n"
+                + "data:" + data + "\n\n";
+        broadcast(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Keeps idle connections from being closed by proxies and finds clients that went away
+    @Scheduled(fixedDelayString = "${taskmanager.stream.heartbeat:15s}")
+    public void sendHeartbeat() {
+        broadcast(HEARTBEAT);
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    // Subscribers disconnected because they fell queueCapacity frames behind
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    private void broadcast(byte[] frame) {
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, frame);
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, byte[] frame) {
+        if (!subscriber.queue.offer(frame)) {
+            drop(subscriber);
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        List<byte[]> frames = new ArrayList<>();
+        do {
+            while (subscriber.queue.drainTo(frames) > 0) {
+                // Everything that queued up while the last write was in flight goes out in one write and flush
+                byte[] batch = frames.size() == 1 ? frames.get(0) : concat(frames);
+                frames.clear();
+                try {
+                    subscriber.emitter.send(Set.of(new ResponseBodyEmitter.DataWithMediaType(batch, MediaType.TEXT_EVENT_STREAM)));
+                } catch (IOException | IllegalStateException ex) {
+                    // The client went away or the emitter was already completed
+                    subscribers.remove(subscriber);
+                    subscriber.queue.clear();
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+            // A frame enqueued after the last poll but before the flag was cleared would otherwise sit unsent
+        } while (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            dropped.incrementAndGet();
+            log.debug("Dropping stream subscriber that fell {} events behind", queueCapacity);
+            subscriber.queue.clear();
+            // complete() waits for a send in progress, so do it off the publishing thread
+            senders.execute(subscriber.emitter::complete);
+        }
+    }
+
+    private static byte[] concat(List<byte[]> frames) {
+        int length = 0;
+        for (byte[] frame : frames) {
+            length += frame.length;
+        }
+        byte[] batch = new byte[length];
+        int offset = 0;
+        for (byte[] frame : frames) {
+            System.arraycopy(frame, 0, batch, offset, frame.length);
+            offset += frame.length;
+        }
+        return batch;
+    }
+}
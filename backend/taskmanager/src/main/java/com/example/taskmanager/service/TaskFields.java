@@ -0,0 +1,60 @@
+package com.example.taskmanager.service;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Validated sparse fieldset of a task response, as in ?fields=id,title,completed; ALL when none is asked for
+public final class TaskFields {
+
+    public static final TaskFields ALL = new TaskFields(null);
+
+    private static final List<String> FIELDS =
+            List.of("id", "title", "description", "completed", "createdAt", "updatedAt", "version");
+
+    private final Set<String> names;
+
+    private TaskFields(Set<String> names) {
+        this.names = names;
+    }
+
+    public static TaskFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!FIELDS.contains(name)) {
+                throw new IllegalArgumentException("fields must be a comma-separated list of " + FIELDS);
+            }
+            names.add(name);
+        }
+        return new TaskFields(Collections.unmodifiableSet(names));
+    }
+
+    public boolean isAll() {
+        return names == null;
+    }
+
+    public boolean includes(String field) {
+        return names == null || names.contains(field);
+    }
+
+    // One bit per requested field, in a fixed order, so the same fieldset gives the same mask however it was written
+    public int mask() {
+        int mask = 0;
+        for (int i = 0; i < FIELDS.size(); i++) {
+            if (includes(FIELDS.get(i))) {
+                mask |= 1 << i;
+            }
+        }
+        return mask;
+    }
+
+    // The requested field names; every field for ALL
+    public Set<String> names() {
+        return names == null ? new LinkedHashSet<>(FIELDS) : names;
+    }
+}
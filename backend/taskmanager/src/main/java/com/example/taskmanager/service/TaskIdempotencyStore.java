@@ -0,0 +1,86 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.exception.IdempotencyKeyReusedException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+// Results of task creations by Idempotency-Key, bounded by size and time since the key was first seen, so a retried
+// POST gets the task the first attempt created instead of a second one. The entry is claimed before the insert runs:
+// concurrent requests with the same key wait for the first one's result rather than inserting too. A failed creation
+// leaves nothing behind, so retrying it runs it again. Keys are kept per node, in memory.
+@Component
+public class TaskIdempotencyStore {
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<String, Entry> results;
+
+    // The request a key was first used with, and the task it created once that commits
+    private record Entry(TaskDto request, CompletableFuture<TaskDto> result) {
+    }
+
+    public TaskIdempotencyStore(
+            @Value("${taskmanager.idempotency.maximum-size:10000}") long maximumSize,
+            @Value("${taskmanager.idempotency.ttl:24h}") Duration ttl
+    ) {
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    // The task created under this key, running create for the first request that uses it
+    public TaskDto create(String key, TaskDto request, Supplier<TaskDto> create) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        Entry claim = new Entry(request, new CompletableFuture<>());
+        Entry existing = results.asMap().putIfAbsent(key, claim);
+        if (existing != null) {
+            if (!existing.request().equals(request)) {
+                throw new IdempotencyKeyReusedException(
+                        "Idempotency-Key " + key + " was already used with a different request");
+            }
+            return await(existing.result());
+        }
+        try {
+            TaskDto created = create.get();
+            claim.result().complete(created);
+            return created;
+        } catch (RuntimeException ex) {
+            results.asMap().remove(key, claim);
+            claim.result().completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    // Requests that waited on a creation that failed get its exception too; their retry starts afresh
+    private static TaskDto await(CompletableFuture<TaskDto> result) {
+        try {
+            return result.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    // Run pending maintenance such as evictions now instead of on a later access
+    void cleanUp() {
+        results.cleanUp();
+    }
+
+    long size() {
+        return results.estimatedSize();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.model.Task;
+import com.example.taskmanager.repository.TaskSummary;
+
+// Conversions between the Task entity and TaskDto
+public final class TaskMapper {
+
+    private TaskMapper() {
+    }
+
+    // Convert Task entity to TaskDto
+    public static TaskDto toDto(Task task) {
+        return TaskDto.builder()
+                .id(task.getId())
+                .title(task.getTitle())
+                .description(task.getDescription())
+                .completed(task.isCompleted())
+                .createdAt(task.getCreatedAt())
+                .updatedAt(task.getUpdatedAt())
+                .version(task.getVersion())
+                .build();
+    }
+
+    // Convert a task summary to TaskDto; the description stays null
+    public static TaskDto toDto(TaskSummary summary) {
+        return TaskDto.builder()
+                .id(summary.id())
+                .title(summary.title())
+                .completed(summary.completed())
+                .createdAt(summary.createdAt())
+                .updatedAt(summary.updatedAt())
+                .version(summary.version())
+                .build();
+    }
+
+    // Convert TaskDto to Task entity
+    public static Task toEntity(TaskDto taskDto) {
+        return Task.builder()
+                .id(taskDto.getId())
+                .title(taskDto.getTitle())
+                .description(taskDto.getDescription())
+                .completed(taskDto.isCompleted())
+                .build();
+    }
+}
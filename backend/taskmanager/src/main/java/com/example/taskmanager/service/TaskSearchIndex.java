@@ -0,0 +1,322 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskDto;
+import lombok.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// In-memory inverted index over task title and description, ranked with BM25.
+// All query terms must match; the last term also matches as a prefix so the index can serve search-as-you-type.
+@Component
+public class TaskSearchIndex {
+
+    // A title occurrence counts as this many description occurrences
+    static final int TITLE_WEIGHT = 3;
+    // Upper bound on candidates scored per query, which caps latency for very common terms
+    static final int MAX_CANDIDATES = 20_000;
+    // A prefix matches at most this many terms, the most frequent among the first PREFIX_SCAN_LIMIT in order
+    static final int MAX_PREFIX_EXPANSIONS = 16;
+    static final int PREFIX_SCAN_LIMIT = 256;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private long totalLength;
+
+    // Ids deleted while a rebuild is streaming, so the rebuild cannot resurrect them
+    private final Set<Long> removedDuringRebuild = new HashSet<>();
+    private boolean rebuilding;
+
+    @Value
+    public static class Hit {
+        long id;
+        double score;
+    }
+
+    private static final class Document {
+        private final String[] terms;
+        private final int length;
+        private final Long version;
+
+        private Document(String[] terms, int length, Long version) {
+            this.terms = terms;
+            this.length = length;
+            this.version = version;
+        }
+    }
+
+    // Replace the index contents with every task the source hands over
+    public void rebuild(Consumer<Consumer<TaskDto>> source) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            totalLength = 0;
+            removedDuringRebuild.clear();
+            rebuilding = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            source.accept(this::index);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+                removedDuringRebuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // Add or replace a task; an older version than the one indexed is ignored
+    public void index(TaskDto task) {
+        Map<String, Integer> freqs = termFrequencies(task);
+        int length = freqs.values().stream().mapToInt(Integer::intValue).sum();
+
+        lock.writeLock().lock();
+        try {
+            if (rebuilding && removedDuringRebuild.contains(task.getId())) {
+                return;
+            }
+            Document existing = documents.get(task.getId());
+            if (existing != null && existing.version != null && task.getVersion() != null
+                    && existing.version > task.getVersion()) {
+                return;
+            }
+            if (existing != null) {
+                unindex(task.getId(), existing);
+            }
+            String[] terms = new String[freqs.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : freqs.entrySet()) {
+                String term = entry.getKey();
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    list = new PostingList();
+                    postings.put(term, list);
+                } else {
+                    // Reuse the dictionary's copy of the term so documents do not each hold their own strings
+                    term = postings.ceilingKey(term);
+                }
+                list.put(task.getId(), entry.getValue());
+                terms[i++] = term;
+            }
+            documents.put(task.getId(), new Document(terms, length, task.getVersion()));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) {
+                removedDuringRebuild.add(id);
+            }
+            Document existing = documents.remove(id);
+            if (existing != null) {
+                unindex(id, existing);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Best matches first; at most limit hits
+    public List<Hit> search(String query, int limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+        boolean prefixLast = Character.isLetterOrDigit(query.charAt(query.length() - 1));
+
+        lock.readLock().lock();
+        try {
+            List<List<PostingList>> groups = new ArrayList<>();
+            for (int i = 0; i < tokens.size(); i++) {
+                List<PostingList> group = i == tokens.size() - 1 && prefixLast
+                        ? expandPrefix(tokens.get(i))
+                        : exact(tokens.get(i));
+                if (group.isEmpty()) {
+                    return Collections.emptyList();
+                }
+                groups.add(group);
+            }
+            // Drive the intersection from the rarest group so the fewest candidates are touched
+            groups.sort(Comparator.comparingLong(TaskSearchIndex::documentFrequency));
+
+            PostingList[][] lists = new PostingList[groups.size()][];
+            double[][] idfs = new double[groups.size()][];
+            for (int g = 0; g < groups.size(); g++) {
+                lists[g] = groups.get(g).toArray(new PostingList[0]);
+                idfs[g] = new double[lists[g].length];
+                for (int l = 0; l < lists[g].length; l++) {
+                    int df = lists[g][l].size();
+                    idfs[g][l] = Math.log(1 + (documents.size() - df + 0.5) / (df + 0.5));
+                }
+            }
+            double averageLength = documents.isEmpty() ? 1 : (double) totalLength / documents.size();
+
+            PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(Hit::getScore)
+                    .thenComparing(Comparator.comparingLong(Hit::getId).reversed()));
+            int[] scanned = {0};
+            PostingList[] driver = lists[0];
+            for (int listIndex = 0; listIndex < driver.length && scanned[0] < MAX_CANDIDATES; listIndex++) {
+                int current = listIndex;
+                driver[listIndex].forEach((id, freq) -> {
+                    if (seenInEarlierList(driver, current, id)) {
+                        return true;
+                    }
+                    double score = score(lists, idfs, id, averageLength);
+                    if (score >= 0 && (top.size() < limit || beats(score, id, top.peek()))) {
+                        top.offer(new Hit(id, score));
+                        if (top.size() > limit) {
+                            top.poll();
+                        }
+                    }
+                    return ++scanned[0] < MAX_CANDIDATES;
+                });
+            }
+
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(top.comparator().reversed());
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private Map<String, Integer> termFrequencies(TaskDto task) {
+        Map<String, Integer> freqs = new LinkedHashMap<>();
+        for (String token : tokenize(task.getTitle())) {
+            freqs.merge(token, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String token : tokenize(task.getDescription())) {
+            freqs.merge(token, 1, Integer::sum);
+        }
+        return freqs;
+    }
+
+    private void unindex(Long id, Document document) {
+        for (String term : document.terms) {
+            PostingList list = postings.get(term);
+            if (list != null && list.remove(id) && list.size() == 0) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= document.length;
+    }
+
+    private List<PostingList> exact(String term) {
+        PostingList list = postings.get(term);
+        return list == null ? Collections.emptyList() : List.of(list);
+    }
+
+    // Typing a short prefix can match thousands of terms; keep only the ones most likely meant
+    private List<PostingList> expandPrefix(String prefix) {
+        List<PostingList> lists = new ArrayList<>();
+        for (PostingList list : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            lists.add(list);
+            if (lists.size() == PREFIX_SCAN_LIMIT) {
+                break;
+            }
+        }
+        if (lists.size() > MAX_PREFIX_EXPANSIONS) {
+            lists.sort(Comparator.comparingInt(PostingList::size).reversed());
+            return new ArrayList<>(lists.subList(0, MAX_PREFIX_EXPANSIONS));
+        }
+        return lists;
+    }
+
+    private static long documentFrequency(List<PostingList> group) {
+        long df = 0;
+        for (PostingList list : group) {
+            df += list.size();
+        }
+        return df;
+    }
+
+    private static boolean seenInEarlierList(PostingList[] group, int listIndex, long id) {
+        for (int i = 0; i < listIndex; i++) {
+            if (group[i].get(id) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Same order as the heap comparator, checked before allocating a hit that would be dropped straight away
+    private static boolean beats(double score, long id, Hit weakest) {
+        return score > weakest.getScore() || (score == weakest.getScore() && id < weakest.getId());
+    }
+
+    // BM25 summed over every matching term; -1 when some group does not match the document
+    private double score(PostingList[][] lists, double[][] idfs, long id, double averageLength) {
+        double lengthNorm = K1 * (1 - B + B * documents.get(id).length / averageLength);
+        double score = 0;
+        for (int g = 0; g < lists.length; g++) {
+            boolean matched = false;
+            for (int l = 0; l < lists[g].length; l++) {
+                int freq = lists[g][l].get(id);
+                if (freq > 0) {
+                    matched = true;
+                    score += idfs[g][l] * freq * (K1 + 1) / (freq + lengthNorm);
+                }
+            }
+            if (!matched) {
+                return -1;
+            }
+        }
+        return score;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.taskmanager.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// Loads every stored task into the search index once the application has started
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskSearchIndexInitializer {
+
+    private final TaskService taskService;
+    private final TaskSearchIndex taskSearchIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        long start = System.nanoTime();
+        taskSearchIndex.rebuild(taskService::exportTasks);
+        log.info("Indexed {} tasks for search in {} ms",
+                taskSearchIndex.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
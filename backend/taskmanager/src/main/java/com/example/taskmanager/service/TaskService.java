@@ -1,93 +1,605 @@
 package com.example.taskmanager.service;
 
+import com.example.taskmanager.dto.BulkItemResult;
+import com.example.taskmanager.dto.BulkOperation;
+import com.example.taskmanager.dto.CacheStatsDto;
+import com.example.taskmanager.dto.TaskChanges;
 import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.dto.TaskEvent;
+import com.example.taskmanager.dto.TaskPage;
+import com.example.taskmanager.dto.TaskQuery;
+import com.example.taskmanager.dto.TaskSearchHit;
+import com.example.taskmanager.dto.TaskStatsDto;
+import com.example.taskmanager.exception.PreconditionFailedException;
 import com.example.taskmanager.model.Task;
+import com.example.taskmanager.model.TaskTombstone;
 import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.TaskSpecification;
+import com.example.taskmanager.repository.TaskSpecifications;
+import com.example.taskmanager.repository.TaskTombstoneRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "taskmanager.service", histogram = true)
 public class TaskService {
 
+    static final int MAX_PAGE_SIZE = 500;
+    static final int MAX_SEARCH_RESULTS = 100;
+    static final int MAX_BULK_OPERATIONS = 10_000;
+    // Operations applied per transaction; a multiple of hibernate.jdbc.batch_size
+    static final int BULK_CHUNK_SIZE = 500;
+    // Change tokens resume from the oldest write still in flight (InFlightWrites), less this margin for clock
+    // adjustments between a write stamping its rows and the token being issued
+    static final Duration SYNC_OVERLAP = Duration.ofSeconds(5);
+    // Tokens older than this get a full snapshot, since the tombstones they would need may be gone
+    static final Duration TOMBSTONE_RETENTION = Duration.ofDays(7);
+
     private final TaskRepository taskRepository;
+    private final TaskTombstoneRepository taskTombstoneRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskCache taskCache;
+    private final TaskSearchIndex taskSearchIndex;
+    private final TaskStatistics taskStatistics;
+    private final ApplicationEventPublisher eventPublisher;
 
-    // Convert Task entity to TaskDto
-    private TaskDto convertToDto(Task task) {
-        return TaskDto.builder()
-                .id(task.getId())
-                .title(task.getTitle())
-                .description(task.getDescription())
-                .completed(task.isCompleted())
-                .createdAt(task.getCreatedAt())
-                .updatedAt(task.getUpdatedAt())
-                .build();
-    }
+    // Table-wide change counter behind the list ETag; the epoch keeps tags from repeating across restarts
+    private final String listVersionEpoch = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong listChanges = new AtomicLong();
+    private final InFlightWrites inFlightWrites = new InFlightWrites();
+    // Identical list and page reads running at the same time share one query. The key carries the list version read
+    // before the query, as the list ETag does, so a caller that starts after a write has been counted never joins a
+    // load that may have missed it
+    private final SingleFlight<ListRead, List<TaskDto>> listReads = new SingleFlight<>();
+    private final SingleFlight<ListRead, TaskPage> pageReads = new SingleFlight<>();
 
-    // Convert TaskDto to Task entity
-    private Task convertToEntity(TaskDto taskDto) {
-        return Task.builder()
-                .id(taskDto.getId())
-                .title(taskDto.getTitle())
-                .description(taskDto.getDescription())
-                .completed(taskDto.isCompleted())
-                .build();
+    // What a list or page read returns depends on; fields is null for every field, limit 0 for no limit
+    private record ListRead(long version, TaskQuery query, Set<String> fields, int limit, String cursor) {
     }
 
     // Create a new task
     public TaskDto createTask(TaskDto taskDto) {
-        Task task = convertToEntity(taskDto);
-        Task savedTask = taskRepository.save(task);
-        return convertToDto(savedTask);
+        return tracked(() -> {
+            Task task = TaskMapper.toEntity(taskDto);
+            Task savedTask = taskRepository.save(task);
+            TaskDto createdTask = TaskMapper.toDto(savedTask);
+            taskStatistics.created(createdTask.isCompleted());
+            taskCache.put(createdTask);
+            taskSearchIndex.index(createdTask);
+            listChanges.incrementAndGet();
+            publishChanged(createdTask);
+            return createdTask;
+        });
     }
 
-    // Get all tasks
+    // Get all tasks; the list may be shared with concurrent callers and cannot be modified
     public List<TaskDto> getAllTasks() {
-        return taskRepository.findAll().stream()
-                .map(this::convertToDto)
+        return listReads.load(new ListRead(listChanges.get(), null, null, 0, null), () -> taskRepository.findAll()
+                .stream()
+                .map(TaskMapper::toDto)
+                .toList());
+    }
+
+    // Get all tasks matching the filters, in the requested order
+    public List<TaskDto> getAllTasks(TaskQuery query) {
+        if (isUnfiltered(query)) {
+            return getAllTasks();
+        }
+        TaskSort sort = TaskSort.parse(query.getSort());
+        return listReads.load(new ListRead(listChanges.get(), query, null, 0, null), () -> taskRepository
+                .findTasks(TaskSpecifications.matching(query), sort.toSort(), Integer.MAX_VALUE).stream()
+                .map(TaskMapper::toDto)
+                .toList());
+    }
+
+    // Get matching tasks with only the requested fields filled in; without the description, it is not even selected
+    public List<TaskDto> getAllTasks(TaskQuery query, TaskFields fields) {
+        if (fields.includes("description")) {
+            return getAllTasks(query);
+        }
+        TaskSort sort = TaskSort.parse(query.getSort());
+        return listReads.load(new ListRead(listChanges.get(), query, fields.names(), 0, null), () -> taskRepository
+                .findSummaries(TaskSpecifications.matching(query), sort.toSort(), Integer.MAX_VALUE).stream()
+                .map(TaskMapper::toDto)
+                .toList());
+    }
+
+    private boolean isUnfiltered(TaskQuery query) {
+        return query.getCompleted() == null
+                && query.getCreatedAfter() == null
+                && query.getCreatedBefore() == null
+                && query.getUpdatedSince() == null
+                && query.getSort() == null;
+    }
+
+    // Opaque version of the whole task table; changes whenever any task is written through this service
+    public String getListVersion() {
+        return listVersionEpoch + "-" + listChanges.get();
+    }
+
+    // Get one page of matching tasks, continuing after the given cursor
+    public TaskPage getTaskPage(TaskQuery query, int limit, String cursor) {
+        return getTaskPage(query, limit, cursor, TaskFields.ALL);
+    }
+
+    // As getTaskPage, selecting the description only when it is one of the requested fields
+    public TaskPage getTaskPage(TaskQuery query, int limit, String cursor, TaskFields fields) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        ListRead read = new ListRead(listChanges.get(), query, fields.isAll() ? null : fields.names(), limit, cursor);
+        return pageReads.load(read, () -> loadTaskPage(query, limit, cursor, fields));
+    }
+
+    private TaskPage loadTaskPage(TaskQuery query, int limit, String cursor, TaskFields fields) {
+        TaskSort sort = TaskSort.parse(query.getSort());
+        TaskSpecification spec = TaskSpecifications.matching(query);
+        if (cursor != null) {
+            TaskCursor after = TaskCursor.decode(cursor, sort);
+            spec = spec.and(TaskSpecifications.after(sort.field(), sort.descending(), after.value(), after.id()));
+        }
+
+        // Fetch one extra row to find out whether another page follows; no count query is issued
+        List<TaskDto> tasks;
+        if (fields.includes("description")) {
+            tasks = taskRepository.findTasks(spec, sort.toSort(), limit + 1).stream()
+                    .map(TaskMapper::toDto)
+                    .toList();
+        } else {
+            tasks = taskRepository.findSummaries(spec, sort.toSort(), limit + 1).stream()
+                    .map(TaskMapper::toDto)
+                    .toList();
+        }
+
+        boolean hasMore = tasks.size() > limit;
+        List<TaskDto> items = hasMore ? tasks.subList(0, limit) : tasks;
+        String next = null;
+        if (hasMore) {
+            TaskDto last = items.get(items.size() - 1);
+            LocalDateTime lastValue = sort.field().equals("createdAt") ? last.getCreatedAt() : last.getUpdatedAt();
+            next = TaskCursor.encode(sort, lastValue, last.getId());
+        }
+
+        return TaskPage.builder()
+                .items(items)
+                .next(next)
+                .build();
+    }
+
+    // A change token for a list read that starts now, so the reader can follow it with getChanges instead of reading
+    // the list again. Take it before the rows, like the list ETag, so it never claims more than the read returned
+    public String getChangeToken() {
+        return TaskChangeToken.encode(getListVersion(), syncWatermark(LocalDateTime.now()));
+    }
+
+    // Get tasks created, updated or deleted since the token; a null token returns every task
+    public TaskChanges getChanges(String since) {
+        // Read the version before the rows, like the list ETag, so the token never claims more than was returned
+        String listVersion = getListVersion();
+        LocalDateTime queryStart = LocalDateTime.now();
+        // Taken with the version: a write not counted in it is still in flight, so the next token resumes before it
+        LocalDateTime watermark = syncWatermark(queryStart);
+        TaskChangeToken token = since == null ? null : TaskChangeToken.decode(since);
+
+        // Nothing was written through this service since the token was issued: answer without touching the database
+        if (token != null && token.listVersion().equals(listVersion)) {
+            return TaskChanges.builder()
+                    .changed(List.of())
+                    .deleted(List.of())
+                    .token(since)
+                    .build();
+        }
+
+        String next = TaskChangeToken.encode(listVersion, watermark);
+        if (token == null || token.watermark().isBefore(queryStart.minus(TOMBSTONE_RETENTION))) {
+            return TaskChanges.builder()
+                    .changed(getAllTasks())
+                    .deleted(List.of())
+                    .full(true)
+                    .token(next)
+                    .build();
+        }
+
+        // Changes inside the overlap are sent again; clients apply them as upserts and deletes, so repeats are harmless
+        List<TaskDto> changed = taskRepository.findByUpdatedAtAfterOrderByUpdatedAtAscIdAsc(token.watermark()).stream()
+                .map(TaskMapper::toDto)
+                .collect(Collectors.toList());
+        List<Long> deleted = taskTombstoneRepository.findByDeletedAtAfterOrderByDeletedAtAsc(token.watermark()).stream()
+                .map(TaskTombstone::getTaskId)
+                .collect(Collectors.toList());
+        return TaskChanges.builder()
+                .changed(changed)
+                .deleted(deleted)
+                .token(next)
+                .build();
+    }
+
+    // Drop tombstones older than the retention; clients that far behind resync from a full snapshot
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.HOURS)
+    public void pruneTombstones() {
+        taskTombstoneRepository.removeByDeletedAtBefore(LocalDateTime.now().minus(TOMBSTONE_RETENTION));
+    }
+
+    // Stream every task to the consumer, detaching each entity once it has been handed over
+    @Transactional(readOnly = true)
+    public void exportTasks(Consumer<TaskDto> consumer) {
+        try (Stream<Task> tasks = taskRepository.streamAllByOrderByIdAsc()) {
+            tasks.forEach(task -> {
+                consumer.accept(TaskMapper.toDto(task));
+                entityManager.detach(task);
+            });
+        }
+    }
+
+    // Search title and description, best matches first
+    public List<TaskSearchHit> searchTasks(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("q must not be empty");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+
+        List<TaskSearchIndex.Hit> hits = taskSearchIndex.search(query, limit);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        // One query for all hits; a task deleted since it was ranked is simply left out
+        Map<Long, Task> tasks = taskRepository.findAllById(hits.stream().map(TaskSearchIndex.Hit::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        return hits.stream()
+                .filter(hit -> tasks.containsKey(hit.getId()))
+                .map(hit -> TaskSearchHit.builder()
+                        .task(TaskMapper.toDto(tasks.get(hit.getId())))
+                        .score(hit.getScore())
+                        .build())
                 .collect(Collectors.toList());
     }
 
     // Get task by ID
     public TaskDto getTaskById(Long id) {
-        return taskRepository.findById(id)
-                .map(this::convertToDto)
+        return taskCache.get(id, key -> taskRepository.findById(key)
+                .map(TaskMapper::toDto)
+                .orElseThrow(() -> new EntityNotFoundException("Task not found with id: " + key)));
+    }
+
+    // Get a task with at least the requested fields filled in. A cached task is returned whole; otherwise the
+    // description is only read when requested, and a task read without it is not cached
+    public TaskDto getTaskById(Long id, TaskFields fields) {
+        if (fields.includes("description")) {
+            return getTaskById(id);
+        }
+        TaskDto cached = taskCache.peek(id);
+        if (cached != null) {
+            return cached;
+        }
+        return taskRepository.findSummaryById(id)
+                .map(TaskMapper::toDto)
                 .orElseThrow(() -> new EntityNotFoundException("Task not found with id: " + id));
     }
 
-    // Update a task
-    public TaskDto updateTask(Long id, TaskDto taskDto) {
-        Task existingTask = taskRepository.findById(id)
+    // Get the version of a task, from the cache when possible and otherwise without loading the row
+    public Long getTaskVersion(Long id) {
+        TaskDto cached = taskCache.peek(id);
+        if (cached != null) {
+            return cached.getVersion();
+        }
+        return taskRepository.findVersionById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Task not found with id: " + id));
+    }
 
-        existingTask.setTitle(taskDto.getTitle());
-        existingTask.setDescription(taskDto.getDescription());
-        existingTask.setCompleted(taskDto.isCompleted());
+    // Get hit, miss and eviction counts of the task cache
+    public CacheStatsDto getCacheStats() {
+        return taskCache.stats();
+    }
 
-        Task updatedTask = taskRepository.save(existingTask);
-        return convertToDto(updatedTask);
+    // Get open and completed counts and the daily rollups, from counters rather than the table
+    public TaskStatsDto getStats() {
+        return taskStatistics.snapshot();
     }
 
-    // Mark a task as completed
-    public TaskDto markTaskAsCompleted(Long id) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Task not found with id: " + id));
+    // Update a task
+    public TaskDto updateTask(Long id, TaskDto taskDto) {
+        return updateTask(id, taskDto, null);
+    }
+
+    // Update a task only if it is still at the expected version; null accepts any version
+    public TaskDto updateTask(Long id, TaskDto taskDto, Long expectedVersion) {
+        return tracked(() -> {
+            Task existingTask = taskRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Task not found with id: " + id));
 
-        task.setCompleted(true);
+            if (expectedVersion != null && !expectedVersion.equals(existingTask.getVersion())) {
+                throw new PreconditionFailedException("Task " + id + " is at version " + existingTask.getVersion()
+                        + ", not " + expectedVersion);
+            }
 
-        Task updatedTask = taskRepository.save(task);
-        return convertToDto(updatedTask);
+            boolean wasCompleted = existingTask.isCompleted();
+            existingTask.setTitle(taskDto.getTitle());
+            existingTask.setDescription(taskDto.getDescription());
+            existingTask.setCompleted(taskDto.isCompleted());
+
+            // save() merges the detached entity; a concurrent update in between fails the version check,
+            // so wasCompleted is still the state this write replaced
+            Task updatedTask = taskRepository.save(existingTask);
+            taskStatistics.changed(wasCompleted, updatedTask.isCompleted());
+            taskCache.invalidate(id);
+            listChanges.incrementAndGet();
+            TaskDto result = TaskMapper.toDto(updatedTask);
+            taskSearchIndex.index(result);
+            publishChanged(result);
+            return result;
+        });
+    }
+
+    // Mark a task as completed; completing a completed task changes nothing
+    public TaskDto markTaskAsCompleted(Long id) {
+        return tracked(() -> {
+            // One UPDATE that returns the row it wrote, instead of load, dirty check, merge and read back. It only matches
+            // open tasks; when nothing matched, the task is missing or already completed, and getTaskById tells which,
+            // from the cache when it can. So an open task costs one statement and a completed one at most two
+            Optional<Task> completed = taskRepository.completeById(id, LocalDateTime.now());
+            if (completed.isEmpty()) {
+                return getTaskById(id);
+            }
+            taskStatistics.changed(false, true);
+            taskCache.invalidate(id);
+            listChanges.incrementAndGet();
+            TaskDto completedTask = TaskMapper.toDto(completed.get());
+            publishChanged(completedTask);
+            return completedTask;
+        });
     }
 
     // Delete a task
     public void deleteTask(Long id) {
-        if (!taskRepository.existsById(id)) {
-            throw new EntityNotFoundException("Task not found with id: " + id);
+        tracked(() -> {
+            // The row and its tombstone go in one transaction, so delta-sync cannot miss the delete.
+            // Returns the completed flag of the deleted task, null when there was none
+            Boolean wasCompleted = transactionTemplate.execute(status -> {
+                // No read and no lock: whichever conditional delete removes the row says what the statistics lose
+                boolean completed = false;
+                if (taskRepository.removeByIdAndCompleted(id, false) == 0) {
+                    completed = true;
+                    if (taskRepository.removeByIdAndCompleted(id, true) == 0) {
+                        return null;
+                    }
+                }
+                // persist, not save: the id is assigned, so save would merge and SELECT first. Flushed now so a failing
+                // insert rolls back before the log store applies the delete at commit
+                entityManager.persist(new TaskTombstone(id, LocalDateTime.now()));
+                entityManager.flush();
+                return completed;
+            });
+            if (wasCompleted == null) {
+                throw new EntityNotFoundException("Task not found with id: " + id);
+            }
+            taskStatistics.deleted(wasCompleted);
+            taskCache.invalidate(id);
+            taskSearchIndex.remove(id);
+            listChanges.incrementAndGet();
+            publishDeleted(id);
+        });
+    }
+
+    // Apply a mix of create, update, complete and delete operations in chunked transactions
+    public List<BulkItemResult> bulk(List<BulkOperation> operations) {
+        return tracked(() -> {
+            if (operations.size() > MAX_BULK_OPERATIONS) {
+                throw new IllegalArgumentException("A bulk request may contain at most " + MAX_BULK_OPERATIONS + " operations");
+            }
+
+            List<BulkItemResult> results = new ArrayList<>(operations.size());
+            for (int start = 0; start < operations.size(); start += BULK_CHUNK_SIZE) {
+                List<BulkOperation> chunk = operations.subList(start, Math.min(start + BULK_CHUNK_SIZE, operations.size()));
+                int offset = start;
+                List<Runnable> statisticsUpdates = new ArrayList<>();
+                try {
+                    List<BulkItemResult> chunkResults = transactionTemplate.execute(
+                            status -> applyBulkChunk(chunk, offset, statisticsUpdates));
+                    results.addAll(chunkResults);
+                    statisticsUpdates.forEach(Runnable::run);
+                    // Only committed changes reach the search index and stream subscribers
+                    for (BulkItemResult result : chunkResults) {
+                        if (result.getOp() == BulkOperation.Type.DELETE && result.getStatus() == HttpStatus.NO_CONTENT.value()) {
+                            Long id = chunk.get(result.getIndex() - offset).getId();
+                            taskSearchIndex.remove(id);
+                            publishDeleted(id);
+                        } else if (result.getTask() != null) {
+                            taskSearchIndex.index(result.getTask());
+                            publishChanged(result.getTask());
+                        }
+                    }
+                } catch (RuntimeException ex) {
+                    // The chunk was rolled back as a whole, so none of its operations took effect
+                    for (int i = 0; i < chunk.size(); i++) {
+                        results.add(bulkFailure(offset + i, chunk.get(i), HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage()));
+                    }
+                } finally {
+                    chunk.stream()
+                            .map(BulkOperation::getId)
+                            .filter(Objects::nonNull)
+                            .forEach(taskCache::invalidate);
+                    listChanges.incrementAndGet();
+                }
+            }
+            return results;
+        });
+    }
+
+    // Run a write, keeping its start among the writes in flight until its changes are committed and counted
+    private <T> T tracked(Supplier<T> write) {
+        long ticket = inFlightWrites.begin();
+        try {
+            return write.get();
+        } finally {
+            inFlightWrites.end(ticket);
+        }
+    }
+
+    private void tracked(Runnable write) {
+        tracked(() -> {
+            write.run();
+            return null;
+        });
+    }
+
+    // Where a change token issued at the given time resumes: before every write that may not have been visible yet
+    private LocalDateTime syncWatermark(LocalDateTime issuedAt) {
+        return inFlightWrites.oldestStartOr(issuedAt).minus(SYNC_OVERLAP);
+    }
+
+    private void publishChanged(TaskDto task) {
+        eventPublisher.publishEvent(TaskEvent.builder()
+                .type(TaskEvent.Type.CHANGED)
+                .id(task.getId())
+                .task(task)
+                .build());
+    }
+
+    private void publishDeleted(Long id) {
+        eventPublisher.publishEvent(TaskEvent.builder()
+                .type(TaskEvent.Type.DELETED)
+                .id(id)
+                .build());
+    }
+
+    // Statistics updates are collected rather than applied, so only a committed chunk counts
+    private List<BulkItemResult> applyBulkChunk(List<BulkOperation> chunk, int offset, List<Runnable> statisticsUpdates) {
+        // Load every referenced task with a single query instead of one SELECT per operation
+        List<Long> ids = chunk.stream()
+                .map(BulkOperation::getId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, Task> existing = taskRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        BulkItemResult[] results = new BulkItemResult[chunk.size()];
+        Task[] touched = new Task[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            BulkOperation operation = chunk.get(i);
+            String invalid = validateBulkOperation(operation);
+            if (invalid != null) {
+                results[i] = bulkFailure(offset + i, operation, HttpStatus.BAD_REQUEST, invalid);
+                continue;
+            }
+
+            if (operation.getOp() == BulkOperation.Type.CREATE) {
+                Task task = TaskMapper.toEntity(operation.getTask());
+                task.setId(null);
+                touched[i] = taskRepository.save(task);
+                boolean isCompleted = task.isCompleted();
+                statisticsUpdates.add(() -> taskStatistics.created(isCompleted));
+                continue;
+            }
+
+            Task task = existing.get(operation.getId());
+            if (task == null) {
+                results[i] = bulkFailure(offset + i, operation, HttpStatus.NOT_FOUND,
+                        "Task not found with id: " + operation.getId());
+                continue;
+            }
+
+            // Loaded in this transaction and written with a version check, so this is the state being replaced
+            boolean wasCompleted = task.isCompleted();
+            switch (operation.getOp()) {
+                case UPDATE -> {
+                    task.setTitle(operation.getTask().getTitle());
+                    task.setDescription(operation.getTask().getDescription());
+                    task.setCompleted(operation.getTask().isCompleted());
+                    touched[i] = task;
+                    boolean isCompleted = task.isCompleted();
+                    statisticsUpdates.add(() -> taskStatistics.changed(wasCompleted, isCompleted));
+                }
+                case COMPLETE -> {
+                    task.setCompleted(true);
+                    touched[i] = task;
+                    statisticsUpdates.add(() -> taskStatistics.changed(wasCompleted, true));
+                }
+                case DELETE -> {
+                    taskRepository.delete(task);
+                    statisticsUpdates.add(() -> taskStatistics.deleted(wasCompleted));
+                    entityManager.persist(new TaskTombstone(task.getId(), LocalDateTime.now()));
+                    existing.remove(operation.getId());
+                    results[i] = BulkItemResult.builder()
+                            .index(offset + i)
+                            .op(operation.getOp())
+                            .status(HttpStatus.NO_CONTENT.value())
+                            .build();
+                }
+                default -> throw new IllegalStateException("Unhandled bulk operation: " + operation.getOp());
+            }
         }
-        taskRepository.deleteById(id);
+
+        // Flush once so the writes go out as JDBC batches and @PreUpdate timestamps are set. The tombstones go out
+        // too, so a failing insert rolls back before the log store applies the chunk at commit
+        taskRepository.flush();
+        entityManager.flush();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            if (results[i] == null) {
+                BulkOperation operation = chunk.get(i);
+                HttpStatus status = operation.getOp() == BulkOperation.Type.CREATE ? HttpStatus.CREATED : HttpStatus.OK;
+                results[i] = BulkItemResult.builder()
+                        .index(offset + i)
+                        .op(operation.getOp())
+                        .status(status.value())
+                        .task(TaskMapper.toDto(touched[i]))
+                        .build();
+            }
+        }
+        return List.of(results);
+    }
+
+    private String validateBulkOperation(BulkOperation operation) {
+        if (operation.getOp() == null) {
+            return "op is required";
+        }
+        if (operation.getOp() != BulkOperation.Type.CREATE && operation.getId() == null) {
+            return "id is required for " + operation.getOp();
+        }
+        if ((operation.getOp() == BulkOperation.Type.CREATE || operation.getOp() == BulkOperation.Type.UPDATE)
+                && operation.getTask() == null) {
+            return "task is required for " + operation.getOp();
+        }
+        return null;
+    }
+
+    private BulkItemResult bulkFailure(int index, BulkOperation operation, HttpStatus status, String error) {
+        return BulkItemResult.builder()
+                .index(index)
+                .op(operation.getOp())
+                .status(status.value())
+                .error(error)
+                .build();
     }
-}
\ No newline at end of file
+}
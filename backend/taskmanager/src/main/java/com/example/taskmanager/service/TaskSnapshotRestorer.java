@@ -0,0 +1,44 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.SnapshotResult;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+// Brings the schema up to date and, when taskmanager.snapshot.restore-from is set and the database is empty,
+// loads that snapshot. Runs as part of Flyway's startup step, so it finishes before JPA and the search index start.
+@Slf4j
+@Component
+public class TaskSnapshotRestorer implements FlywayMigrationStrategy {
+
+    private final TaskSnapshotService taskSnapshotService;
+    private final String restoreFrom;
+
+    public TaskSnapshotRestorer(
+            TaskSnapshotService taskSnapshotService,
+            @Value("${taskmanager.snapshot.restore-from:}") String restoreFrom
+    ) {
+        this.taskSnapshotService = taskSnapshotService;
+        this.restoreFrom = restoreFrom;
+    }
+
+    @Override
+    public void migrate(Flyway flyway) {
+        flyway.migrate();
+        if (restoreFrom.isBlank()) {
+            return;
+        }
+        // A durable database keeps its data across restarts; the snapshot only seeds a fresh one
+        if (!taskSnapshotService.isEmpty()) {
+            log.info("Database already holds tasks, not restoring {}", restoreFrom);
+            return;
+        }
+        SnapshotResult result = taskSnapshotService.restore(Path.of(restoreFrom));
+        log.info("Restored {} tasks and {} tombstones from {} in {} ms",
+                result.getTasks(), result.getTombstones(), result.getPath(), result.getMillis());
+    }
+}
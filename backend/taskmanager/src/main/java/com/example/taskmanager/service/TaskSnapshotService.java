@@ -0,0 +1,237 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.SnapshotResult;
+import com.example.taskmanager.model.Task;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Copies the task tables to CSV files and loads them back, using H2's CSVWRITE and CSVREAD so rows never
+// pass through JPA. Works on plain JDBC connections because restoring runs before the EntityManagerFactory exists.
+// Tasks are split over files of rows-per-file rows each, and each file is loaded in its own transaction: H2 keeps an
+// undo entry for every row a transaction writes and walks them all at commit, so one 1M-row transaction loads slower
+// than the same rows committed in parts.
+@Service
+public class TaskSnapshotService {
+
+    // tasks-00000.csv, tasks-00001.csv, ... in id order; snapshots written as a single tasks.csv load the same way
+    private static final Pattern TASKS_FILE = Pattern.compile("tasks(-\\d+)?\\.csv");
+    static final String TOMBSTONES_FILE = "task_tombstones.csv";
+    private static final String CSV_OPTIONS = "charset=UTF-8";
+    private static final DateTimeFormatter SNAPSHOT_NAME = DateTimeFormatter.ofPattern("'snapshot-'yyyyMMdd-HHmmss-SSS");
+
+    private final DataSource dataSource;
+    private final Path snapshotDir;
+    private final int rowsPerFile;
+
+    public TaskSnapshotService(
+            DataSource dataSource,
+            @Value("${taskmanager.snapshot.dir:./snapshots}") Path snapshotDir,
+            @Value("${taskmanager.snapshot.rows-per-file:25000}") int rowsPerFile
+    ) {
+        if (rowsPerFile < 1) {
+            throw new IllegalArgumentException("taskmanager.snapshot.rows-per-file must be at least 1");
+        }
+        this.dataSource = dataSource;
+        this.snapshotDir = snapshotDir;
+        this.rowsPerFile = rowsPerFile;
+    }
+
+    static String tasksFile(int part) {
+        return "tasks-%05d.csv".formatted(part);
+    }
+
+    // Write a consistent copy of every task and tombstone into a new directory under the snapshot dir.
+    // Readers and writers carry on meanwhile; the copy is the state as of the start of the snapshot.
+    public SnapshotResult snapshot() {
+        long start = System.nanoTime();
+        Path target = snapshotDir.resolve(SNAPSHOT_NAME.format(LocalDateTime.now()));
+        // Written under a temporary name so a snapshot directory is always complete
+        Path partial = target.resolveSibling(target.getFileName() + ".partial");
+        try {
+            Files.createDirectories(partial);
+            long tasks;
+            long tombstones;
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(false);
+                connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+                try {
+                    tasks = writeTasks(connection, partial);
+                    tombstones = csvWrite(connection, partial.resolve(TOMBSTONES_FILE),
+                            "SELECT task_id, deleted_at FROM task_tombstones ORDER BY task_id");
+                } finally {
+                    connection.rollback();
+                }
+            }
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            return SnapshotResult.builder()
+                    .path(target.toAbsolutePath().toString())
+                    .tasks(tasks)
+                    .tombstones(tombstones)
+                    .millis((System.nanoTime() - start) / 1_000_000)
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write snapshot " + target, e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not write snapshot " + target, e);
+        }
+    }
+
+    // True when there are neither tasks nor tombstones, the only state a snapshot may be restored into
+    public boolean isEmpty() {
+        try (Connection connection = dataSource.getConnection()) {
+            return queryLong(connection, "SELECT COUNT(*) FROM tasks") == 0
+                    && queryLong(connection, "SELECT COUNT(*) FROM task_tombstones") == 0;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not count tasks", e);
+        }
+    }
+
+    // Load a snapshot directory into an empty database and move the id sequence past every restored id.
+    // Must run before the application hands out ids: Hibernate keeps a block of ids in memory that a
+    // restore could otherwise overlap.
+    public SnapshotResult restore(Path source) {
+        long start = System.nanoTime();
+        List<Path> taskFiles = taskFiles(source);
+        if (taskFiles.isEmpty() || !Files.isRegularFile(source.resolve(TOMBSTONES_FILE))) {
+            throw new IllegalArgumentException("Not a snapshot directory: " + source);
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            if (queryLong(connection, "SELECT COUNT(*) FROM tasks") > 0
+                    || queryLong(connection, "SELECT COUNT(*) FROM task_tombstones") > 0) {
+                throw new IllegalStateException("Snapshots can only be restored into an empty database");
+            }
+            long tasks = 0;
+            long tombstones;
+            long highestId;
+            try {
+                for (Path file : taskFiles) {
+                    // Rows written before the version column existed have none; they start at version 0
+                    tasks += csvRead(connection, file,
+                            "INSERT INTO tasks (id, title, description, completed, created_at, updated_at, version) "
+                                    + "SELECT CAST(id AS BIGINT), title, description, CAST(completed AS BOOLEAN), "
+                                    + "CAST(created_at AS TIMESTAMP(6)), CAST(updated_at AS TIMESTAMP(6)), "
+                                    + "COALESCE(CAST(version AS BIGINT), 0) FROM CSVREAD(%s)");
+                    connection.commit();
+                }
+                tombstones = csvRead(connection, source.resolve(TOMBSTONES_FILE),
+                        "INSERT INTO task_tombstones (task_id, deleted_at) "
+                                + "SELECT CAST(task_id AS BIGINT), CAST(deleted_at AS TIMESTAMP(6)) FROM CSVREAD(%s)");
+                // Deleted ids count too: a tombstone must never come to stand for a new task
+                highestId = queryLong(connection, "SELECT GREATEST("
+                        + "(SELECT COALESCE(MAX(id), 0) FROM tasks), "
+                        + "(SELECT COALESCE(MAX(task_id), 0) FROM task_tombstones))");
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                // The files that loaded before the failure are committed; the database was empty, so empty it again
+                connection.rollback();
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("TRUNCATE TABLE tasks");
+                    statement.execute("TRUNCATE TABLE task_tombstones");
+                }
+                throw e;
+            }
+            advanceIdSequence(connection, highestId);
+            return SnapshotResult.builder()
+                    .path(source.toAbsolutePath().toString())
+                    .tasks(tasks)
+                    .tombstones(tombstones)
+                    .millis((System.nanoTime() - start) / 1_000_000)
+                    .build();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not restore snapshot " + source, e);
+        }
+    }
+
+    // Write the tasks in id order, rowsPerFile to a file, each file picking up after the last id of the one before.
+    // An empty table, or one that fills its last file exactly, ends with a file of only the header
+    private long writeTasks(Connection connection, Path directory) throws SQLException {
+        long tasks = 0;
+        long after = Long.MIN_VALUE;
+        for (int part = 0; ; part++) {
+            String range = "FROM tasks WHERE id > " + after + " ORDER BY id LIMIT " + rowsPerFile;
+            long written = csvWrite(connection, directory.resolve(tasksFile(part)),
+                    "SELECT id, title, description, completed, created_at, updated_at, version " + range);
+            tasks += written;
+            if (written < rowsPerFile) {
+                return tasks;
+            }
+            after = queryLong(connection, "SELECT MAX(id) FROM (SELECT id " + range + ")");
+        }
+    }
+
+    private static List<Path> taskFiles(Path source) {
+        if (!Files.isDirectory(source)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(source)) {
+            return files
+                    .filter(file -> TASKS_FILE.matcher(file.getFileName().toString()).matches())
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list snapshot " + source, e);
+        }
+    }
+
+    // Hibernate's pooled optimizer treats a sequence value as the top of a block of ID_ALLOCATION_SIZE ids,
+    // so the next value must be at least a full block above the highest id in use
+    private static void advanceIdSequence(Connection connection, long highestId) throws SQLException {
+        long next = highestId + Task.ID_ALLOCATION_SIZE;
+        long current = queryLong(connection,
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'TASK_ID_SEQ'");
+        if (next > current) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ALTER SEQUENCE task_id_seq RESTART WITH " + next);
+            }
+        }
+    }
+
+    private static long csvWrite(Connection connection, Path file, String query) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("CALL CSVWRITE(?, ?, ?)")) {
+            statement.setString(1, file.toAbsolutePath().toString());
+            statement.setString(2, query);
+            statement.setString(3, CSV_OPTIONS);
+            try (ResultSet result = statement.executeQuery()) {
+                result.next();
+                return result.getLong(1);
+            }
+        }
+    }
+
+    // CSVREAD reads the file header while the statement is parsed, so the file name cannot be a bind parameter
+    private static long csvRead(Connection connection, Path file, String insert) throws SQLException {
+        String arguments = sqlString(file.toAbsolutePath().toString()) + ", NULL, " + sqlString(CSV_OPTIONS);
+        try (Statement statement = connection.createStatement()) {
+            return statement.executeUpdate(insert.formatted(arguments));
+        }
+    }
+
+    private static String sqlString(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+
+    private static long queryLong(Connection connection, String query) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(query)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.taskmanager.service;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Locale;
+import java.util.Set;
+
+// Validated sort order of the task list; every order ends with id so keyset cursors are unambiguous
+final class TaskSort {
+
+    static final TaskSort DEFAULT = new TaskSort("id", false);
+
+    private static final Set<String> FIELDS = Set.of("id", "createdAt", "updatedAt");
+
+    private final String field;
+    private final boolean descending;
+
+    private TaskSort(String field, boolean descending) {
+        this.field = field;
+        this.descending = descending;
+    }
+
+    static TaskSort parse(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return DEFAULT;
+        }
+        String[] parts = sort.split(",");
+        String field = parts[0].trim();
+        if (!FIELDS.contains(field) || parts.length > 2) {
+            throw new IllegalArgumentException("sort must be one of " + FIELDS + " optionally followed by ,asc or ,desc");
+        }
+        String direction = parts.length == 2 ? parts[1].trim().toLowerCase(Locale.ROOT) : "asc";
+        if (!direction.equals("asc") && !direction.equals("desc")) {
+            throw new IllegalArgumentException("sort direction must be asc or desc");
+        }
+        return new TaskSort(field, direction.equals("desc"));
+    }
+
+    String field() {
+        return field;
+    }
+
+    boolean descending() {
+        return descending;
+    }
+
+    boolean byId() {
+        return field.equals("id");
+    }
+
+    Sort toSort() {
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return byId() ? Sort.by(direction, "id") : Sort.by(direction, field, "id");
+    }
+
+    // Canonical text form, used to tie a cursor to the order it was issued for
+    String key() {
+        return field + "," + (descending ? "desc" : "asc");
+    }
+}
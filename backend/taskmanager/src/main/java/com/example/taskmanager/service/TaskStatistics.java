@@ -0,0 +1,135 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.DailyTaskStatsDto;
+import com.example.taskmanager.dto.TaskStatsDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Open and completed counts plus per-day created and completed counts, adjusted by TaskService after every write
+// commits, so reading them never touches the database. Writes the service does not see, and races between a write
+// and its adjustment, are corrected by TaskStatisticsReconciler.
+@Component
+public class TaskStatistics implements MeterBinder {
+
+    private final int days;
+    private final AtomicLong open = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final ConcurrentMap<LocalDate, Daily> daily = new ConcurrentHashMap<>();
+    private final LocalDateTime countingSince = LocalDateTime.now();
+
+    private static final class Daily {
+        private final LongAdder created = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+    }
+
+    public TaskStatistics(@Value("${taskmanager.stats.days:30}") int days) {
+        if (days < 1) {
+            throw new IllegalArgumentException("taskmanager.stats.days must be at least 1");
+        }
+        this.days = days;
+    }
+
+    // A task was created, possibly already completed
+    public void created(boolean isCompleted) {
+        Daily day = day(LocalDate.now());
+        day.created.increment();
+        if (isCompleted) {
+            completed.incrementAndGet();
+            day.completed.increment();
+        } else {
+            open.incrementAndGet();
+        }
+    }
+
+    // A task was written; only a change of its completed flag moves the counters
+    public void changed(boolean wasCompleted, boolean isCompleted) {
+        if (wasCompleted == isCompleted) {
+            return;
+        }
+        if (isCompleted) {
+            open.decrementAndGet();
+            completed.incrementAndGet();
+            day(LocalDate.now()).completed.increment();
+        } else {
+            // Reopening does not take back the completion counted for its day
+            completed.decrementAndGet();
+            open.incrementAndGet();
+        }
+    }
+
+    public void deleted(boolean wasCompleted) {
+        (wasCompleted ? completed : open).decrementAndGet();
+    }
+
+    public long open() {
+        return open.get();
+    }
+
+    public long completed() {
+        return completed.get();
+    }
+
+    // Shift the totals by the drift found against the database, keeping adjustments made meanwhile
+    public void correct(long openDrift, long completedDrift) {
+        open.addAndGet(openDrift);
+        completed.addAndGet(completedDrift);
+    }
+
+    // Counters and the last days, oldest first; a fixed amount of work however many tasks there are
+    public TaskStatsDto snapshot() {
+        long openCount = open.get();
+        long completedCount = completed.get();
+        LocalDate today = LocalDate.now();
+        List<DailyTaskStatsDto> perDay = new ArrayList<>(days);
+        for (LocalDate date = today.minusDays(days - 1); !date.isAfter(today); date = date.plusDays(1)) {
+            Daily day = daily.get(date);
+            perDay.add(DailyTaskStatsDto.builder()
+                    .date(date)
+                    .created(day == null ? 0 : day.created.sum())
+                    .completed(day == null ? 0 : day.completed.sum())
+                    .build());
+        }
+        return TaskStatsDto.builder()
+                .open(openCount)
+                .completed(completedCount)
+                .total(openCount + completedCount)
+                .countingSince(countingSince)
+                .days(perDay)
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("taskmanager.tasks", open, AtomicLong::get)
+                .description("Tasks by state, from the incrementally maintained counters")
+                .tag("state", "open")
+                .register(registry);
+        Gauge.builder("taskmanager.tasks", completed, AtomicLong::get)
+                .description("Tasks by state, from the incrementally maintained counters")
+                .tag("state", "completed")
+                .register(registry);
+    }
+
+    private Daily day(LocalDate date) {
+        Daily day = daily.get(date);
+        if (day == null) {
+            day = daily.computeIfAbsent(date, key -> new Daily());
+            // A new day started: drop the ones that fell out of the window
+            LocalDate oldest = LocalDate.now().minusDays(days - 1);
+            daily.keySet().removeIf(key -> key.isBefore(oldest));
+        }
+        return day;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Loads the task counters from the database at startup, then checks them against COUNT queries on a schedule.
+// A drift is only corrected once two checks in a row agree on it, so a write that has committed but not yet
+// adjusted the counters is not mistaken for one.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskStatisticsReconciler {
+
+    private final TaskRepository taskRepository;
+    private final TaskStatistics taskStatistics;
+
+    // Serializes checks; a lock rather than synchronized, since checks wait on the database
+    private final ReentrantLock lock = new ReentrantLock();
+    // Drift seen by the previous check, null when it found none
+    private long[] suspectedDrift;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        lock.lock();
+        try {
+            long[] drift = measureDrift();
+            // Nothing else writes yet, so a moving counter is unlikely; measure once more if it happens
+            if (drift == null) {
+                drift = measureDrift();
+            }
+            if (drift != null) {
+                taskStatistics.correct(drift[0], drift[1]);
+            }
+        } finally {
+            lock.unlock();
+        }
+        log.info("Task statistics start at {} open and {} completed tasks",
+                taskStatistics.open(), taskStatistics.completed());
+    }
+
+    @Scheduled(fixedDelayString = "${taskmanager.stats.reconcile-interval:PT5M}",
+            initialDelayString = "${taskmanager.stats.reconcile-interval:PT5M}")
+    public void reconcile() {
+        lock.lock();
+        try {
+            long[] drift = measureDrift();
+            if (drift == null) {
+                // The counters moved while counting; the next check will tell
+                return;
+            }
+            if (drift[0] == 0 && drift[1] == 0) {
+                suspectedDrift = null;
+                return;
+            }
+            if (Arrays.equals(drift, suspectedDrift)) {
+                log.warn("Correcting task statistics by {} open and {} completed tasks", drift[0], drift[1]);
+                taskStatistics.correct(drift[0], drift[1]);
+                suspectedDrift = null;
+            } else {
+                suspectedDrift = drift;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Database counts minus counters as {open, completed}, or null when the counters changed during the queries
+    private long[] measureDrift() {
+        long open = taskStatistics.open();
+        long completed = taskStatistics.completed();
+        long openRows = taskRepository.countByCompleted(false);
+        long completedRows = taskRepository.countByCompleted(true);
+        if (open != taskStatistics.open() || completed != taskStatistics.completed()) {
+            return null;
+        }
+        return new long[]{openRows - open, completedRows - completed};
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.BulkItemResult;
+import com.example.taskmanager.dto.BulkOperation;
+import com.example.taskmanager.dto.TaskDto;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Coalesces concurrent complete and update requests into batched transactions. Each caller enqueues its write and
+// waits; one flusher thread takes up to max-batch-size queued writes, waiting up to max-delay after the first for more,
+// and applies them through TaskService.bulk, so a burst pays for one transaction and commit per batch instead of one
+// per request. With no delay, batches form from the writes that queue up while the previous batch is being written,
+// and a write that arrives alone takes the single-request path at once.
+// A batch that fails as a whole, such as on a version conflict with another writer, is retried one write at a time,
+// so every caller gets the outcome its own request would have had.
+// A batch holds at most one write per task: bulk reports the task as it stands once the whole chunk is applied, so a
+// second write to the same task closes the batch and starts the next one, and each caller sees the state it wrote.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "taskmanager.write-batching.enabled", havingValue = "true")
+public class TaskWriteCoalescer {
+
+    // How often an idle flusher checks whether it should stop
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final TaskService taskService;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final BlockingQueue<PendingWrite> queue;
+    private final DistributionSummary batchSizes;
+    private final Thread flusher;
+    private volatile boolean running = true;
+    // A write that closed the previous batch because that batch already wrote its task; only the flusher touches it
+    private PendingWrite carried;
+
+    // The write as a bulk operation, and the same write on the one-transaction-per-request path
+    private record PendingWrite(BulkOperation operation, Supplier<TaskDto> alone, CompletableFuture<TaskDto> result) {
+    }
+
+    public TaskWriteCoalescer(
+            TaskService taskService,
+            MeterRegistry meterRegistry,
+            @Value("${taskmanager.write-batching.max-batch-size:100}") int maxBatchSize,
+            @Value("${taskmanager.write-batching.max-delay:0ms}") Duration maxDelay,
+            @Value("${taskmanager.write-batching.queue-capacity:10000}") int queueCapacity
+    ) {
+        if (maxBatchSize < 1 || maxBatchSize > TaskService.BULK_CHUNK_SIZE) {
+            throw new IllegalArgumentException(
+                    "taskmanager.write-batching.max-batch-size must be between 1 and " + TaskService.BULK_CHUNK_SIZE);
+        }
+        this.taskService = taskService;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.batchSizes = DistributionSummary.builder("taskmanager.write.batch.size")
+                .description("Writes applied per coalesced transaction")
+                .register(meterRegistry);
+        this.flusher = new Thread(this::run, "task-write-batcher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    // Mark a task as completed once the batch holding the write has committed
+    public TaskDto complete(Long id) {
+        return submit(BulkOperation.builder().op(BulkOperation.Type.COMPLETE).id(id).build(),
+                () -> taskService.markTaskAsCompleted(id));
+    }
+
+    // Update a task once the batch holding the write has committed
+    public TaskDto update(Long id, TaskDto taskDto) {
+        return submit(BulkOperation.builder().op(BulkOperation.Type.UPDATE).id(id).task(taskDto).build(),
+                () -> taskService.updateTask(id, taskDto));
+    }
+
+    // Stop taking writes and apply the ones still queued. The flusher is not interrupted: an interrupt during file I/O
+    // closes the channel of H2's durable store
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+        List<PendingWrite> remaining = new ArrayList<>();
+        if (carried != null) {
+            remaining.add(carried);
+            carried = null;
+        }
+        queue.drainTo(remaining);
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        for (PendingWrite write : remaining) {
+            if (batch.size() == maxBatchSize || writesSameTask(batch, write)) {
+                flush(batch);
+                batch.clear();
+            }
+            batch.add(write);
+        }
+        flush(batch);
+    }
+
+    // A full queue, or a coalescer that is shutting down, applies the write on the caller's thread instead
+    private TaskDto submit(BulkOperation operation, Supplier<TaskDto> alone) {
+        PendingWrite write = new PendingWrite(operation, alone, new CompletableFuture<>());
+        if (!running || !queue.offer(write)) {
+            return alone.get();
+        }
+        // close() may have drained the queue just before the offer
+        if (!running && queue.remove(write)) {
+            return alone.get();
+        }
+        try {
+            return write.result().join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private void run() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                PendingWrite first = carried != null ? carried : queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                carried = null;
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    PendingWrite next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    if (writesSameTask(batch, next)) {
+                        carried = next;
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException ex) {
+                // Nothing here interrupts the flusher; treat it as a stop, without passing the flag on to the flush
+                running = false;
+            }
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private static boolean writesSameTask(List<PendingWrite> batch, PendingWrite write) {
+        return batch.stream().anyMatch(queued -> Objects.equals(queued.operation().getId(), write.operation().getId()));
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSizes.record(batch.size());
+        if (batch.size() == 1) {
+            applyAlone(batch.get(0));
+            return;
+        }
+
+        List<BulkItemResult> results;
+        try {
+            results = taskService.bulk(batch.stream().map(PendingWrite::operation).toList());
+        } catch (RuntimeException ex) {
+            log.warn("Coalesced write batch failed, applying its {} writes one by one", batch.size(), ex);
+            batch.forEach(this::applyAlone);
+            return;
+        }
+        // bulk reports a rolled-back chunk as a 500 for each of its operations
+        if (results.stream().anyMatch(result -> result.getStatus() == HttpStatus.INTERNAL_SERVER_ERROR.value())) {
+            batch.forEach(this::applyAlone);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            complete(batch.get(i), results.get(i));
+        }
+    }
+
+    private void complete(PendingWrite write, BulkItemResult result) {
+        if (result.getStatus() == HttpStatus.OK.value()) {
+            write.result().complete(result.getTask());
+        } else if (result.getStatus() == HttpStatus.NOT_FOUND.value()) {
+            write.result().completeExceptionally(new EntityNotFoundException(result.getError()));
+        } else {
+            write.result().completeExceptionally(new IllegalArgumentException(result.getError()));
+        }
+    }
+
+    private void applyAlone(PendingWrite write) {
+        try {
+            write.result().complete(write.alone().get());
+        } catch (RuntimeException ex) {
+            write.result().completeExceptionally(ex);
+        }
+    }
+}
@@ -0,0 +1,466 @@
+package com.example.taskmanager.store;
+
+import com.example.taskmanager.model.Task;
+import com.example.taskmanager.repository.TaskKeyset;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.TaskSpecification;
+import com.example.taskmanager.repository.TaskSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.data.util.TypeInformation;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+// TaskRepository of the "log" profile, served by LogTaskStore instead of the database; TaskSpecifications are
+// evaluated through their in-memory predicates. Outside a transaction every write is applied and synced when it is
+// made. Inside a read-write transaction writes are staged instead: the transaction reads its own writes, tasks handed
+// out are tracked like managed entities and staged by flush when changed, and at commit the store applies all of them
+// or, if another writer got to one of the tasks first, none, and syncs them once. A transaction that rolls back leaves
+// the store as it was. The store applies them just before the database commits, so a database commit that fails after
+// that is not undone here; TaskService flushes its database writes first so such a failure comes before.
+@Repository
+@Primary
+@Profile("log")
+@RequiredArgsConstructor
+public class LogTaskRepository implements TaskRepository {
+
+    private static final Comparator<Task> BY_ID = Comparator.comparing(Task::getId);
+    private static final TypeInformation<Task> TASK_TYPE = TypeInformation.of(Task.class);
+
+    private final LogTaskStore store;
+
+    // Tasks handed out in the current transaction, and the writes it staged for commit by task id
+    private static final class TransactionState {
+        private final List<Task> managed = new ArrayList<>();
+        private final Map<Long, LogTaskStore.Write> staged = new LinkedHashMap<>();
+    }
+
+    @Override
+    public <S extends Task> S save(S entity) {
+        TransactionState state = currentTransaction();
+        if (state == null) {
+            store.awaitSynced(store.write(entity));
+        } else {
+            stage(state, entity);
+        }
+        return entity;
+    }
+
+    @Override
+    public <S extends Task> List<S> saveAll(Iterable<S> entities) {
+        TransactionState state = currentTransaction();
+        List<S> saved = new ArrayList<>();
+        long lastSequence = 0;
+        for (S entity : entities) {
+            if (state == null) {
+                lastSequence = store.write(entity);
+            } else {
+                stage(state, entity);
+            }
+            saved.add(entity);
+        }
+        store.awaitSynced(lastSequence);
+        return saved;
+    }
+
+    @Override
+    public <S extends Task> S saveAndFlush(S entity) {
+        return save(entity);
+    }
+
+    @Override
+    public Optional<Task> findById(Long id) {
+        Optional<Task> task = lookup(id);
+        task.ifPresent(this::manage);
+        return task;
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        TransactionState state = currentTransaction();
+        if (state != null && state.staged.containsKey(id)) {
+            return state.staged.get(id).task() != null;
+        }
+        return store.existsById(id);
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return manage(find(task -> true, BY_ID, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public List<Task> findAllById(Iterable<Long> ids) {
+        List<Task> found = new ArrayList<>();
+        for (Long id : ids) {
+            lookup(id).ifPresent(found::add);
+        }
+        return manage(found);
+    }
+
+    @Override
+    public long count() {
+        TransactionState state = currentTransaction();
+        return state == null || state.staged.isEmpty() ? store.count() : count(task -> true);
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        remove(id);
+    }
+
+    @Override
+    public void delete(Task entity) {
+        deleteById(entity.getId());
+    }
+
+    private void deleteAllById(Iterable<Long> ids) {
+        TransactionState state = currentTransaction();
+        long lastSequence = 0;
+        for (Long id : ids) {
+            if (state == null) {
+                lastSequence = Math.max(lastSequence, store.writeDelete(id));
+            } else {
+                stageDelete(state, id);
+            }
+        }
+        store.awaitSynced(lastSequence);
+    }
+
+    @Override
+    public void deleteAll() {
+        deleteAllById(find(task -> true, BY_ID, Integer.MAX_VALUE).stream().map(Task::getId).toList());
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        deleteAll();
+    }
+
+    // Stage the tasks handed out in this transaction that were changed since
+    @Override
+    public void flush() {
+        TransactionState state = currentTransaction();
+        if (state == null) {
+            return;
+        }
+        for (Task task : state.managed) {
+            Optional<Task> current = lookup(task.getId());
+            if (current.isPresent() && isChanged(current.get(), task)) {
+                stage(state, task);
+            }
+        }
+    }
+
+    @Override
+    public Optional<Long> findVersionById(Long id) {
+        return lookup(id).map(Task::getVersion);
+    }
+
+    @Override
+    public Optional<TaskSummary> findSummaryById(Long id) {
+        return lookup(id).map(LogTaskRepository::summarize);
+    }
+
+    @Override
+    public Optional<Task> completeById(Long id, LocalDateTime updatedAt) {
+        TransactionState state = currentTransaction();
+        if (state == null) {
+            return store.update(id, task -> !task.isCompleted(), task -> {
+                task.setCompleted(true);
+                task.setUpdatedAt(updatedAt);
+            });
+        }
+        Optional<Task> current = lookup(id);
+        if (current.isEmpty() || current.get().isCompleted()) {
+            return Optional.empty();
+        }
+        Task completed = current.get();
+        Long version = completed.getVersion();
+        completed.setCompleted(true);
+        completed.setUpdatedAt(updatedAt);
+        completed.setVersion(version + 1);
+        put(state, id, version, LogTaskStore.copy(completed));
+        return Optional.of(completed);
+    }
+
+    // Inside a transaction the condition is checked against the task as read; the delete fails at commit if another
+    // writer changed the task since
+    @Override
+    public int removeByIdAndCompleted(Long id, boolean completed) {
+        return remove(id, task -> task.isCompleted() == completed) ? 1 : 0;
+    }
+
+    @Override
+    public long countByCompleted(boolean completed) {
+        return count(task -> task.isCompleted() == completed);
+    }
+
+    @Override
+    public List<Task> findByUpdatedAtAfterOrderByUpdatedAtAscIdAsc(LocalDateTime since) {
+        return find(task -> task.getUpdatedAt() != null && task.getUpdatedAt().isAfter(since),
+                comparator(Sort.by("updatedAt", "id")), Integer.MAX_VALUE);
+    }
+
+    // Unlike the JPA cursor, the tasks are copied up front; nothing needs to stay open
+    @Override
+    public Stream<Task> streamAllByOrderByIdAsc() {
+        return find(task -> true, BY_ID, Integer.MAX_VALUE).stream();
+    }
+
+    @Override
+    public List<Task> findTasks(TaskSpecification spec, Sort sort, int limit) {
+        return manage(find(spec, sort, limit));
+    }
+
+    // Descriptions are in memory already; leaving them out only keeps the result shape of the JPA repository
+    @Override
+    public List<TaskSummary> findSummaries(TaskSpecification spec, Sort sort, int limit) {
+        return find(spec, sort, limit).stream()
+                .map(LogTaskRepository::summarize)
+                .toList();
+    }
+
+    // A task as the current transaction sees it, with its staged writes in place of the stored tasks; a copy
+    private Optional<Task> lookup(Long id) {
+        TransactionState state = currentTransaction();
+        if (state != null && state.staged.containsKey(id)) {
+            return Optional.ofNullable(state.staged.get(id).task()).map(LogTaskStore::copy);
+        }
+        return store.findById(id);
+    }
+
+    // As LogTaskStore.find, seen by the current transaction
+    private List<Task> find(Predicate<Task> filter, Comparator<Task> order, int limit) {
+        return find(filter, order, limit, storeFilter -> store.find(storeFilter, order, limit));
+    }
+
+    // The orders of task pages, (field, id) in one direction, are read from the store's index for that order, starting
+    // at the keyset cursor when the specification has one for the same order. Any other order scans every task
+    private List<Task> find(TaskSpecification spec, Sort sort, int limit) {
+        Predicate<Task> filter = filter(spec);
+        Comparator<Task> order = comparator(sort);
+        List<Sort.Order> orders = sort.toList();
+        Sort.Order first = orders.isEmpty() ? Sort.Order.asc("id") : orders.get(0);
+        String field = first.getProperty();
+        boolean descending = first.isDescending();
+        boolean indexed = LogTaskStore.isIndexed(field) && (field.equals("id")
+                ? orders.size() <= 1
+                : orders.size() == 2 && orders.get(1).getProperty().equals("id")
+                        && orders.get(1).isDescending() == descending);
+        if (!indexed) {
+            return find(filter, order, limit);
+        }
+        TaskKeyset keyset = spec == null ? null : spec.keyset();
+        LogTaskStore.TaskPosition after = keyset != null && keyset.field().equals(field)
+                && keyset.descending() == descending && keyset.lastId() != null
+                ? new LogTaskStore.TaskPosition(keyset.lastValue(), keyset.lastId())
+                : null;
+        return find(filter, order, limit,
+                storeFilter -> store.findPage(field, descending, after, storeFilter, limit));
+    }
+
+    // Tasks from the store read through the given filter, with the writes staged by the current transaction in place
+    private List<Task> find(Predicate<Task> filter, Comparator<Task> order, int limit,
+                            Function<Predicate<Task>, List<Task>> read) {
+        TransactionState state = currentTransaction();
+        if (state == null || state.staged.isEmpty()) {
+            return read.apply(filter);
+        }
+        List<Task> found = read.apply(task -> !state.staged.containsKey(task.getId()) && filter.test(task));
+        for (LogTaskStore.Write write : state.staged.values()) {
+            if (write.task() != null && filter.test(write.task())) {
+                found.add(LogTaskStore.copy(write.task()));
+            }
+        }
+        found.sort(order);
+        return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+    }
+
+    // As LogTaskStore.count, seen by the current transaction
+    private long count(Predicate<Task> filter) {
+        TransactionState state = currentTransaction();
+        if (state == null || state.staged.isEmpty()) {
+            return store.count(filter);
+        }
+        long count = store.count(task -> !state.staged.containsKey(task.getId()) && filter.test(task));
+        for (LogTaskStore.Write write : state.staged.values()) {
+            if (write.task() != null && filter.test(write.task())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Check a save against the task as this transaction sees it, as LogTaskStore.write does, and stage it. Fills in
+    // id, version and timestamps on the given task like a write to the store
+    private void stage(TransactionState state, Task task) {
+        Optional<Task> existing = task.getId() == null ? Optional.empty() : lookup(task.getId());
+        // A null version means a new task, as in Spring Data; anything else must match the current version
+        boolean conflict = existing.isEmpty()
+                ? task.getVersion() != null || task.getId() != null && task.getId() <= 0
+                : !existing.get().getVersion().equals(task.getVersion());
+        if (conflict) {
+            throw new ObjectOptimisticLockingFailureException(Task.class, task.getId());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Task staged = LogTaskStore.copy(task);
+        if (existing.isEmpty()) {
+            staged.setId(task.getId() == null ? store.reserveId() : task.getId());
+            staged.setVersion(0L);
+            staged.setCreatedAt(now);
+        } else {
+            staged.setVersion(existing.get().getVersion() + 1);
+            staged.setCreatedAt(existing.get().getCreatedAt());
+        }
+        staged.setUpdatedAt(now);
+        put(state, staged.getId(), existing.map(Task::getVersion).orElse(null), staged);
+
+        task.setId(staged.getId());
+        task.setVersion(staged.getVersion());
+        task.setCreatedAt(staged.getCreatedAt());
+        task.setUpdatedAt(staged.getUpdatedAt());
+    }
+
+    // Delete a task, staged inside a transaction; false when there was no such task
+    private boolean remove(Long id) {
+        return remove(id, task -> true);
+    }
+
+    private boolean remove(Long id, Predicate<Task> condition) {
+        TransactionState state = currentTransaction();
+        if (state == null) {
+            long sequence = store.writeDelete(id, condition);
+            store.awaitSynced(sequence);
+            return sequence > 0;
+        }
+        return stageDelete(state, id, condition);
+    }
+
+    private boolean stageDelete(TransactionState state, Long id) {
+        return stageDelete(state, id, task -> true);
+    }
+
+    private boolean stageDelete(TransactionState state, Long id, Predicate<Task> condition) {
+        Optional<Task> existing = lookup(id);
+        if (existing.isEmpty() || !condition.test(existing.get())) {
+            return false;
+        }
+        put(state, id, existing.get().getVersion(), null);
+        return true;
+    }
+
+    // Stage the task, or null for a delete, replacing a task that was at the given version when this transaction read
+    // it. The first write of a task in the transaction fixes the stored version the commit checks against
+    private void put(TransactionState state, Long id, Long readVersion, Task task) {
+        LogTaskStore.Write previous = state.staged.get(id);
+        Long replacedVersion = previous == null ? readVersion : previous.replacedVersion();
+        if (task == null && replacedVersion == null) {
+            // Created in this transaction, so there is nothing to delete
+            state.staged.remove(id);
+        } else {
+            state.staged.put(id, new LogTaskStore.Write(id, replacedVersion, task));
+        }
+    }
+
+    private static Predicate<Task> filter(TaskSpecification spec) {
+        return spec == null ? task -> true : spec::test;
+    }
+
+    private static TaskSummary summarize(Task task) {
+        return new TaskSummary(task.getId(), task.getTitle(), task.isCompleted(), task.getCreatedAt(),
+                task.getUpdatedAt(), task.getVersion());
+    }
+
+    // Unsorted results come in id order, like a primary key scan. Nulls sort low, as in H2
+    private static Comparator<Task> comparator(Sort sort) {
+        Comparator<Task> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<Task> next = switch (order.getProperty()) {
+                case "id" -> BY_ID;
+                case "title" -> Comparator.comparing(Task::getTitle, Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "description" -> Comparator.comparing(Task::getDescription, Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "completed" -> Comparator.comparing(Task::isCompleted);
+                case "createdAt" -> Comparator.comparing(Task::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "updatedAt" -> Comparator.comparing(Task::getUpdatedAt, Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "version" -> Comparator.comparing(Task::getVersion, Comparator.nullsFirst(Comparator.naturalOrder()));
+                // What Spring Data throws for a property the entity does not have
+                default -> throw new PropertyReferenceException(order.getProperty(), TASK_TYPE, List.of());
+            };
+            next = order.isDescending() ? next.reversed() : next;
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator == null ? BY_ID : comparator;
+    }
+
+    private static boolean isChanged(Task stored, Task task) {
+        return stored.isCompleted() != task.isCompleted()
+                || !Objects.equals(stored.getTitle(), task.getTitle())
+                || !Objects.equals(stored.getDescription(), task.getDescription());
+    }
+
+    private Task manage(Task task) {
+        TransactionState state = currentTransaction();
+        if (state != null) {
+            state.managed.add(task);
+        }
+        return task;
+    }
+
+    private List<Task> manage(List<Task> tasks) {
+        TransactionState state = currentTransaction();
+        if (state != null) {
+            state.managed.addAll(tasks);
+        }
+        return tasks;
+    }
+
+    // State of the current read-write transaction, created on first use; null outside one
+    private TransactionState currentTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return null;
+        }
+        TransactionState state = (TransactionState) TransactionSynchronizationManager.getResource(this);
+        if (state == null) {
+            TransactionState created = new TransactionState();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                // One check, one append under the store's lock and one wait for the disk for the whole transaction;
+                // a conflict fails the commit, which then rolls the database back too
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    flush();
+                    if (!created.staged.isEmpty()) {
+                        store.awaitSynced(store.writeAll(created.staged.values()));
+                    }
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(LogTaskRepository.this);
+                }
+            });
+            state = created;
+        }
+        return state;
+    }
+}
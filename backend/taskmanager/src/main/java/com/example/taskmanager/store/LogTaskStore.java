@@ -0,0 +1,460 @@
+package com.example.taskmanager.store;
+
+import com.example.taskmanager.model.Task;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+// Task storage engine of the "log" profile. Every task lives in a long-keyed map in memory and every write is appended
+// to a TaskLog; startup replays the log, and a periodic check rewrites it with only the live tasks once superseded
+// records dominate. Writers wait for the disk after releasing the lock, so concurrent writers share one sync.
+// Stored tasks are private copies that are replaced, never modified, on write; callers always get copies.
+// Besides the map, the stored tasks are kept sorted in every order a task page can have, so a page seeks to its
+// cursor and reads about its own length of tasks instead of scanning them all.
+@Slf4j
+@Component
+@Profile("log")
+public class LogTaskStore {
+
+    private static final Comparator<Task> BY_ID = Comparator.comparing(Task::getId);
+    // Nulls sort low, as in H2
+    private static final Comparator<LocalDateTime> NULLS_FIRST = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // One compaction at a time; not synchronized, which would pin a virtual thread through the file I/O
+    private final ReentrantLock compactionLock = new ReentrantLock();
+    private final LongObjectMap<Task> tasks = new LongObjectMap<>();
+    // By the sort field of TaskSort, each order ending with id as TaskSort's orders do. Tasks are sorted by their
+    // own fields, which is safe because stored tasks never change
+    private final Map<String, NavigableSet<Task>> indexes = Map.of(
+            "id", new TreeSet<>(BY_ID),
+            "createdAt", new TreeSet<>(Comparator.comparing(Task::getCreatedAt, NULLS_FIRST).thenComparing(BY_ID)),
+            "updatedAt", new TreeSet<>(Comparator.comparing(Task::getUpdatedAt, NULLS_FIRST).thenComparing(BY_ID)));
+    private final TaskLog taskLog;
+    private final long compactionMinRecords;
+    private final double compactionRecordsPerTask;
+    private long highestId;
+
+    public LogTaskStore(
+            @Value("${taskmanager.log-store.dir:./data/log}") String directory,
+            @Value("${taskmanager.log-store.region-size:64MB}") DataSize regionSize,
+            @Value("${taskmanager.log-store.commit-delay:0ms}") Duration commitDelay,
+            @Value("${taskmanager.log-store.compaction.min-records:100000}") long compactionMinRecords,
+            @Value("${taskmanager.log-store.compaction.records-per-task:2}") double compactionRecordsPerTask
+    ) throws IOException {
+        this.compactionMinRecords = compactionMinRecords;
+        this.compactionRecordsPerTask = compactionRecordsPerTask;
+
+        long start = System.nanoTime();
+        this.taskLog = TaskLog.open(Path.of(directory), Math.toIntExact(regionSize.toBytes()), commitDelay,
+                new TaskLog.Replay() {
+                    @Override
+                    public void put(Task task) {
+                        store(task);
+                        highestId = Math.max(highestId, task.getId());
+                    }
+
+                    @Override
+                    public void delete(long id) {
+                        unstore(id);
+                        highestId = Math.max(highestId, id);
+                    }
+
+                    @Override
+                    public void idFloor(long id) {
+                        highestId = Math.max(highestId, id);
+                    }
+                });
+        log.info("Recovered {} tasks from {} log records in {} ms",
+                tasks.size(), taskLog.records(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Insert a task without an id, or update one whose version still matches, once the write is on disk.
+    // Fills in id, version and timestamps on the given task, as persist and merge do for an entity
+    public Task save(Task task) {
+        awaitSynced(write(task));
+        return task;
+    }
+
+    public Optional<Task> findById(long id) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(tasks.get(id)).map(LogTaskStore::copy);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean existsById(long id) {
+        lock.readLock().lock();
+        try {
+            return tasks.get(id) != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Every task, in id order
+    public List<Task> findAll() {
+        return findPage(null, false, null, task -> true, Integer.MAX_VALUE);
+    }
+
+    // At most limit tasks the filter accepts, in the order of the given sort field then id, or the reverse, starting
+    // strictly after (afterValue, afterId) when afterId is given, or from the start otherwise. Walks the index of that
+    // order from the start position, so the cost is the tasks skipped by the filter plus the page, however many tasks
+    // come before it. A null field means id
+    public List<Task> findPage(String field, boolean descending, TaskPosition after, Predicate<Task> filter, int limit) {
+        List<Task> matches = new ArrayList<>();
+        if (limit <= 0) {
+            return matches;
+        }
+        lock.readLock().lock();
+        try {
+            NavigableSet<Task> index = indexes.get(field == null ? "id" : field);
+            if (index == null) {
+                throw new IllegalArgumentException("No task index for " + field);
+            }
+            NavigableSet<Task> range;
+            if (after == null) {
+                range = descending ? index.descendingSet() : index;
+            } else {
+                Task start = Task.builder().id(after.id()).createdAt(after.value()).updatedAt(after.value()).build();
+                range = descending ? index.headSet(start, false).descendingSet() : index.tailSet(start, false);
+            }
+            for (Task task : range) {
+                if (filter.test(task)) {
+                    matches.add(copy(task));
+                    if (matches.size() == limit) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches;
+    }
+
+    // Is there an index for pages sorted by the field, then id
+    public static boolean isIndexed(String field) {
+        return field.equals("id") || field.equals("createdAt") || field.equals("updatedAt");
+    }
+
+    // At most limit tasks the filter accepts, in the given order. Only the first limit matches are kept while scanning,
+    // so the first page of a large result costs one pass over the map but no full sort
+    public List<Task> find(Predicate<Task> filter, Comparator<Task> order, int limit) {
+        List<Task> matches = new ArrayList<>();
+        if (limit <= 0) {
+            return matches;
+        }
+        lock.readLock().lock();
+        try {
+            if (limit >= tasks.size()) {
+                tasks.forEachValue(task -> {
+                    if (filter.test(task)) {
+                        matches.add(task);
+                    }
+                });
+            } else {
+                PriorityQueue<Task> best = new PriorityQueue<>(limit + 1, order.reversed());
+                tasks.forEachValue(task -> {
+                    if (filter.test(task)) {
+                        best.add(task);
+                        if (best.size() > limit) {
+                            best.poll();
+                        }
+                    }
+                });
+                matches.addAll(best);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(order);
+        matches.replaceAll(LogTaskStore::copy);
+        return matches;
+    }
+
+    public long count() {
+        lock.readLock().lock();
+        try {
+            return tasks.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long count(Predicate<Task> filter) {
+        long[] count = {0};
+        lock.readLock().lock();
+        try {
+            tasks.forEachValue(task -> {
+                if (filter.test(task)) {
+                    count[0]++;
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return count[0];
+    }
+
+    // Delete a task once the delete is on disk; false when there was no such task
+    public boolean deleteById(long id) {
+        long sequence = writeDelete(id);
+        awaitSynced(sequence);
+        return sequence > 0;
+    }
+
+    // Apply the change to a task atomically, bumping version and updatedAt; empty when there is no such task
+    public Optional<Task> update(long id, Consumer<Task> change) {
+        return update(id, task -> true, change);
+    }
+
+    // As update, but only when the task currently meets the condition; empty otherwise
+    public Optional<Task> update(long id, Predicate<Task> condition, Consumer<Task> change) {
+        Task updated;
+        long sequence;
+        lock.writeLock().lock();
+        try {
+            Task existing = tasks.get(id);
+            if (existing == null || !condition.test(existing)) {
+                return Optional.empty();
+            }
+            updated = copy(existing);
+            updated.setVersion(existing.getVersion() + 1);
+            updated.setUpdatedAt(LocalDateTime.now());
+            change.accept(updated);
+            updated.setId(id);
+            sequence = append(updated);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitSynced(sequence);
+        return Optional.of(copy(updated));
+    }
+
+    // Rewrite the log with only the live tasks once superseded records dominate it
+    @Scheduled(fixedDelayString = "${taskmanager.log-store.compaction.check-interval:PT1M}")
+    public void compactIfNeeded() {
+        long records = taskLog.records();
+        if (records >= compactionMinRecords && records > count() * compactionRecordsPerTask) {
+            compact();
+        }
+    }
+
+    // Appends carry on while the live tasks are written out; they only wait for the final swap
+    public void compact() {
+        compactionLock.lock();
+        try {
+            long start = System.nanoTime();
+            long before = taskLog.records();
+            List<Task> live = new ArrayList<>();
+            long idFloor;
+            // No append can run under the read lock, so the snapshot and the carried-over records meet exactly
+            lock.readLock().lock();
+            try {
+                taskLog.beginCompaction();
+                tasks.forEachValue(live::add);
+                idFloor = highestId;
+            } finally {
+                lock.readLock().unlock();
+            }
+            try {
+                taskLog.completeCompaction(idFloor, live);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not compact the task log", ex);
+            }
+            log.info("Compacted the task log from {} to {} records in {} ms",
+                    before, taskLog.records(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        taskLog.close();
+    }
+
+    // Apply a save and append it without waiting for the disk; returns the sequence to pass to awaitSynced
+    long write(Task task) {
+        lock.writeLock().lock();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Task existing = task.getId() == null ? null : tasks.get(task.getId());
+            // A null version means a new task, as in Spring Data; anything else must match the stored version
+            boolean conflict = existing == null
+                    ? task.getVersion() != null || task.getId() != null && task.getId() <= 0
+                    : !existing.getVersion().equals(task.getVersion());
+            if (conflict) {
+                throw new ObjectOptimisticLockingFailureException(Task.class, task.getId());
+            }
+
+            Task stored = copy(task);
+            if (existing == null) {
+                stored.setId(task.getId() == null ? highestId + 1 : task.getId());
+                stored.setVersion(0L);
+                stored.setCreatedAt(now);
+            } else {
+                stored.setVersion(existing.getVersion() + 1);
+                stored.setCreatedAt(existing.getCreatedAt());
+            }
+            stored.setUpdatedAt(now);
+            long sequence = append(stored);
+
+            task.setId(stored.getId());
+            task.setVersion(stored.getVersion());
+            task.setCreatedAt(stored.getCreatedAt());
+            task.setUpdatedAt(stored.getUpdatedAt());
+            return sequence;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Apply the writes of a transaction together, or none of them if any task is no longer at the version the
+    // transaction read, and append them without waiting for the disk; returns the sequence to pass to awaitSynced
+    long writeAll(Collection<Write> writes) {
+        lock.writeLock().lock();
+        try {
+            for (Write write : writes) {
+                Task existing = tasks.get(write.id());
+                if (!Objects.equals(existing == null ? null : existing.getVersion(), write.replacedVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Task.class, write.id());
+                }
+            }
+            long sequence = 0;
+            for (Write write : writes) {
+                if (write.task() != null) {
+                    sequence = append(copy(write.task()));
+                } else if (tasks.get(write.id()) != null) {
+                    sequence = taskLog.append(TaskLog.encodeDelete(write.id()));
+                    unstore(write.id());
+                }
+            }
+            return sequence;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // An id for a task that a transaction inserts at commit; the ids of transactions that roll back stay unused
+    long reserveId() {
+        lock.writeLock().lock();
+        try {
+            return ++highestId;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Apply a delete and append it without waiting for the disk; 0 when there was no such task
+    long writeDelete(long id) {
+        return writeDelete(id, task -> true);
+    }
+
+    // As writeDelete, but only when the task currently meets the condition; 0 otherwise
+    long writeDelete(long id, Predicate<Task> condition) {
+        lock.writeLock().lock();
+        try {
+            Task existing = tasks.get(id);
+            if (existing == null || !condition.test(existing)) {
+                return 0;
+            }
+            long sequence = taskLog.append(TaskLog.encodeDelete(id));
+            unstore(id);
+            return sequence;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void awaitSynced(long sequence) {
+        if (sequence > 0) {
+            taskLog.awaitSynced(sequence);
+        }
+    }
+
+    long logRecords() {
+        return taskLog.records();
+    }
+
+    long logPosition() {
+        return taskLog.position();
+    }
+
+    // Log first, so a failed append leaves the map unchanged
+    private long append(Task stored) {
+        long sequence = taskLog.append(TaskLog.encodePut(stored));
+        store(stored);
+        highestId = Math.max(highestId, stored.getId());
+        return sequence;
+    }
+
+    // Put a task in the map and the indexes in place of the one stored under its id; under the write lock
+    private void store(Task task) {
+        Task replaced = tasks.put(task.getId(), task);
+        for (NavigableSet<Task> index : indexes.values()) {
+            if (replaced != null) {
+                index.remove(replaced);
+            }
+            index.add(task);
+        }
+    }
+
+    private void unstore(long id) {
+        Task removed = tasks.remove(id);
+        if (removed != null) {
+            for (NavigableSet<Task> index : indexes.values()) {
+                index.remove(removed);
+            }
+        }
+    }
+
+    // A position in a task order: the value of the sort field and the id of the task there
+    public record TaskPosition(LocalDateTime value, long id) {
+    }
+
+    // A write staged by a transaction: the task as it is to be stored, or null to delete it, and the version of the
+    // stored task it replaces, null when there was none
+    record Write(long id, Long replacedVersion, Task task) {
+    }
+
+    static Task copy(Task task) {
+        return Task.builder()
+                .id(task.getId())
+                .title(task.getTitle())
+                .description(task.getDescription())
+                .completed(task.isCompleted())
+                .createdAt(task.getCreatedAt())
+                .updatedAt(task.getUpdatedAt())
+                .version(task.getVersion())
+                .build();
+    }
+}
@@ -0,0 +1,582 @@
+package com.example.taskmanager.store;
+
+import com.example.taskmanager.model.Task;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+// Append-only write-ahead log of task records in a memory-mapped file.
+// An append only copies the record into the mapping. One background thread syncs everything appended so far and
+// wakes every writer that sync covered, so concurrent writers share a single msync (group commit).
+// Layout: a header, then records of [int length][int CRC32C of the payload][payload]. Records never cross one of the
+// fixed-size regions the file is mapped in; a length of -1 skips to the next region and 0 marks the end of the log.
+// Recovery stops at the first record that is cut short or fails its checksum, and clears everything after it.
+@Slf4j
+final class TaskLog implements Closeable {
+
+    static final String FILE_NAME = "tasks.log";
+    private static final String COMPACT_FILE_NAME = "tasks.log.compact";
+
+    private static final int MAGIC = 0x544C4F47;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int SKIP_TO_NEXT_REGION = -1;
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final byte ID_FLOOR = 3;
+
+    // Receives the records of the log in the order they were appended
+    interface Replay {
+        void put(Task task);
+
+        void delete(long id);
+
+        // Highest id handed out so far; compaction writes it so ids of deleted tasks are never reused
+        void idFloor(long id);
+    }
+
+    private final Path directory;
+    private final Path file;
+    private final long commitDelayNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Condition synced = lock.newCondition();
+    private final Thread syncer;
+
+    private Segment segment;
+    // Bumped whenever compaction swaps in a new file, so a sync that was running on the old one is not misread
+    private long generation;
+    private long appendedCount;
+    private long syncedCount;
+    private long syncedPosition;
+    private long records;
+    // Records appended while a compaction is writing the new file, null when none is running
+    private List<byte[]> carryOver;
+    private Throwable failure;
+    private boolean closed;
+
+    private TaskLog(Path directory, Segment segment, long records, Duration commitDelay) {
+        this.directory = directory;
+        this.file = directory.resolve(FILE_NAME);
+        this.segment = segment;
+        this.records = records;
+        this.syncedPosition = segment.position;
+        this.commitDelayNanos = commitDelay.toNanos();
+        this.syncer = new Thread(this::syncLoop, "task-log-sync");
+        this.syncer.setDaemon(true);
+        this.syncer.start();
+    }
+
+    // Open the log in the directory, creating it when missing, and replay every intact record
+    static TaskLog open(Path directory, int regionSize, Duration commitDelay, Replay replay) throws IOException {
+        if (regionSize % 8 != 0 || regionSize < 1024) {
+            throw new IllegalArgumentException("Region size must be a multiple of 8 and at least 1 KB, not " + regionSize);
+        }
+        Files.createDirectories(directory);
+        Path file = directory.resolve(FILE_NAME);
+        // Left behind by a compaction that did not finish; the log it was replacing is still complete
+        Files.deleteIfExists(directory.resolve(COMPACT_FILE_NAME));
+
+        if (!Files.exists(file) || Files.size(file) < HEADER_SIZE) {
+            Segment segment = Segment.create(file, regionSize);
+            syncDirectory(directory);
+            return new TaskLog(directory, segment, 0, commitDelay);
+        }
+        Segment segment = Segment.open(file);
+        try {
+            long records = segment.recover(replay);
+            return new TaskLog(directory, segment, records, commitDelay);
+        } catch (IOException | RuntimeException ex) {
+            segment.close();
+            throw ex;
+        }
+    }
+
+    // Append a record and return its sequence number, to be passed to awaitSynced; does not wait for the disk
+    long append(byte[] payload) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Task log is closed");
+            }
+            segment.append(payload);
+            records++;
+            if (carryOver != null) {
+                carryOver.add(payload);
+            }
+            appended.signal();
+            return ++appendedCount;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not append to " + file, ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Block until the record with the sequence number, and every one before it, is on disk
+    void awaitSynced(long sequence) {
+        lock.lock();
+        try {
+            while (syncedCount < sequence) {
+                if (failure != null) {
+                    throw new IllegalStateException("Could not sync " + file, failure);
+                }
+                synced.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Records in the current file, including those superseded by later ones
+    long records() {
+        lock.lock();
+        try {
+            return records;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Offset the next record will be written at
+    long position() {
+        lock.lock();
+        try {
+            return segment.position;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Start carrying appended records over to a compacted file; the caller snapshots the live tasks right after
+    void beginCompaction() {
+        lock.lock();
+        try {
+            if (carryOver != null) {
+                throw new IllegalStateException("A compaction is already running");
+            }
+            carryOver = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Write the live tasks to a new file without blocking appends, then add the records appended meanwhile and
+    // swap the new file in with an atomic rename
+    void completeCompaction(long idFloor, Collection<Task> live) throws IOException {
+        Path target = directory.resolve(COMPACT_FILE_NAME);
+        Segment compacted = Segment.create(target, segment.regionSize);
+        boolean swapped = false;
+        try {
+            long count = 1;
+            compacted.append(encodeIdFloor(idFloor));
+            for (Task task : live) {
+                compacted.append(encodePut(task));
+                count++;
+            }
+            compacted.force(0, compacted.position);
+
+            lock.lock();
+            try {
+                long snapshotEnd = compacted.position;
+                for (byte[] payload : carryOver) {
+                    compacted.append(payload);
+                    count++;
+                }
+                compacted.force(snapshotEnd, compacted.position);
+                Files.move(target, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                swapped = true;
+                syncDirectory(directory);
+
+                Segment old = segment;
+                segment = compacted;
+                generation++;
+                records = count;
+                // Everything appended so far is in the new file, which was just synced
+                syncedCount = appendedCount;
+                syncedPosition = compacted.position;
+                synced.signalAll();
+                carryOver = null;
+                closeQuietly(old);
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            if (!swapped) {
+                lock.lock();
+                try {
+                    carryOver = null;
+                } finally {
+                    lock.unlock();
+                }
+                closeQuietly(compacted);
+                Files.deleteIfExists(target);
+            }
+        }
+    }
+
+    // Sync what is still pending and release the file
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            appended.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            syncer.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        closeQuietly(segment);
+    }
+
+    private void syncLoop() {
+        while (true) {
+            lock.lock();
+            try {
+                while (syncedCount == appendedCount && !closed) {
+                    appended.awaitUninterruptibly();
+                }
+                if (syncedCount == appendedCount) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            // Give writers that are about to append a chance to share this sync
+            if (commitDelayNanos > 0) {
+                LockSupport.parkNanos(commitDelayNanos);
+            }
+
+            long target;
+            long from;
+            long to;
+            long syncGeneration;
+            List<MappedByteBuffer> regions;
+            int regionSize;
+            lock.lock();
+            try {
+                target = appendedCount;
+                from = syncedPosition;
+                to = segment.position;
+                syncGeneration = generation;
+                regions = List.copyOf(segment.regions);
+                regionSize = segment.regionSize;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                force(regions, regionSize, from, to);
+            } catch (RuntimeException ex) {
+                log.error("Could not sync {}; writes to the task log will fail", file, ex);
+                lock.lock();
+                try {
+                    failure = ex;
+                    synced.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+
+            lock.lock();
+            try {
+                syncedCount = Math.max(syncedCount, target);
+                if (syncGeneration == generation) {
+                    syncedPosition = Math.max(syncedPosition, to);
+                }
+                synced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static void force(List<MappedByteBuffer> regions, int regionSize, long from, long to) {
+        if (to <= from) {
+            return;
+        }
+        int first = (int) (from / regionSize);
+        int last = (int) ((to - 1) / regionSize);
+        for (int index = first; index <= last; index++) {
+            int start = index == first ? (int) (from % regionSize) : 0;
+            int end = index == last ? (int) ((to - 1) % regionSize) + 1 : regionSize;
+            regions.get(index).force(start, end - start);
+        }
+    }
+
+    // Make a rename or a newly created file survive a crash; not every platform can sync a directory
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ex) {
+            log.debug("Could not sync directory {}: {}", directory, ex.getMessage());
+        }
+    }
+
+    private static void closeQuietly(Segment segment) {
+        try {
+            segment.close();
+        } catch (IOException ex) {
+            log.warn("Could not close task log segment", ex);
+        }
+    }
+
+    static byte[] encodePut(Task task) {
+        byte[] title = utf8(task.getTitle());
+        byte[] description = utf8(task.getDescription());
+        int size = 1 + 8 + 8 + 1 + 12 + 12 + 4 + length(title) + 4 + length(description);
+        ByteBuffer buffer = ByteBuffer.allocate(size)
+                .put(PUT)
+                .putLong(task.getId())
+                .putLong(task.getVersion())
+                .put((byte) (task.isCompleted() ? 1 : 0));
+        putTime(buffer, task.getCreatedAt());
+        putTime(buffer, task.getUpdatedAt());
+        putString(buffer, title);
+        putString(buffer, description);
+        return buffer.array();
+    }
+
+    static byte[] encodeDelete(long id) {
+        return ByteBuffer.allocate(9).put(DELETE).putLong(id).array();
+    }
+
+    static byte[] encodeIdFloor(long id) {
+        return ByteBuffer.allocate(9).put(ID_FLOOR).putLong(id).array();
+    }
+
+    static void decode(byte[] payload, Replay replay) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        byte type = buffer.get();
+        switch (type) {
+            case PUT -> replay.put(Task.builder()
+                    .id(buffer.getLong())
+                    .version(buffer.getLong())
+                    .completed(buffer.get() != 0)
+                    .createdAt(getTime(buffer))
+                    .updatedAt(getTime(buffer))
+                    .title(getString(buffer))
+                    .description(getString(buffer))
+                    .build());
+            case DELETE -> replay.delete(buffer.getLong());
+            case ID_FLOOR -> replay.idFloor(buffer.getLong());
+            default -> throw new IllegalStateException("Unknown task log record type " + type);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(bytes.length).put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static void putTime(ByteBuffer buffer, LocalDateTime time) {
+        if (time == null) {
+            buffer.putLong(Long.MIN_VALUE).putInt(0);
+        } else {
+            buffer.putLong(time.toEpochSecond(ZoneOffset.UTC)).putInt(time.getNano());
+        }
+    }
+
+    private static LocalDateTime getTime(ByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        return seconds == Long.MIN_VALUE ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    // One log file, mapped region by region as it grows
+    private static final class Segment {
+
+        private final FileChannel channel;
+        private final int regionSize;
+        private final List<MappedByteBuffer> regions = new ArrayList<>();
+        private long position;
+
+        private Segment(FileChannel channel, int regionSize) {
+            this.channel = channel;
+            this.regionSize = regionSize;
+        }
+
+        static Segment create(Path file, int regionSize) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            Segment segment = new Segment(channel, regionSize);
+            MappedByteBuffer first = segment.region(0);
+            first.putInt(0, MAGIC);
+            first.putInt(4, FORMAT_VERSION);
+            first.putInt(8, regionSize);
+            first.force(0, HEADER_SIZE);
+            segment.position = HEADER_SIZE;
+            return segment;
+        }
+
+        // The region size is read from the header, so a changed setting only applies to new logs
+        static Segment open(Path file) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != FORMAT_VERSION) {
+                channel.close();
+                throw new IOException(file + " is not a task log of format " + FORMAT_VERSION);
+            }
+            return new Segment(channel, header.getInt(8));
+        }
+
+        // Map regions on demand; mapping past the end grows the file
+        MappedByteBuffer region(int index) throws IOException {
+            while (regions.size() <= index) {
+                regions.add(channel.map(FileChannel.MapMode.READ_WRITE, (long) regions.size() * regionSize, regionSize));
+            }
+            return regions.get(index);
+        }
+
+        void append(byte[] payload) throws IOException {
+            int recordSize = RECORD_HEADER_SIZE + payload.length;
+            // Every region keeps room for a skip marker after its last record
+            if (recordSize + 4 > regionSize - HEADER_SIZE) {
+                throw new IllegalArgumentException("A record of " + recordSize + " bytes does not fit a log region");
+            }
+            int index = (int) (position / regionSize);
+            int offset = (int) (position % regionSize);
+            if (offset + recordSize + 4 > regionSize) {
+                region(index).putInt(offset, SKIP_TO_NEXT_REGION);
+                index++;
+                offset = 0;
+            }
+            MappedByteBuffer region = region(index);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            region.put(offset + RECORD_HEADER_SIZE, payload);
+            region.putInt(offset + 4, (int) crc.getValue());
+            region.putInt(offset, payload.length);
+            position = (long) index * regionSize + offset + recordSize;
+        }
+
+        void force(long from, long to) {
+            TaskLog.force(regions, regionSize, from, to);
+        }
+
+        // Replay every intact record, leave the position after the last one and clear whatever follows
+        long recover(Replay replay) throws IOException {
+            long fileSize = channel.size();
+            int index = 0;
+            int offset = HEADER_SIZE;
+            long count = 0;
+            while (true) {
+                MappedByteBuffer region = region(index);
+                int length = region.getInt(offset);
+                if (length == SKIP_TO_NEXT_REGION) {
+                    if ((long) (index + 1) * regionSize >= fileSize) {
+                        break;
+                    }
+                    index++;
+                    offset = 0;
+                    continue;
+                }
+                if (length <= 0 || offset + RECORD_HEADER_SIZE + length + 4 > regionSize) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                region.get(offset + RECORD_HEADER_SIZE, payload);
+                CRC32C crc = new CRC32C();
+                crc.update(payload);
+                if ((int) crc.getValue() != region.getInt(offset + 4)) {
+                    break;
+                }
+                decode(payload, replay);
+                count++;
+                offset += RECORD_HEADER_SIZE + length;
+            }
+            position = (long) index * regionSize + offset;
+            clearAfterPosition(index, offset);
+            return count;
+        }
+
+        // Bytes after the last intact record belong to writes that were never acknowledged;
+        // zero them so a later append cannot end up in front of a stale record that still checks out
+        private void clearAfterPosition(int index, int offset) throws IOException {
+            MappedByteBuffer region = region(index);
+            boolean cleared = false;
+            int at = offset;
+            for (; at < regionSize && at % 8 != 0; at++) {
+                if (region.get(at) != 0) {
+                    region.put(at, (byte) 0);
+                    cleared = true;
+                }
+            }
+            for (; at < regionSize; at += 8) {
+                if (region.getLong(at) != 0) {
+                    region.putLong(at, 0);
+                    cleared = true;
+                }
+            }
+            if (cleared) {
+                region.force();
+            }
+            while (regions.size() > index + 1) {
+                regions.remove(regions.size() - 1);
+            }
+            long end = (long) (index + 1) * regionSize;
+            if (channel.size() > end) {
+                channel.truncate(end);
+                channel.force(true);
+            }
+        }
+
+        void close() throws IOException {
+            regions.clear();
+            channel.close();
+        }
+    }
+}
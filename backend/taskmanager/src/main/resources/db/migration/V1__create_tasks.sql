@@ -0,0 +1,27 @@
+-- Pooled id generation: Hibernate takes one value per block of Task.ID_ALLOCATION_SIZE ids
+create sequence task_id_seq start with 1 increment by 50;
+
+create table tasks (
+    id bigint not null,
+    title varchar(255),
+    description varchar(255),
+    completed boolean not null,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    version bigint default 0 not null,
+    primary key (id)
+);
+
+-- "Open tasks, newest first" and other completed-filtered views sorted by last update
+create index idx_tasks_completed_updated_at_id on tasks (completed, updated_at desc, id desc);
+-- Unfiltered views sorted or ranged by last update
+create index idx_tasks_updated_at_id on tasks (updated_at, id);
+create index idx_tasks_created_at_id on tasks (created_at, id);
+
+create table task_tombstones (
+    task_id bigint not null,
+    deleted_at timestamp(6),
+    primary key (task_id)
+);
+
+create index idx_task_tombstones_deleted_at on task_tombstones (deleted_at);
@@ -0,0 +1,47 @@
+package com.example.taskmanager.benchmark;
+
+import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.model.Task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Realistic-looking task fixtures shared by the benchmarks
+final class BenchmarkTasks {
+
+    static final int LIST_SIZE = 10_000;
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 1, 9, 30, 15, 123_456_000);
+
+    private BenchmarkTasks() {
+    }
+
+    static Task entity(long id) {
+        return Task.builder()
+                .id(id)
+                .title("Prepare quarterly report " + id)
+                .description("Collect the numbers from finance, draft the summary and send it for review before Friday")
+                .completed(id % 3 == 0)
+                .createdAt(CREATED_AT.plusMinutes(id))
+                .updatedAt(CREATED_AT.plusMinutes(id).plusHours(2))
+                .version(id % 5)
+                .build();
+    }
+
+    static List<Task> entities(int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            tasks.add(entity(id));
+        }
+        return tasks;
+    }
+
+    // A task as a client would submit it, without server-assigned fields
+    static TaskDto newTask(long n) {
+        return TaskDto.builder()
+                .title("Prepare quarterly report " + n)
+                .description("Collect the numbers from finance, draft the summary and send it for review before Friday")
+                .build();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.taskmanager.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Runs the JMH benchmarks in this package, with the GC profiler reporting allocation per operation.
+// Run with: ./mvnw test -Pbenchmark -Dtest=JmhBenchmarksTest [-Djmh.include=<regex>] [-Djmh.result=<file>]
+// Baselines live in benchmarks/; see benchmarks/README.md for how to compare a run against them.
+@Tag("benchmark")
+public class JmhBenchmarksTest {
+
+    @Test
+    void runBenchmarks() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(System.getProperty("jmh.include", JmhBenchmarksTest.class.getPackageName() + "\\..*Benchmark\\."))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(System.getProperty("jmh.result", "target/jmh-result.json"))
+                .build();
+        new Runner(options).run();
+    }
+}
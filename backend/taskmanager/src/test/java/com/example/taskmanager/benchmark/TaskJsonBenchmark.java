@@ -0,0 +1,86 @@
+package com.example.taskmanager.benchmark;
+
+import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.service.TaskMapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Jackson encoding and decoding of TaskDto, configured the way Spring Boot configures the web ObjectMapper
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskJsonBenchmark {
+
+    private ObjectWriter taskWriter;
+    private ObjectReader taskReader;
+    private ObjectWriter listWriter;
+    private ObjectReader listReader;
+
+    private TaskDto task;
+    private List<TaskDto> tasks;
+    private byte[] taskJson;
+    private byte[] listJson;
+
+    @Setup(Level.Trial)
+    public void encodeFixtures() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        TypeReference<List<TaskDto>> listType = new TypeReference<>() {
+        };
+        taskWriter = objectMapper.writerFor(TaskDto.class);
+        taskReader = objectMapper.readerFor(TaskDto.class);
+        listWriter = objectMapper.writerFor(listType);
+        listReader = objectMapper.readerFor(listType);
+
+        task = TaskMapper.toDto(BenchmarkTasks.entity(1));
+        tasks = BenchmarkTasks.entities(BenchmarkTasks.LIST_SIZE).stream()
+                .map(TaskMapper::toDto)
+                .collect(Collectors.toList());
+        taskJson = taskWriter.writeValueAsBytes(task);
+        listJson = listWriter.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public byte[] encodeTask() throws IOException {
+        return taskWriter.writeValueAsBytes(task);
+    }
+
+    @Benchmark
+    public TaskDto decodeTask() throws IOException {
+        return taskReader.readValue(taskJson);
+    }
+
+    @Benchmark
+    public byte[] encodeList() throws IOException {
+        return listWriter.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public List<TaskDto> decodeList() throws IOException {
+        return listReader.readValue(listJson);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.taskmanager.benchmark;
+
+import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.model.Task;
+import com.example.taskmanager.service.TaskMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Cost of converting between Task and TaskDto, for one task and for a 10k-task list
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskMappingBenchmark {
+
+    private Task task;
+    private TaskDto taskDto;
+    private List<Task> tasks;
+
+    @Setup(Level.Trial)
+    public void createTasks() {
+        task = BenchmarkTasks.entity(1);
+        taskDto = TaskMapper.toDto(task);
+        tasks = BenchmarkTasks.entities(BenchmarkTasks.LIST_SIZE);
+    }
+
+    @Benchmark
+    public TaskDto toDto() {
+        return TaskMapper.toDto(task);
+    }
+
+    @Benchmark
+    public Task toEntity() {
+        return TaskMapper.toEntity(taskDto);
+    }
+
+    // Same shape as TaskService.getAllTasks()
+    @Benchmark
+    public List<TaskDto> toDtoList() {
+        return tasks.stream()
+                .map(TaskMapper::toDto)
+                .collect(Collectors.toList());
+    }
+}
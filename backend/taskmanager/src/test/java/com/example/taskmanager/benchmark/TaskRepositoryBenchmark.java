@@ -0,0 +1,78 @@
+package com.example.taskmanager.benchmark;
+
+import com.example.taskmanager.TaskManagerApplication;
+import com.example.taskmanager.model.Task;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.service.TaskMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// TaskRepository round trips against the embedded H2 database, through the application's own JPA setup.
+// Each benchmark forks its own JVM, so rows added by save do not leak into the others.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskRepositoryBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private TaskRepository taskRepository;
+    private long firstId;
+    private long saved;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(TaskManagerApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN"
+                )
+                .run();
+        taskRepository = context.getBean(TaskRepository.class);
+        List<Task> tasks = BenchmarkTasks.entities(BenchmarkTasks.LIST_SIZE);
+        tasks.forEach(task -> task.setId(null));
+        firstId = taskRepository.saveAll(tasks).get(0).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Task> findAll() {
+        return taskRepository.findAll();
+    }
+
+    @Benchmark
+    public Optional<Task> findById() {
+        return taskRepository.findById(firstId + ThreadLocalRandom.current().nextInt(BenchmarkTasks.LIST_SIZE));
+    }
+
+    @Benchmark
+    public Task save() {
+        return taskRepository.save(TaskMapper.toEntity(BenchmarkTasks.newTask(saved++)));
+    }
+}
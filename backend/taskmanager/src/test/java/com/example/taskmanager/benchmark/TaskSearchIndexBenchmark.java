@@ -0,0 +1,87 @@
+package com.example.taskmanager.benchmark;
+
+import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.service.TaskSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Query latency of the search index over a synthetic corpus with a Zipf-like word distribution
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TaskSearchIndexBenchmark {
+
+    private static final int VOCABULARY = 20_000;
+
+    @Param({"1000000"})
+    private int tasks;
+
+    private TaskSearchIndex index;
+    private String[] words;
+
+    @Setup(Level.Trial)
+    public void buildIndex() {
+        Random random = new Random(7);
+        words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            words[i] = "w" + Integer.toString(i, 36);
+        }
+        index = new TaskSearchIndex();
+        for (long id = 1; id <= tasks; id++) {
+            index.index(TaskDto.builder()
+                    .id(id)
+                    .title(sentence(random, 4))
+                    .description(sentence(random, 20))
+                    .version(0L)
+                    .build());
+        }
+    }
+
+    // Low ranks are frequent words, high ranks are rare ones
+    private String sentence(Random random, int length) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            double u = random.nextDouble();
+            int rank = (int) Math.min(VOCABULARY - 1, Math.floor(Math.pow(VOCABULARY, u)) - 1);
+            sentence.append(words[rank]).append(' ');
+        }
+        return sentence.toString();
+    }
+
+    @Benchmark
+    public List<TaskSearchIndex.Hit> rareTerm() {
+        return index.search(words[15_000] + " ", 20);
+    }
+
+    @Benchmark
+    public List<TaskSearchIndex.Hit> commonTerm() {
+        return index.search(words[0] + " ", 20);
+    }
+
+    @Benchmark
+    public List<TaskSearchIndex.Hit> commonAndRareTerms() {
+        return index.search(words[0] + " " + words[5_000] + " ", 20);
+    }
+
+    @Benchmark
+    public List<TaskSearchIndex.Hit> prefixWhileTyping() {
+        return index.search(words[10] + " " + words[2_000].substring(0, 2), 20);
+    }
+}
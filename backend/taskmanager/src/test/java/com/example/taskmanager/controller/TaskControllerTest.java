@@ -1,29 +1,60 @@
 package com.example.taskmanager.controller;
 
+import com.example.taskmanager.dto.BulkItemResult;
+import com.example.taskmanager.dto.BulkOperation;
+import com.example.taskmanager.dto.CacheStatsDto;
+import com.example.taskmanager.dto.DailyTaskStatsDto;
+import com.example.taskmanager.dto.TaskChanges;
 import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.dto.TaskPage;
+import com.example.taskmanager.dto.TaskQuery;
+import com.example.taskmanager.dto.TaskSearchHit;
+import com.example.taskmanager.dto.TaskStatsDto;
+import com.example.taskmanager.exception.PreconditionFailedException;
+import com.example.taskmanager.service.TaskEventBroadcaster;
+import com.example.taskmanager.service.TaskFields;
+import com.example.taskmanager.service.TaskIdempotencyStore;
 import com.example.taskmanager.service.TaskService;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TaskController.class)
+// GlobalExceptionHandler counts errors; the web slice has no metrics auto-configuration.
+// The idempotency store is real so retries are deduplicated as in the application
+@Import({SimpleMeterRegistry.class, TaskIdempotencyStore.class})
 public class TaskControllerTest {
 
     @Autowired
@@ -35,6 +66,9 @@ public class TaskControllerTest {
     @MockitoBean
     private TaskService taskService;
 
+    @MockitoBean
+    private TaskEventBroadcaster taskEventBroadcaster;
+
     private TaskDto task1;
     private TaskDto task2;
     private TaskDto newTaskDto;
@@ -72,7 +106,7 @@ public class TaskControllerTest {
     @Test
     void getAllTasks_ShouldReturnAllTasks() throws Exception {
         List<TaskDto> tasks = Arrays.asList(task1, task2);
-        when(taskService.getAllTasks()).thenReturn(tasks);
+        when(taskService.getAllTasks(any(TaskQuery.class))).thenReturn(tasks);
 
         mockMvc.perform(get("/api/tasks"))
                 .andExpect(status().isOk())
@@ -83,7 +117,80 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$[1].id", is(2)))
                 .andExpect(jsonPath("$[1].title", is("Test Task 2")));
 
-        verify(taskService, times(1)).getAllTasks();
+        verify(taskService, times(1)).getAllTasks(any(TaskQuery.class));
+    }
+
+    @Test
+    void getAllTasks_WithFilterParams_ShouldBindQuery() throws Exception {
+        when(taskService.getAllTasks(any(TaskQuery.class))).thenReturn(List.of(task1));
+
+        mockMvc.perform(get("/api/tasks")
+                        .param("completed", "false")
+                        .param("createdAfter", "2025-01-01T00:00:00")
+                        .param("updatedSince", "2025-02-01T10:30:00")
+                        .param("sort", "updatedAt,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        TaskQuery expected = TaskQuery.builder()
+                .completed(false)
+                .createdAfter(LocalDateTime.of(2025, 1, 1, 0, 0))
+                .updatedSince(LocalDateTime.of(2025, 2, 1, 10, 30))
+                .sort("updatedAt,desc")
+                .build();
+        verify(taskService, times(1)).getAllTasks(expected);
+    }
+
+    @Test
+    void getTaskPage_ShouldReturnItemsAndNextCursor() throws Exception {
+        TaskPage page = TaskPage.builder()
+                .items(List.of(task1))
+                .next("aWQ6MQ")
+                .build();
+        when(taskService.getTaskPage(any(TaskQuery.class), eq(1), isNull())).thenReturn(page);
+
+        mockMvc.perform(get("/api/tasks").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id", is(1)))
+                .andExpect(jsonPath("$.next", is("aWQ6MQ")));
+
+        verify(taskService, times(1)).getTaskPage(any(TaskQuery.class), eq(1), isNull());
+        verify(taskService, never()).getAllTasks(any(TaskQuery.class));
+    }
+
+    @Test
+    void getTaskPage_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+        when(taskService.getTaskPage(any(TaskQuery.class), eq(10), eq("bogus"))).thenThrow(new IllegalArgumentException("Invalid cursor: bogus"));
+
+        mockMvc.perform(get("/api/tasks").param("limit", "10").param("cursor", "bogus"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportTasks_ShouldStreamNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<TaskDto> consumer = invocation.getArgument(0);
+            consumer.accept(task1);
+            consumer.accept(task2);
+            return null;
+        }).when(taskService).exportTasks(any());
+
+        MvcResult result = mockMvc.perform(get("/api/tasks/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // Its own timeout, not the default for async requests
+        assertEquals(Duration.ofMinutes(10).toMillis(), result.getRequest().getAsyncContext().getTimeout());
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        objectMapper.writeValueAsString(task1) + "\n"
+                                + objectMapper.writeValueAsString(task2) + "\n"));
+
+        verify(taskService, never()).getAllTasks(any(TaskQuery.class));
     }
 
     @Test
@@ -99,6 +206,236 @@ public class TaskControllerTest {
         verify(taskService, times(1)).getTaskById(1L);
     }
 
+    @Test
+    void getTaskById_ShouldReturnETagFromVersion() throws Exception {
+        task1.setVersion(5L);
+        when(taskService.getTaskById(1L)).thenReturn(task1);
+
+        mockMvc.perform(get("/api/tasks/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5\""))
+                .andExpect(jsonPath("$.version", is(5)));
+    }
+
+    @Test
+    void getTaskById_WithMatchingIfNoneMatch_ShouldReturnNotModified() throws Exception {
+        when(taskService.getTaskVersion(1L)).thenReturn(5L);
+
+        mockMvc.perform(get("/api/tasks/1").header("If-None-Match", "\"5\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"5\""))
+                .andExpect(content().string(""));
+
+        verify(taskService, never()).getTaskById(any());
+    }
+
+    @Test
+    void getTaskById_WithStaleIfNoneMatch_ShouldReturnTask() throws Exception {
+        task1.setVersion(6L);
+        when(taskService.getTaskVersion(1L)).thenReturn(6L);
+        when(taskService.getTaskById(1L)).thenReturn(task1);
+
+        mockMvc.perform(get("/api/tasks/1").header("If-None-Match", "\"5\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"6\""));
+    }
+
+    @Test
+    void getTaskById_WithBinaryAccept_ShouldSendAStrongETagPerEncoding() throws Exception {
+        task1.setVersion(5L);
+        when(taskService.getTaskVersion(1L)).thenReturn(5L);
+        when(taskService.getTaskById(1L)).thenReturn(task1);
+
+        mockMvc.perform(get("/api/tasks/1").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5-cbor\""));
+        mockMvc.perform(get("/api/tasks/1").accept(new MediaType("application", "x-jackson-smile")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5-smile\""));
+        // The JSON tag of the same version does not validate a cached CBOR copy, nor the other way round
+        mockMvc.perform(get("/api/tasks/1").accept(MediaType.APPLICATION_CBOR).header("If-None-Match", "\"5\""))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/tasks/1").header("If-None-Match", "\"5-cbor\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5\""));
+        mockMvc.perform(get("/api/tasks/1").accept(MediaType.APPLICATION_CBOR).header("If-None-Match", "\"5-cbor\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"5-cbor\""));
+    }
+
+    @Test
+    void getTaskById_WithFields_ShouldNotShareTheETagOfTheFullTask() throws Exception {
+        task1.setVersion(5L);
+        when(taskService.getTaskVersion(1L)).thenReturn(5L);
+        when(taskService.getTaskById(eq(1L), any(TaskFields.class))).thenReturn(task1);
+        when(taskService.getTaskById(1L)).thenReturn(task1);
+
+        mockMvc.perform(get("/api/tasks/1").param("fields", "id,title").header("If-None-Match", "\"5\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5-f3\""));
+        mockMvc.perform(get("/api/tasks/1").header("If-None-Match", "\"5-f3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5\""));
+        // The same fieldset in another order is the same representation
+        mockMvc.perform(get("/api/tasks/1").param("fields", "title,id").header("If-None-Match", "\"5-f3\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/tasks/1").param("fields", "title,id").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5-cbor-f3\""));
+    }
+
+    @Test
+    void getAllTasks_WithMatchingIfNoneMatch_ShouldReturnNotModified() throws Exception {
+        when(taskService.getListVersion()).thenReturn("abc-3");
+
+        mockMvc.perform(get("/api/tasks").header("If-None-Match", "W/\"list-abc-3\""))
+                .andExpect(status().isNotModified());
+
+        verify(taskService, never()).getAllTasks(any(TaskQuery.class));
+    }
+
+    @Test
+    void getAllTasks_ShouldSendWeakETagSoTheListCanBeCompressed() throws Exception {
+        when(taskService.getListVersion()).thenReturn("abc-3");
+        when(taskService.getAllTasks(any(TaskQuery.class))).thenReturn(List.of(task1));
+
+        mockMvc.perform(get("/api/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"list-abc-3\""));
+        mockMvc.perform(get("/api/tasks").header("If-None-Match", "\"list-abc-3\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getAllTasks_ShouldSendTheChangeTokenReadBeforeTheRows() throws Exception {
+        when(taskService.getChangeToken()).thenReturn("token-1");
+        when(taskService.getAllTasks(any(TaskQuery.class))).thenReturn(List.of(task1));
+
+        mockMvc.perform(get("/api/tasks").param("completed", "false").header("Origin", "http://localhost:8081"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Change-Token", "token-1"))
+                .andExpect(header().string("Access-Control-Expose-Headers", containsString("Change-Token")));
+
+        InOrder inOrder = inOrder(taskService);
+        inOrder.verify(taskService).getChangeToken();
+        inOrder.verify(taskService).getAllTasks(any(TaskQuery.class));
+    }
+
+    @Test
+    void getAllTasks_WithBinaryAccept_ShouldNegotiateCborAndSmile() throws Exception {
+        task1.setCreatedAt(LocalDateTime.of(2030, 1, 1, 12, 0));
+        when(taskService.getAllTasks(any(TaskQuery.class))).thenReturn(List.of(task1, task2));
+
+        for (MediaType mediaType : List.of(MediaType.APPLICATION_CBOR, new MediaType("application", "x-jackson-smile"))) {
+            MvcResult result = mockMvc.perform(get("/api/tasks").accept(mediaType))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(mediaType))
+                    .andExpect(header().stringValues("Vary", hasItem("Accept")))
+                    .andReturn();
+
+            ObjectMapper mapper = mediaType.equals(MediaType.APPLICATION_CBOR)
+                    ? new ObjectMapper(new CBORFactory()) : new ObjectMapper(new SmileFactory());
+            mapper.findAndRegisterModules();
+            List<TaskDto> decoded = mapper.readValue(result.getResponse().getContentAsByteArray(),
+                    new TypeReference<List<TaskDto>>() {
+                    });
+            assertEquals(List.of(task1, task2), decoded);
+        }
+    }
+
+    @Test
+    void getAllTasks_WithFields_ShouldWriteOnlyThoseFields() throws Exception {
+        when(taskService.getAllTasks(any(TaskQuery.class), any(TaskFields.class))).thenReturn(List.of(task1, task2));
+
+        mockMvc.perform(get("/api/tasks").param("fields", "id,title,completed"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].*", hasSize(3)))
+                .andExpect(jsonPath("$[0].title", is("Test Task 1")))
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(jsonPath("$[1].completed", is(true)));
+
+        verify(taskService, never()).getAllTasks(any(TaskQuery.class));
+        verify(taskService).getAllTasks(any(TaskQuery.class),
+                argThat(fields -> fields.names().equals(Set.of("id", "title", "completed"))));
+    }
+
+    @Test
+    void getTaskPageAndTaskById_WithFields_ShouldWriteOnlyThoseFields() throws Exception {
+        TaskPage page = TaskPage.builder().items(List.of(task1)).next("next-cursor").build();
+        when(taskService.getTaskPage(any(TaskQuery.class), eq(1), isNull(), any(TaskFields.class))).thenReturn(page);
+        task1.setVersion(4L);
+        when(taskService.getTaskById(eq(1L), any(TaskFields.class))).thenReturn(task1);
+
+        mockMvc.perform(get("/api/tasks").param("limit", "1").param("fields", "id,title").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.next", is("next-cursor")))
+                .andExpect(jsonPath("$.items[0].*", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].completed").doesNotExist());
+        mockMvc.perform(get("/api/tasks/1").param("fields", "title"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4-f2\""))
+                .andExpect(jsonPath("$.*", hasSize(1)))
+                .andExpect(jsonPath("$.title", is("Test Task 1")));
+    }
+
+    @Test
+    void getAllTasks_WithUnknownField_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/tasks").param("fields", "id,secret"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    void createTask_WithCborBody_ShouldDecodeIt() throws Exception {
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+        when(taskService.createTask(any(TaskDto.class))).thenReturn(task1);
+
+        mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(newTaskDto)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", is(1)));
+
+        verify(taskService, times(1)).createTask(newTaskDto);
+    }
+
+    @Test
+    void createTask_RetriedWithIdempotencyKey_ShouldCreateOnce() throws Exception {
+        when(taskService.createTask(any(TaskDto.class))).thenReturn(task1);
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/api/tasks")
+                            .header("Idempotency-Key", "create-1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(newTaskDto)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.id", is(1)));
+        }
+
+        verify(taskService, times(1)).createTask(newTaskDto);
+    }
+
+    @Test
+    void createTask_WithIdempotencyKeyOfAnotherRequest_ShouldReturnUnprocessableEntity() throws Exception {
+        when(taskService.createTask(any(TaskDto.class))).thenReturn(task1);
+        mockMvc.perform(post("/api/tasks")
+                        .header("Idempotency-Key", "create-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newTaskDto)))
+                .andExpect(status().isCreated());
+
+        newTaskDto.setTitle("Another Task");
+        mockMvc.perform(post("/api/tasks")
+                        .header("Idempotency-Key", "create-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newTaskDto)))
+                .andExpect(status().isUnprocessableEntity());
+
+        verify(taskService, times(1)).createTask(any(TaskDto.class));
+    }
+
     @Test
     void getTaskById_WithInvalidId_ShouldReturnNotFound() throws Exception {
         when(taskService.getTaskById(99L)).thenThrow(new EntityNotFoundException("Task not found with id: 99"));
@@ -167,6 +504,56 @@ public class TaskControllerTest {
         verify(taskService, times(1)).updateTask(eq(1L), any(TaskDto.class));
     }
 
+    @Test
+    void updateTask_WithIfMatch_ShouldPassExpectedVersion() throws Exception {
+        task1.setVersion(4L);
+        when(taskService.updateTask(eq(1L), any(TaskDto.class), eq(3L))).thenReturn(task1);
+
+        mockMvc.perform(put("/api/tasks/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newTaskDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+
+        verify(taskService, never()).updateTask(eq(1L), any(TaskDto.class));
+    }
+
+    @Test
+    void updateTask_WithIfMatchOfAnotherEncoding_ShouldCompareTheVersionOnly() throws Exception {
+        task1.setVersion(4L);
+        when(taskService.updateTask(eq(1L), any(TaskDto.class), eq(3L))).thenReturn(task1);
+
+        mockMvc.perform(put("/api/tasks/1")
+                        .header("If-Match", "\"3-cbor\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newTaskDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+        mockMvc.perform(put("/api/tasks/1")
+                        .header("If-Match", "\"3-smile-f3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newTaskDto)))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/tasks/1")
+                        .header("If-Match", "\"3-unknown\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newTaskDto)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void updateTask_WithStaleIfMatch_ShouldReturnPreconditionFailed() throws Exception {
+        when(taskService.updateTask(eq(1L), any(TaskDto.class), eq(3L)))
+                .thenThrow(new PreconditionFailedException("Task 1 is at version 4, not 3"));
+
+        mockMvc.perform(put("/api/tasks/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newTaskDto)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void updateTask_WithInvalidId_ShouldReturnNotFound() throws Exception {
         TaskDto updateDto = TaskDto.builder()
@@ -239,4 +626,117 @@ public class TaskControllerTest {
 
         verify(taskService, times(1)).deleteTask(99L);
     }
-}
\ No newline at end of file
+
+    @Test
+    void bulk_ShouldReturnPerItemResults() throws Exception {
+        List<BulkOperation> operations = List.of(
+                BulkOperation.builder().op(BulkOperation.Type.CREATE).task(newTaskDto).build(),
+                BulkOperation.builder().op(BulkOperation.Type.DELETE).id(99L).build()
+        );
+        List<BulkItemResult> results = List.of(
+                BulkItemResult.builder().index(0).op(BulkOperation.Type.CREATE).status(201).task(task1).build(),
+                BulkItemResult.builder().index(1).op(BulkOperation.Type.DELETE).status(404)
+                        .error("Task not found with id: 99").build()
+        );
+        when(taskService.bulk(anyList())).thenReturn(results);
+
+        mockMvc.perform(post("/api/tasks/_bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(operations)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status", is(201)))
+                .andExpect(jsonPath("$[0].task.id", is(1)))
+                .andExpect(jsonPath("$[1].op", is("DELETE")))
+                .andExpect(jsonPath("$[1].status", is(404)));
+
+        verify(taskService, times(1)).bulk(anyList());
+    }
+
+    @Test
+    void searchTasks_ShouldReturnRankedHits() throws Exception {
+        List<TaskSearchHit> hits = List.of(
+                TaskSearchHit.builder().task(task2).score(2.5).build(),
+                TaskSearchHit.builder().task(task1).score(1.0).build()
+        );
+        when(taskService.searchTasks("test", 20)).thenReturn(hits);
+
+        mockMvc.perform(get("/api/tasks/search").param("q", "test"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].task.id", is(2)))
+                .andExpect(jsonPath("$[0].score", is(2.5)));
+    }
+
+    @Test
+    void getChanges_ShouldReturnChangedAndDeletedTasks() throws Exception {
+        TaskChanges changes = TaskChanges.builder()
+                .changed(List.of(task1))
+                .deleted(List.of(7L))
+                .token("next-token")
+                .build();
+        when(taskService.getChanges("prev-token")).thenReturn(changes);
+
+        mockMvc.perform(get("/api/tasks/changes").param("since", "prev-token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed", hasSize(1)))
+                .andExpect(jsonPath("$.deleted[0]", is(7)))
+                .andExpect(jsonPath("$.full", is(false)))
+                .andExpect(jsonPath("$.token", is("next-token")));
+    }
+
+    @Test
+    void getChanges_WithInvalidToken_ShouldReturnBadRequest() throws Exception {
+        when(taskService.getChanges("garbage")).thenThrow(new IllegalArgumentException("Invalid change token: garbage"));
+
+        mockMvc.perform(get("/api/tasks/changes").param("since", "garbage"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamTasks_ShouldOpenEventStream() throws Exception {
+        when(taskEventBroadcaster.subscribe()).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/tasks/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(taskEventBroadcaster, times(1)).subscribe();
+    }
+
+    @Test
+    void getCacheStats_ShouldReturnCounters() throws Exception {
+        CacheStatsDto stats = CacheStatsDto.builder()
+                .size(10)
+                .hits(90)
+                .misses(10)
+                .evictions(2)
+                .hitRate(0.9)
+                .build();
+        when(taskService.getCacheStats()).thenReturn(stats);
+
+        mockMvc.perform(get("/api/tasks/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits", is(90)))
+                .andExpect(jsonPath("$.misses", is(10)))
+                .andExpect(jsonPath("$.evictions", is(2)));
+    }
+
+    @Test
+    void getStats_ShouldReturnCountersAndDailyRollups() throws Exception {
+        TaskStatsDto stats = TaskStatsDto.builder()
+                .open(3)
+                .completed(2)
+                .total(5)
+                .days(List.of(DailyTaskStatsDto.builder().date(LocalDate.of(2030, 1, 1)).created(4).completed(2).build()))
+                .build();
+        when(taskService.getStats()).thenReturn(stats);
+
+        mockMvc.perform(get("/api/tasks/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.open", is(3)))
+                .andExpect(jsonPath("$.total", is(5)))
+                .andExpect(jsonPath("$.days[0].date", is("2030-01-01")))
+                .andExpect(jsonPath("$.days[0].created", is(4)));
+        verify(taskService, never()).getTaskById(any());
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.taskmanager.controller;
+
+import com.example.taskmanager.service.TaskFields;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskETagsTest {
+
+    @Test
+    void forTask_ShouldGiveEveryRepresentationOfAVersionItsOwnTag() {
+        List<String> accepts = List.of("application/json", "application/cbor", "application/x-jackson-smile");
+        List<TaskFields> fieldsets = List.of(TaskFields.ALL, TaskFields.parse("id"), TaskFields.parse("id,title"),
+                TaskFields.parse("title"), TaskFields.parse("id,title,description,completed,createdAt,updatedAt"));
+        Set<String> tags = new HashSet<>();
+        for (String accept : accepts) {
+            for (TaskFields fields : fieldsets) {
+                String tag = TaskETags.forTask(7L, accept, fields);
+                assertTrue(tags.add(tag), tag + " is shared by two representations");
+                assertEquals(7L, TaskETags.parseIfMatch(tag));
+            }
+        }
+    }
+
+    @Test
+    void forTask_ShouldNormalizeTheFieldset() {
+        assertEquals(TaskETags.forTask(7L, null, TaskFields.parse("id,title")),
+                TaskETags.forTask(7L, null, TaskFields.parse("title, id,title")));
+        TaskFields everyField = TaskFields.parse("id,title,description,completed,createdAt,updatedAt,version");
+        assertEquals(TaskETags.forTask(7L, null, TaskFields.ALL), TaskETags.forTask(7L, null, everyField));
+        assertEquals("\"7\"", TaskETags.forTask(7L, "*/*", TaskFields.ALL));
+    }
+}
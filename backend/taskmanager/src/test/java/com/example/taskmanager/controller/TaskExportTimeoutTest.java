@@ -0,0 +1,89 @@
+package com.example.taskmanager.controller;
+
+import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// An export that times out against the durable file store, read by a client that stops reading. The export must end
+// without breaking the store: Spring MVC would interrupt the export thread, and an interrupt during file I/O closes
+// H2's file channel until restart
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "taskmanager.export.timeout=2s",
+        "spring.jpa.show-sql=false",
+        "taskmanager.sql-log.sample-rate=0"
+})
+@ActiveProfiles("durable")
+public class TaskExportTimeoutTest {
+
+    // Several MB of NDJSON, more than the socket buffers of a client that stops reading can take
+    private static final int TASKS = 50_000;
+
+    @TempDir
+    static Path dataDir;
+
+    @DynamicPropertySource
+    static void durableProperties(DynamicPropertyRegistry registry) {
+        registry.add("taskmanager.data-dir", dataDir::toString);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    void exportThatTimesOut_ShouldLeaveTheFileStoreUsable() throws Exception {
+        // Ids far above the sequence, whose values Hibernate hands out in blocks it has already fetched
+        jdbcTemplate.update("INSERT INTO tasks (id, title, description, completed, created_at, updated_at, version) "
+                + "SELECT 1000000 + x, 'Task ' || x, REPEAT('exported ', 20), MOD(x, 4) = 0, "
+                + "LOCALTIMESTAMP, LOCALTIMESTAMP, 0 "
+                + "FROM SYSTEM_RANGE(1, ?)", TASKS);
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest export = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tasks/export")).build();
+
+        // Read the first line, then stall past the timeout with the rest of the export pending
+        HttpResponse<InputStream> stalled = client.send(export, HttpResponse.BodyHandlers.ofInputStream());
+        try (BufferedReader lines = reader(stalled.body())) {
+            assertNotNull(lines.readLine());
+            Thread.sleep(3_000);
+        }
+
+        assertEquals(TASKS, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks", Long.class));
+        TaskDto created = taskService.createTask(TaskDto.builder().title("After the export").build());
+        assertEquals("After the export", taskService.getTaskById(created.getId()).getTitle());
+
+        // A full scan of the file, without the request timeout of the endpoint
+        long[] exported = {0};
+        taskService.exportTasks(task -> exported[0]++);
+        assertEquals(TASKS + 1, exported[0]);
+    }
+
+    private static BufferedReader reader(InputStream body) {
+        return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+}
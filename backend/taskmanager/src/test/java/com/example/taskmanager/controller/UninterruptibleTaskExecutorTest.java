@@ -0,0 +1,40 @@
+package com.example.taskmanager.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UninterruptibleTaskExecutorTest {
+
+    @Test
+    void cancel_ShouldNotInterruptTheRunningTask() throws Exception {
+        try (UninterruptibleTaskExecutor executor = new UninterruptibleTaskExecutor("test-")) {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch finished = new CountDownLatch(1);
+            AtomicBoolean interrupted = new AtomicBoolean();
+
+            Future<?> future = executor.submit(() -> {
+                started.countDown();
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (release.getCount() > 0 && System.nanoTime() < deadline) {
+                    Thread.onSpinWait();
+                }
+                interrupted.set(Thread.currentThread().isInterrupted());
+                finished.countDown();
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            future.cancel(true);
+            release.countDown();
+
+            assertTrue(finished.await(5, TimeUnit.SECONDS));
+            assertTrue(future.isCancelled());
+            assertFalse(interrupted.get());
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.example.taskmanager.exception;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
 
@@ -16,11 +18,13 @@ import static org.junit.jupiter.api.Assertions.*;
 public class GlobalExceptionHandlerTest {
 
     private GlobalExceptionHandler exceptionHandler;
+    private SimpleMeterRegistry meterRegistry;
     private WebRequest webRequest;
 
     @BeforeEach
     void setUp() {
-        exceptionHandler = new GlobalExceptionHandler();
+        meterRegistry = new SimpleMeterRegistry();
+        exceptionHandler = new GlobalExceptionHandler(meterRegistry);
         webRequest = new ServletWebRequest(new MockHttpServletRequest());
     }
 
@@ -38,6 +42,50 @@ public class GlobalExceptionHandlerTest {
         assertEquals("Entity not found", body.get("message"));
         assertEquals(HttpStatus.NOT_FOUND.value(), body.get("status"));
         assertNotNull(body.get("timestamp"));
+        assertEquals(1, meterRegistry.get("taskmanager.http.errors")
+                .tags("status", "404", "exception", "EntityNotFoundException").counter().count());
+    }
+
+    @Test
+    void handleIllegalArgumentException_ShouldReturnBadRequest() {
+        IllegalArgumentException ex = new IllegalArgumentException("Invalid cursor");
+
+        ResponseEntity<Object> response = exceptionHandler.handleIllegalArgumentException(ex, webRequest);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertNotNull(body);
+        assertEquals("Invalid cursor", body.get("message"));
+        assertEquals(HttpStatus.BAD_REQUEST.value(), body.get("status"));
+    }
+
+    @Test
+    void handlePreconditionFailedException_ShouldReturnPreconditionFailed() {
+        PreconditionFailedException ex = new PreconditionFailedException("Task 1 is at version 4, not 3");
+
+        ResponseEntity<Object> response = exceptionHandler.handlePreconditionFailedException(ex, webRequest);
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+    }
+
+    @Test
+    void handleIdempotencyKeyReusedException_ShouldReturnUnprocessableEntity() {
+        IdempotencyKeyReusedException ex = new IdempotencyKeyReusedException("Idempotency-Key k1 was already used");
+
+        ResponseEntity<Object> response = exceptionHandler.handleIdempotencyKeyReusedException(ex, webRequest);
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+    }
+
+    @Test
+    void handleOptimisticLockingFailureException_ShouldReturnConflict() {
+        ObjectOptimisticLockingFailureException ex = new ObjectOptimisticLockingFailureException("Task", 1L);
+
+        ResponseEntity<Object> response = exceptionHandler.handleOptimisticLockingFailureException(ex, webRequest);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
     }
 
     @Test
@@ -55,5 +103,7 @@ public class GlobalExceptionHandlerTest {
         assertEquals("Unexpected error", body.get("details"));
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR.value(), body.get("status"));
         assertNotNull(body.get("timestamp"));
+        assertEquals(1, meterRegistry.get("taskmanager.http.errors")
+                .tags("status", "500", "exception", "RuntimeException").counter().count());
     }
 }
\ No newline at end of file
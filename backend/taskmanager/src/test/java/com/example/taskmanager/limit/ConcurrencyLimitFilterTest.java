@@ -0,0 +1,103 @@
+package com.example.taskmanager.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrencyLimitFilterTest {
+
+    private GradientConcurrencyLimit readLimit;
+    private GradientConcurrencyLimit writeLimit;
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        readLimit = new GradientConcurrencyLimit(1, 1, 10);
+        writeLimit = new GradientConcurrencyLimit(1, 1, 10);
+        meterRegistry = new SimpleMeterRegistry();
+        CorsConfiguration cors = new CorsConfiguration();
+        cors.addAllowedOrigin("http://localhost:8081");
+        cors.addAllowedMethod("*");
+        cors.addExposedHeader("Retry-After");
+        UrlBasedCorsConfigurationSource corsSource = new UrlBasedCorsConfigurationSource();
+        corsSource.registerCorsConfiguration("/**", cors);
+        filter = new ConcurrencyLimitFilter(readLimit, writeLimit, Duration.ofSeconds(2),
+                new ObjectMapper().registerModule(new JavaTimeModule()), corsSource, meterRegistry);
+    }
+
+    private MockHttpServletResponse perform(String method, String uri, MockFilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, uri), response, chain);
+        return response;
+    }
+
+    @Test
+    void doFilter_OverTheReadLimit_ShouldRejectReadsButAdmitWrites() throws Exception {
+        assertTrue(readLimit.tryAcquire());
+        MockFilterChain readChain = new MockFilterChain();
+        MockFilterChain writeChain = new MockFilterChain();
+
+        MockHttpServletResponse rejected = perform("GET", "/api/tasks", readChain);
+        MockHttpServletResponse admitted = perform("POST", "/api/tasks", writeChain);
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("2", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("\"status\":503"));
+        assertNull(readChain.getRequest());
+        assertEquals(200, admitted.getStatus());
+        assertNotNull(writeChain.getRequest());
+        assertEquals(1, meterRegistry.get("taskmanager.concurrency.rejected").tag("kind", "read").counter().count());
+        assertEquals(0, meterRegistry.get("taskmanager.concurrency.rejected").tag("kind", "write").counter().count());
+        assertEquals(1, meterRegistry.get("taskmanager.concurrency.limit").tag("kind", "read").gauge().value());
+    }
+
+    @Test
+    void doFilter_RejectingACrossOriginRequest_ShouldSendTheCorsHeaders() throws Exception {
+        assertTrue(readLimit.tryAcquire());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader("Origin", "http://localhost:8081");
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+
+        filter.doFilter(request, rejected, new MockFilterChain());
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("http://localhost:8081", rejected.getHeader("Access-Control-Allow-Origin"));
+        assertEquals("Retry-After", rejected.getHeader("Access-Control-Expose-Headers"));
+        assertEquals("2", rejected.getHeader("Retry-After"));
+
+        MockHttpServletRequest otherOrigin = new MockHttpServletRequest("GET", "/api/tasks");
+        otherOrigin.addHeader("Origin", "http://elsewhere.example");
+        MockHttpServletResponse forbidden = new MockHttpServletResponse();
+        filter.doFilter(otherOrigin, forbidden, new MockFilterChain());
+        assertEquals(403, forbidden.getStatus());
+        assertNull(forbidden.getHeader("Access-Control-Allow-Origin"));
+    }
+
+    @Test
+    void doFilter_ShouldFreeTheSlotWhenTheRequestEnds() throws Exception {
+        perform("GET", "/api/tasks/1", new MockFilterChain());
+
+        assertEquals(0, readLimit.inFlight());
+        assertTrue(readLimit.tryAcquire());
+    }
+
+    @Test
+    void doFilter_ForStreamAndExport_ShouldNotTakeASlot() throws Exception {
+        assertTrue(readLimit.tryAcquire());
+
+        assertEquals(200, perform("GET", "/api/tasks/stream", new MockFilterChain()).getStatus());
+        assertEquals(200, perform("GET", "/api/tasks/export", new MockFilterChain()).getStatus());
+    }
+}
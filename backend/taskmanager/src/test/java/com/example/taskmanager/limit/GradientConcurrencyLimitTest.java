@@ -0,0 +1,79 @@
+package com.example.taskmanager.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GradientConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(50);
+
+    // Fill every slot, then complete them all with the given latency
+    private void saturate(GradientConcurrencyLimit limit, long rttNanos, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            int acquired = 0;
+            while (limit.tryAcquire()) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limit.onSuccess(rttNanos);
+            }
+        }
+    }
+
+    @Test
+    void tryAcquire_AtTheLimit_ShouldRejectUntilASlotIsFreed() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(2, 1, 10);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+
+        limit.onIgnore();
+        assertEquals(1, limit.inFlight());
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    void limit_WhenLatencyRises_ShouldShrinkTowardsTheMinimum() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 4, 100);
+        saturate(limit, FAST, 20);
+        int beforeSlowdown = limit.limit();
+
+        saturate(limit, SLOW, 20);
+
+        assertTrue(limit.limit() < beforeSlowdown / 2,
+                "limit " + limit.limit() + " after slowdown, " + beforeSlowdown + " before");
+        assertTrue(limit.limit() >= 4);
+    }
+
+    @Test
+    void limit_WhenLatencyHolds_ShouldGrowUpToTheMaximum() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(10, 4, 40);
+
+        saturate(limit, FAST, 50);
+
+        assertEquals(40, limit.limit());
+    }
+
+    @Test
+    void limit_WhenMostlyIdle_ShouldNotGrow() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(10, 4, 40);
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.onSuccess(FAST);
+        }
+
+        assertEquals(10, limit.limit());
+    }
+
+    @Test
+    void constructor_WithInconsistentBounds_ShouldReject() {
+        assertThrows(IllegalArgumentException.class, () -> new GradientConcurrencyLimit(10, 0, 20));
+        assertThrows(IllegalArgumentException.class, () -> new GradientConcurrencyLimit(30, 4, 20));
+    }
+}
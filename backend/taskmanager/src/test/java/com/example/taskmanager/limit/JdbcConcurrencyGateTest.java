@@ -0,0 +1,67 @@
+package com.example.taskmanager.limit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class JdbcConcurrencyGateTest {
+
+    private DataSource pool;
+    private JdbcConcurrencyGate gate;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        pool = mock(DataSource.class);
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        gate = new JdbcConcurrencyGate(pool, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    void getConnection_WhenAllPermitsAreTaken_ShouldTimeOutWithoutAskingThePool() throws SQLException {
+        gate.getConnection();
+        gate.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, () -> gate.getConnection());
+        verify(pool, times(2)).getConnection();
+    }
+
+    @Test
+    void close_ShouldReturnThePermitOnceAndCloseTheConnection() throws SQLException {
+        Connection first = gate.getConnection();
+        gate.getConnection();
+
+        first.close();
+        first.close();
+
+        assertEquals(1, gate.availablePermits());
+        assertNotNull(gate.getConnection());
+        assertThrows(SQLTransientConnectionException.class, () -> gate.getConnection());
+    }
+
+    @Test
+    void getConnection_WhenThePoolFails_ShouldReturnThePermit() throws SQLException {
+        when(pool.getConnection()).thenThrow(new SQLTransientConnectionException("Connection is not available"));
+
+        assertThrows(SQLTransientConnectionException.class, () -> gate.getConnection());
+
+        assertEquals(2, gate.availablePermits());
+    }
+
+    @Test
+    void connection_ShouldDelegateOtherCallsAndUnwrapTheGate() throws SQLException {
+        Connection connection = gate.getConnection();
+
+        connection.setAutoCommit(false);
+
+        assertEquals(connection, connection);
+        assertSame(gate, gate.unwrap(JdbcConcurrencyGate.class));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.taskmanager.loadtest;
+
+import com.example.taskmanager.TaskManagerApplication;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+// Stands in for a slow or distant database: every SQL statement holds its connection for an extra delay.
+// Add this class to the sources of an application started in the test, or run main to start one in its own process
+// with the delay from -Dslow-database.delay-ms. Not a @Configuration, so that component scanning in other tests
+// leaves it out.
+public class SlowDatabase {
+
+    private static volatile long statementDelayMillis = Long.getLong("slow-database.delay-ms", 0);
+
+    public static void setStatementDelayMillis(long millis) {
+        statementDelayMillis = millis;
+    }
+
+    // Wraps the data source once more so that each statement sleeps before it runs
+    @Bean
+    static BeanPostProcessor slowDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    return ProxyDataSourceBuilder.create(dataSource).listener(new QueryExecutionListener() {
+                        @Override
+                        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                            sleep(statementDelayMillis);
+                        }
+
+                        @Override
+                        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                        }
+                    }).build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(TaskManagerApplication.class, SlowDatabase.class).run(args);
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
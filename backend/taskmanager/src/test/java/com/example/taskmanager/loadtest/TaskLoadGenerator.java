@@ -0,0 +1,313 @@
+package com.example.taskmanager.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-loop load generator for the /api/tasks endpoints.
+// Requests are started on a fixed schedule whether or not earlier ones have finished, and each latency is
+// measured from the moment its request was due rather than when it was actually sent. A stalled server
+// therefore shows up as queueing in the percentiles instead of silently lowering the offered load
+// (coordinated omission).
+public class TaskLoadGenerator {
+
+    public enum Operation {
+        CREATE,
+        LIST,
+        GET,
+        UPDATE,
+        COMPLETE,
+        DELETE
+    }
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int SEED_BATCH = 1_000;
+
+    private final URI baseUri;
+    private final int rate;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Map<Operation, Integer> mix;
+    private final int seedTasks;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final IdPool ids = new IdPool();
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+
+    public TaskLoadGenerator(String target, int rate, Duration warmup, Duration duration,
+                             Map<Operation, Integer> mix, int seedTasks) {
+        this.baseUri = URI.create(target.replaceAll("/+$", "") + "/api/tasks");
+        this.rate = rate;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.mix = mix;
+        this.seedTasks = seedTasks;
+        for (Operation operation : Operation.values()) {
+            // Microseconds, auto-resizing so a pathological stall is still recorded exactly
+            latencies.put(operation, new ConcurrentHistogram(3));
+            errors.put(operation, new AtomicLong());
+        }
+    }
+
+    // Settings from -Dload.* system properties, falling back to the defaults documented in the test
+    public static TaskLoadGenerator fromSystemProperties(String target) {
+        return new TaskLoadGenerator(
+                target,
+                Integer.getInteger("load.rate", 100),
+                DurationStyle.detectAndParse(System.getProperty("load.warmup", "10s")),
+                DurationStyle.detectAndParse(System.getProperty("load.duration", "30s")),
+                parseMix(System.getProperty("load.mix", "get=40,list=10,create=20,update=15,complete=10,delete=5")),
+                Integer.getInteger("load.seed-tasks", 1_000));
+    }
+
+    // "get=40,list=10,..." into weights; operations left out are never issued
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + entry);
+            }
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(parts[1].trim()));
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("Mix has no positive weights: " + mix);
+        }
+        return weights;
+    }
+
+    // Seed, warm up, measure, and return the report that was also written to the output file
+    public ObjectNode run(Path output) throws IOException, InterruptedException {
+        seed();
+        runPhase(warmup, false);
+        long start = System.nanoTime();
+        runPhase(duration, true);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        ObjectNode report = report(seconds);
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), report);
+        return report;
+    }
+
+    private void seed() throws IOException, InterruptedException {
+        for (int created = 0; created < seedTasks; created += SEED_BATCH) {
+            ArrayNode operations = objectMapper.createArrayNode();
+            for (int i = created; i < Math.min(seedTasks, created + SEED_BATCH); i++) {
+                operations.addObject().put("op", "CREATE").set("task", task("Seed task " + i));
+            }
+            HttpResponse<byte[]> response = client.send(request(URI.create(baseUri + "/_bulk"))
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(operations)))
+                    .build(), HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Seeding failed with status " + response.statusCode());
+            }
+            for (JsonNode result : objectMapper.readTree(response.body())) {
+                ids.add(result.path("task").path("id").asLong());
+            }
+        }
+    }
+
+    private void runPhase(Duration length, boolean record) throws InterruptedException {
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + length.toNanos();
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+        for (long i = 0; ; i++) {
+            long due = start + i * interval;
+            if (due >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.add(fire(pick(), due, record));
+            if (inFlight.size() >= 10_000) {
+                inFlight.removeIf(CompletableFuture::isDone);
+            }
+        }
+        try {
+            CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0]))
+                    .get(REQUEST_TIMEOUT.toSeconds() + 5, TimeUnit.SECONDS);
+        } catch (Exception ex) {
+            // Stragglers were already counted as errors by their own timeout
+        }
+    }
+
+    private Operation pick() {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    private CompletableFuture<?> fire(Operation operation, long due, boolean record) {
+        // Operations on an existing task need one; when every task has been deleted, create instead
+        Long id = switch (operation) {
+            case GET, UPDATE, COMPLETE -> ids.random();
+            case DELETE -> ids.take();
+            default -> null;
+        };
+        if (id == null && operation != Operation.CREATE && operation != Operation.LIST) {
+            operation = Operation.CREATE;
+        }
+
+        HttpRequest request = switch (operation) {
+            case CREATE -> request(baseUri).POST(json(task("Load task"))).build();
+            case LIST -> request(baseUri).GET().build();
+            case GET -> request(URI.create(baseUri + "/" + id)).GET().build();
+            case UPDATE -> request(URI.create(baseUri + "/" + id)).PUT(json(task("Updated load task"))).build();
+            case COMPLETE -> request(URI.create(baseUri + "/complete/" + id))
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody()).build();
+            case DELETE -> request(URI.create(baseUri + "/" + id)).DELETE().build();
+        };
+
+        Operation issued = operation;
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, failure) -> {
+                    long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - due);
+                    boolean failed = failure != null || response.statusCode() >= 400;
+                    if (!failed && issued == Operation.CREATE) {
+                        rememberCreated(response.body());
+                    }
+                    if (record) {
+                        latencies.get(issued).recordValue(micros);
+                        if (failed) {
+                            errors.get(issued).incrementAndGet();
+                        }
+                    }
+                });
+    }
+
+    private void rememberCreated(byte[] body) {
+        try {
+            ids.add(objectMapper.readTree(body).path("id").asLong());
+        } catch (IOException ex) {
+            // An unreadable body only means this task is not reused by later operations
+        }
+    }
+
+    private HttpRequest.Builder request(URI uri) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher json(ObjectNode body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private ObjectNode task(String title) {
+        return objectMapper.createObjectNode()
+                .put("title", title)
+                .put("description", "Generated by the load test")
+                .put("completed", false);
+    }
+
+    private ObjectNode report(double seconds) {
+        ObjectNode report = objectMapper.createObjectNode();
+        report.put("target", baseUri.toString());
+        report.put("offeredRate", rate);
+        report.put("durationSeconds", seconds);
+        ObjectNode weights = report.putObject("mix");
+        mix.forEach((operation, weight) -> weights.put(operation.name(), weight));
+
+        Histogram all = new Histogram(3);
+        long allErrors = 0;
+        ObjectNode operations = report.putObject("operations");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            all.add(histogram);
+            allErrors += errors.get(operation).get();
+            ObjectNode entry = summary(histogram, errors.get(operation).get(), seconds);
+            // Full histogram, so runs can be merged or re-plotted later with HdrHistogram tools
+            ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+            histogram.encodeIntoCompressedByteBuffer(buffer);
+            buffer.flip();
+            byte[] encoded = new byte[buffer.remaining()];
+            buffer.get(encoded);
+            entry.put("histogram", Base64.getEncoder().encodeToString(encoded));
+            operations.set(operation.name(), entry);
+        }
+        report.set("total", summary(all, allErrors, seconds));
+        return report;
+    }
+
+    private ObjectNode summary(Histogram histogram, long errorCount, double seconds) {
+        ObjectNode summary = objectMapper.createObjectNode();
+        summary.put("requests", histogram.getTotalCount());
+        summary.put("errors", errorCount);
+        summary.put("throughput", histogram.getTotalCount() / seconds);
+        summary.put("p50Ms", histogram.getValueAtPercentile(50) / 1000.0);
+        summary.put("p99Ms", histogram.getValueAtPercentile(99) / 1000.0);
+        summary.put("p999Ms", histogram.getValueAtPercentile(99.9) / 1000.0);
+        summary.put("maxMs", histogram.getMaxValue() / 1000.0);
+        return summary;
+    }
+
+    // Ids of tasks known to exist, for the operations that need one
+    private static final class IdPool {
+        private final List<Long> ids = new ArrayList<>();
+
+        synchronized void add(long id) {
+            ids.add(id);
+        }
+
+        synchronized Long random() {
+            return ids.isEmpty() ? null : ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        }
+
+        // Remove and return a random id so no two deletes target the same task
+        synchronized Long take() {
+            if (ids.isEmpty()) {
+                return null;
+            }
+            int index = ThreadLocalRandom.current().nextInt(ids.size());
+            Long id = ids.get(index);
+            ids.set(index, ids.get(ids.size() - 1));
+            ids.remove(ids.size() - 1);
+            return id;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.taskmanager.loadtest;
+
+import com.example.taskmanager.TaskManagerApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Drives the /api/tasks endpoints over HTTP at a fixed arrival rate and writes per-endpoint latency
+// percentiles and throughput to target/load-test-result.json.
+// Run with: ./mvnw test -Pbenchmark -Dtest=TaskLoadTest
+// Options:  -Dload.target=http://localhost:8080   use an already running application instead of starting one
+//           -Dload.rate=100                       requests per second offered
+//           -Dload.warmup=10s -Dload.duration=30s
+//           -Dload.mix=get=40,list=10,create=20,update=15,complete=10,delete=5
+//           -Dload.seed-tasks=1000                tasks created before the run
+//           -Dload.result=target/load-test-result.json
+@Tag("benchmark")
+public class TaskLoadTest {
+
+    @Test
+    void runLoad() throws Exception {
+        String target = System.getProperty("load.target");
+        ConfigurableApplicationContext context = null;
+        if (target == null) {
+            // Arguments override application.properties, so SQL logging is really off during the run
+            context = new SpringApplicationBuilder(TaskManagerApplication.class)
+                    .run(
+                            "--server.port=0",
+                            "--spring.jpa.show-sql=false",
+                            "--logging.level.root=WARN"
+                    );
+            target = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+
+        try {
+            Path output = Path.of(System.getProperty("load.result", "target/load-test-result.json"));
+            ObjectNode report = TaskLoadGenerator.fromSystemProperties(target).run(output);
+
+            System.out.printf("%-9s %9s %7s %10s %9s %9s %9s %9s%n",
+                    "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+            Iterator<Map.Entry<String, JsonNode>> operations = report.path("operations").fields();
+            while (operations.hasNext()) {
+                Map.Entry<String, JsonNode> operation = operations.next();
+                print(operation.getKey(), operation.getValue());
+            }
+            print("TOTAL", report.path("total"));
+            System.out.println("Report written to " + output.toAbsolutePath());
+
+            assertTrue(report.path("total").path("requests").asLong() > 0);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private void print(String name, JsonNode summary) {
+        System.out.printf("%-9s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                name,
+                summary.path("requests").asLong(),
+                summary.path("errors").asLong(),
+                summary.path("throughput").asDouble(),
+                summary.path("p50Ms").asDouble(),
+                summary.path("p99Ms").asDouble(),
+                summary.path("p999Ms").asDouble(),
+                summary.path("maxMs").asDouble());
+    }
+}
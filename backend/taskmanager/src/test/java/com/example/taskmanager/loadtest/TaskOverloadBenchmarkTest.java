@@ -0,0 +1,176 @@
+package com.example.taskmanager.loadtest;
+
+import com.example.taskmanager.TaskManagerApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Many clients reading and creating tasks over HTTP while every SQL statement is made slower, once without and once
+// with the adaptive concurrency limit. Without it, requests queue for the connection pool and latency grows with the
+// number of clients; with it, the excess is turned away with 503 and served requests stay fast.
+// Run with: ./mvnw test -Pbenchmark -Dtest=TaskOverloadBenchmarkTest
+// Options:  -Doverload.clients=128 -Doverload.db-delay-ms=20 -Doverload.duration=10s
+@Tag("benchmark")
+public class TaskOverloadBenchmarkTest {
+
+    private static final int CLIENTS = Integer.getInteger("overload.clients", 128);
+    private static final long DB_DELAY_MILLIS = Long.getLong("overload.db-delay-ms", 20);
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration DURATION = Duration.parse("PT" + System.getProperty("overload.duration", "10s"));
+    // How long a client waits after a 503 before its next request; shorter than Retry-After to keep the pressure on
+    private static final long BACKOFF_MILLIS = 50;
+
+    private record Result(long[] servedNanos, long rejected, double seconds) {
+    }
+
+    @Test
+    void latencyWithAndWithoutTheLimit() throws Exception {
+        Result unlimited = run(false);
+        Result limited = run(true);
+
+        System.out.printf("%d clients, %d ms per statement%n", CLIENTS, DB_DELAY_MILLIS);
+        System.out.printf("%-10s %10s %10s %9s %9s %9s%n", "limit", "served/s", "rejected/s", "p50 ms", "p99 ms", "max ms");
+        print("off", unlimited);
+        print("adaptive", limited);
+
+        assertTrue(percentile(limited.servedNanos(), 0.99) < percentile(unlimited.servedNanos(), 0.99),
+                "p99 of served requests should be lower with the limit");
+    }
+
+    private Result run(boolean limitEnabled) throws Exception {
+        SlowDatabase.setStatementDelayMillis(0);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                TaskManagerApplication.class, SlowDatabase.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:overload-" + limitEnabled,
+                        "--spring.jpa.show-sql=false",
+                        "--taskmanager.sql-log.sample-rate=0",
+                        "--taskmanager.concurrency-limit.enabled=" + limitEnabled,
+                        "--logging.level.root=WARN"
+                );
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            String target = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            for (int i = 0; i < 100; i++) {
+                send(client, create(target));
+            }
+
+            // The limit learns the latency of the fast database first, as it would in production
+            drive(client, clients, target, WARMUP);
+            SlowDatabase.setStatementDelayMillis(DB_DELAY_MILLIS);
+            return drive(client, clients, target, DURATION);
+        } finally {
+            SlowDatabase.setStatementDelayMillis(0);
+            clients.shutdownNow();
+            context.close();
+        }
+    }
+
+    private Result drive(HttpClient client, ExecutorService clients, String target, Duration duration)
+            throws Exception {
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            results.add(clients.submit(() -> {
+                long[] served = new long[1024];
+                int count = 0;
+                long rejected = 0;
+                while (System.nanoTime() < end) {
+                    // Four reads to every create
+                    HttpRequest request = ThreadLocalRandom.current().nextInt(5) == 0
+                            ? create(target)
+                            : HttpRequest.newBuilder(URI.create(target + "/api/tasks?limit=20")).GET().build();
+                    long sent = System.nanoTime();
+                    int status = send(client, request);
+                    long elapsed = System.nanoTime() - sent;
+                    if (status == 503) {
+                        rejected++;
+                        sleep(BACKOFF_MILLIS);
+                        continue;
+                    }
+                    if (count == served.length) {
+                        served = Arrays.copyOf(served, count * 2);
+                    }
+                    served[count++] = elapsed;
+                }
+                // The last slot carries the rejection count
+                long[] out = Arrays.copyOf(served, count + 1);
+                out[count] = rejected;
+                return out;
+            }));
+        }
+        long[] all = new long[0];
+        long rejected = 0;
+        for (Future<long[]> result : results) {
+            long[] perClient = result.get();
+            int served = perClient.length - 1;
+            rejected += perClient[served];
+            all = Arrays.copyOf(all, all.length + served);
+            System.arraycopy(perClient, 0, all, all.length - served, served);
+        }
+        return new Result(all, rejected, (System.nanoTime() - start) / 1e9);
+    }
+
+    private static HttpRequest create(String target) {
+        return HttpRequest.newBuilder(URI.create(target + "/api/tasks"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"Overload\",\"description\":\"Created under load\"}"))
+                .build();
+    }
+
+    private static int send(HttpClient client, HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static void print(String name, Result result) {
+        long[] served = result.servedNanos();
+        System.out.printf("%-10s %10.1f %10.1f %9.1f %9.1f %9.1f%n",
+                name,
+                served.length / result.seconds(),
+                result.rejected() / result.seconds(),
+                percentile(served, 0.50) / 1e6,
+                percentile(served, 0.99) / 1e6,
+                percentile(served, 1.0) / 1e6);
+    }
+
+    private static long percentile(long[] values, double quantile) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.example.taskmanager.loadtest;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Throughput and server memory with thousands of connections open at once, served by Tomcat's platform thread pool
+// and then by virtual threads. Most connections read cached tasks; the rest read pages of tasks from a database that
+// takes a while per statement, so the question is whether the slow reads hold up the fast ones.
+// The application runs in its own process so the client's sockets and threads are not counted.
+// Virtual threads need Java 21: run Maven with a JDK 21 JAVA_HOME, otherwise both runs use the thread pool.
+// Run with: ./mvnw test -Pbenchmark -Dtest=TaskVirtualThreadBenchmarkTest
+// Options:  -Dvt.connections=10000 -Dvt.db-delay-ms=10 -Dvt.warmup=10s -Dvt.duration=20s
+// Server output, with pinned virtual threads traced, goes to target/vt-<mode>.log
+@Tag("benchmark")
+public class TaskVirtualThreadBenchmarkTest {
+
+    private static final int CONNECTIONS = Integer.getInteger("vt.connections", 10_000);
+    private static final long DB_DELAY_MILLIS = Long.getLong("vt.db-delay-ms", 10);
+    private static final Duration WARMUP = Duration.parse("PT" + System.getProperty("vt.warmup", "10s"));
+    private static final Duration DURATION = Duration.parse("PT" + System.getProperty("vt.duration", "20s"));
+    private static final int TASKS = 1000;
+    // One connection in this many reads pages from the database; the others read cached tasks
+    private static final int PAGE_EVERY = 10;
+
+    private record Result(String mode, double seconds, long cached, long pages, long failed, long[] latencyNanos,
+                          long peakRssKb, long peakHeapKb, long peakThreads, long pinned) {
+    }
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        if (Runtime.version().feature() < 21) {
+            System.out.println("Running on Java " + Runtime.version().feature()
+                    + "; virtual threads need 21, so both runs use the platform thread pool");
+        }
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("%,d connections, %d ms per statement, 1 in %d connections reads pages%n",
+                CONNECTIONS, DB_DELAY_MILLIS, PAGE_EVERY);
+        System.out.printf("%-9s %9s %9s %8s %9s %9s %9s %10s %9s %7s%n", "threads", "req/s", "cached/s", "pages/s",
+                "p50 ms", "p99 ms", "RSS MB", "heap MB", "OS thr", "pinned");
+        print(platform);
+        print(virtual);
+
+        assertTrue(platform.cached() + platform.pages() > 0);
+        assertTrue(virtual.cached() + virtual.pages() > 0);
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        Path log = Path.of("target", "vt-" + mode + ".log");
+        Process server = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Xms1g", "-Xmx1g",
+                "-Djdk.tracePinnedThreads=short",
+                "-Dslow-database.delay-ms=" + DB_DELAY_MILLIS,
+                "-cp", System.getProperty("java.class.path"),
+                SlowDatabase.class.getName(),
+                "--server.port=" + port,
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--server.tomcat.max-connections=" + (CONNECTIONS + 1000),
+                "--server.tomcat.accept-count=1000",
+                "--server.tomcat.max-keep-alive-requests=-1",
+                // Compare the threading models alone; the limit would turn most of these connections away
+                "--taskmanager.concurrency-limit.enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--taskmanager.sql-log.sample-rate=0",
+                "--logging.level.root=WARN")
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(4);
+        try {
+            String target = "http://localhost:" + port;
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientExecutor)
+                    .build();
+            awaitStarted(client, target, server);
+            seed(client, target);
+
+            drive(client, target, WARMUP);
+            MemorySampler sampler = new MemorySampler(server.pid());
+            sampler.start();
+            Result result = drive(client, target, DURATION);
+            sampler.interrupt();
+            sampler.join();
+            long pinned = Files.readAllLines(log).stream().filter(line -> line.contains("CarrierThreads]")).count();
+            return new Result(mode, result.seconds(), result.cached(), result.pages(), result.failed(),
+                    result.latencyNanos(), sampler.peakRssKb, sampler.peakHeapKb, sampler.peakThreads, pinned);
+        } finally {
+            server.destroy();
+            server.waitFor(30, TimeUnit.SECONDS);
+            clientExecutor.shutdownNow();
+        }
+    }
+
+    private void awaitStarted(HttpClient client, String target, Process server) throws Exception {
+        HttpRequest health = HttpRequest.newBuilder(URI.create(target + "/actuator/health")).build();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(120);
+        while (System.nanoTime() < deadline) {
+            assertTrue(server.isAlive(), "application exited; see its log under target/");
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException ex) {
+                // Not listening yet
+            }
+            Thread.sleep(500);
+        }
+        fail("application did not start within 120 s");
+    }
+
+    // Creates the tasks, then reads each once so the single-task reads are cache hits
+    private void seed(HttpClient client, String target) {
+        List<CompletableFuture<HttpResponse<Void>>> creates = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            creates.add(client.sendAsync(HttpRequest.newBuilder(URI.create(target + "/api/tasks"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"Task " + i + "\"}"))
+                    .build(), HttpResponse.BodyHandlers.discarding()));
+        }
+        creates.forEach(CompletableFuture::join);
+        List<CompletableFuture<HttpResponse<Void>>> reads = new ArrayList<>();
+        for (int id = 1; id <= TASKS; id++) {
+            reads.add(client.sendAsync(taskRequest(target, id), HttpResponse.BodyHandlers.discarding()));
+        }
+        reads.forEach(CompletableFuture::join);
+    }
+
+    // Every connection sends its next request as soon as the previous one is answered
+    private Result drive(HttpClient client, String target, Duration duration) throws Exception {
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        AtomicLong cached = new AtomicLong();
+        AtomicLong pages = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long[][] latencies = new long[CONNECTIONS][];
+        List<CompletableFuture<Void>> connections = new ArrayList<>();
+        for (int i = 0; i < CONNECTIONS; i++) {
+            Connection connection = new Connection(client, target, i % PAGE_EVERY == 0, end, cached, pages, failed);
+            int index = i;
+            connections.add(connection.next().thenRun(() -> latencies[index] = connection.latencies()));
+        }
+        CompletableFuture.allOf(connections.toArray(CompletableFuture[]::new)).get(10, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).toArray();
+        return new Result(null, seconds, cached.get(), pages.get(), failed.get(), all, 0, 0, 0, 0);
+    }
+
+    private static final class Connection {
+        private final HttpClient client;
+        private final String target;
+        private final boolean page;
+        private final long end;
+        private final AtomicLong cached;
+        private final AtomicLong pages;
+        private final AtomicLong failed;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private long[] latencies = new long[64];
+        private int count;
+
+        Connection(HttpClient client, String target, boolean page, long end,
+                   AtomicLong cached, AtomicLong pages, AtomicLong failed) {
+            this.client = client;
+            this.target = target;
+            this.page = page;
+            this.end = end;
+            this.cached = cached;
+            this.pages = pages;
+            this.failed = failed;
+        }
+
+        CompletableFuture<Void> next() {
+            send();
+            return done;
+        }
+
+        private void send() {
+            if (System.nanoTime() >= end) {
+                done.complete(null);
+                return;
+            }
+            HttpRequest request = page
+                    ? HttpRequest.newBuilder(URI.create(target + "/api/tasks?limit=20")).build()
+                    : taskRequest(target, ThreadLocalRandom.current().nextInt(TASKS) + 1);
+            long sent = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                if (error != null || response.statusCode() != 200) {
+                    failed.incrementAndGet();
+                } else {
+                    (page ? pages : cached).incrementAndGet();
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - sent;
+                }
+                send();
+            });
+        }
+
+        long[] latencies() {
+            return Arrays.copyOf(latencies, count);
+        }
+    }
+
+    // Polls the application's resident memory and OS thread count from /proc and its heap use from jstat
+    private static final class MemorySampler extends Thread {
+        private final long pid;
+        private volatile long peakRssKb;
+        private volatile long peakHeapKb;
+        private volatile long peakThreads;
+
+        MemorySampler(long pid) {
+            this.pid = pid;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (!isInterrupted()) {
+                try {
+                    for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status"))) {
+                        if (line.startsWith("VmRSS:")) {
+                            peakRssKb = Math.max(peakRssKb, Long.parseLong(line.replaceAll("\\D", "")));
+                        } else if (line.startsWith("Threads:")) {
+                            peakThreads = Math.max(peakThreads, Long.parseLong(line.replaceAll("\\D", "")));
+                        }
+                    }
+                    peakHeapKb = Math.max(peakHeapKb, heapUsedKb());
+                    Thread.sleep(500);
+                } catch (InterruptedException ex) {
+                    return;
+                } catch (IOException | RuntimeException ex) {
+                    // No /proc or jstat here; report what could be read
+                    return;
+                }
+            }
+        }
+
+        // Survivor, eden and old generation use in KB from jstat -gc
+        private long heapUsedKb() throws IOException, InterruptedException {
+            Process jstat = new ProcessBuilder(
+                    Path.of(System.getProperty("java.home"), "bin", "jstat").toString(), "-gc", String.valueOf(pid))
+                    .start();
+            List<String> lines = new String(jstat.getInputStream().readAllBytes()).lines().toList();
+            jstat.waitFor();
+            List<String> names = Arrays.asList(lines.get(0).trim().split("\\s+"));
+            String[] values = lines.get(1).trim().split("\\s+");
+            double used = 0;
+            for (String column : List.of("S0U", "S1U", "EU", "OU")) {
+                used += Double.parseDouble(values[names.indexOf(column)]);
+            }
+            return (long) used;
+        }
+    }
+
+    private static HttpRequest taskRequest(String target, int id) {
+        return HttpRequest.newBuilder(URI.create(target + "/api/tasks/" + id)).build();
+    }
+
+    private static void print(Result result) {
+        long[] latencies = result.latencyNanos().clone();
+        Arrays.sort(latencies);
+        System.out.printf("%-9s %9.0f %9.0f %8.0f %9.1f %9.1f %9d %10d %9d %7d%n",
+                result.mode(),
+                (result.cached() + result.pages()) / result.seconds(),
+                result.cached() / result.seconds(),
+                result.pages() / result.seconds(),
+                percentile(latencies, 0.50) / 1e6,
+                percentile(latencies, 0.99) / 1e6,
+                result.peakRssKb() / 1024,
+                result.peakHeapKb() / 1024,
+                result.peakThreads(),
+                result.pinned());
+        if (result.failed() > 0) {
+            System.out.printf("%-9s %,d requests failed%n", result.mode(), result.failed());
+        }
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.taskmanager.metrics;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void dataSource_ShouldBeProxiedForSqlLogging() {
+        assertInstanceOf(ProxyDataSource.class, dataSource);
+    }
+
+    @Test
+    void prometheus_ShouldExposeTimersForEveryLayerAndErrorCounts() throws Exception {
+        mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Measured\",\"completed\":false}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/tasks")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/tasks/{id}", Long.MAX_VALUE)).andExpect(status().isNotFound());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket{"), "controller timers");
+        assertTrue(scrape.contains("uri=\"/api/tasks/{id}\""), "templated uri tag");
+        assertTrue(scrape.contains("taskmanager_service_seconds_bucket{"), "service timers");
+        assertTrue(scrape.contains("method=\"createTask\""), "service method tag");
+        assertTrue(scrape.contains("spring_data_repository_invocations_seconds_bucket{"), "repository timers");
+        assertTrue(scrape.contains("hibernate_statements_total{"), "hibernate statistics");
+        assertTrue(scrape.contains("hibernate_flushes_total{"), "hibernate flushes");
+        assertTrue(scrape.contains("hibernate_statements_per_request_statements_bucket{"), "statements per request");
+        assertTrue(scrape.contains("hikaricp_connections_acquire_seconds_bucket{"), "pool wait times");
+        assertTrue(scrape.contains("taskmanager_http_errors_total{") && scrape.contains("status=\"404\""), "404 count");
+        assertTrue(scrape.contains("taskmanager_concurrency_limit{") && scrape.contains("kind=\"write\""),
+                "concurrency limits");
+        assertTrue(scrape.contains("taskmanager_concurrency_rejected_total{"), "rejection counts");
+    }
+
+    @Test
+    void snapshot_OutsideTheDurableProfile_ShouldNotBeExposed() throws Exception {
+        mockMvc.perform(get("/actuator"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._links.prometheus").exists())
+                .andExpect(jsonPath("$._links.snapshot").doesNotExist());
+    }
+}
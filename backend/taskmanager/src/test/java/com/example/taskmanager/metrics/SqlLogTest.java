@@ -0,0 +1,91 @@
+package com.example.taskmanager.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlLogTest {
+
+    private final BlockingQueue<String> written = new LinkedBlockingQueue<>();
+    private SqlLog sqlLog;
+
+    @AfterEach
+    void tearDown() {
+        sqlLog.shutdown();
+    }
+
+    @Test
+    void statementExecuted_ShouldLogSlowAndFailedStatementsButNotUnsampledFastOnes() throws Exception {
+        sqlLog = new SqlLog(Duration.ofMillis(100), 0, 10, 16, (kind, message) -> written.add(message));
+
+        sqlLog.statementExecuted("select fast", 2, 0, true);
+        sqlLog.statementExecuted("select slow", 250, 0, true);
+        sqlLog.statementExecuted("insert broken", 1, 0, false);
+        sqlLog.statementExecuted("insert batched", 120, 50, true);
+
+        assertEquals("Slow statement 250 ms: select slow", written.poll(5, TimeUnit.SECONDS));
+        assertEquals("Failed statement 1 ms: insert broken", written.poll(5, TimeUnit.SECONDS));
+        assertEquals("Slow statement 120 ms (batch of 50): insert batched", written.poll(5, TimeUnit.SECONDS));
+        assertNull(written.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void statementExecuted_ShouldSampleFastStatements() throws Exception {
+        sqlLog = new SqlLog(Duration.ofMillis(100), 1.0, 10, 16, (kind, message) -> written.add(kind + " " + message));
+
+        sqlLog.statementExecuted("select fast", 2, 0, true);
+
+        assertEquals("SAMPLED Sampled statement 2 ms: select fast", written.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void requestFinished_ShouldFlagSelectRepeatedPastThreshold() throws Exception {
+        sqlLog = new SqlLog(Duration.ofMillis(100), 0, 3, 16, (kind, message) -> written.add(message));
+        SqlStatementCounter counter = new SqlStatementCounter();
+
+        counter.start();
+        counter.inspect("select * from tasks");
+        counter.inspect("select * from tasks where id=?");
+        counter.inspect("select * from tasks where id=?");
+        sqlLog.requestFinished("GET /api/tasks", counter.stop());
+        counter.start();
+        for (int i = 0; i < 3; i++) {
+            counter.inspect("select * from tasks where id=?");
+        }
+        counter.inspect("update tasks set completed=?");
+        sqlLog.requestFinished("GET /api/tasks/search", counter.stop());
+
+        assertEquals("Possible N+1: GET /api/tasks/search ran the same select 3 times (4 statements in total): "
+                + "select * from tasks where id=?", written.poll(5, TimeUnit.SECONDS));
+        assertNull(written.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void statementExecuted_ShouldDropRatherThanBlockWhenBufferIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        sqlLog = new SqlLog(Duration.ZERO, 0, 10, 2, (kind, message) -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            sqlLog.statementExecuted("select " + i, 1, 0, true);
+        }
+        long elapsed = System.nanoTime() - start;
+        release.countDown();
+
+        assertTrue(sqlLog.droppedCount() >= 97, "dropped " + sqlLog.droppedCount());
+        assertTrue(elapsed < TimeUnit.SECONDS.toNanos(1), "offering must not block");
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.taskmanager.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlStatementCounterTest {
+
+    private final SqlStatementCounter counter = new SqlStatementCounter();
+
+    @Test
+    void inspect_ShouldCountOnlyWhileStarted() {
+        counter.inspect("select 1");
+
+        counter.start();
+        counter.inspect("select 1");
+        counter.inspect("insert into tasks values (?)");
+        SqlStatementCounter.Counts counts = counter.stop();
+
+        assertEquals(2, counts.getTotal());
+        counter.inspect("select 1");
+        assertEquals(2, counts.getTotal());
+        assertEquals(0, counter.stop().getTotal());
+    }
+
+    @Test
+    void inspect_ShouldTrackMostRepeatedSelectIgnoringWritesAndSequenceReads() {
+        counter.start();
+        for (int i = 0; i < 5; i++) {
+            counter.inspect("delete from tasks where id=?");
+        }
+        counter.inspect("select * from tasks");
+        for (int i = 0; i < 3; i++) {
+            counter.inspect("select next value for task_id_seq");
+        }
+        counter.inspect("SELECT * from tasks where id=?");
+        counter.inspect("SELECT * from tasks where id=?");
+        SqlStatementCounter.Counts counts = counter.stop();
+
+        assertEquals(11, counts.getTotal());
+        assertEquals("SELECT * from tasks where id=?", counts.getMostRepeatedSelect());
+        assertEquals(2, counts.getMostRepeatedCount());
+
+        counter.start();
+        assertEquals(0, counter.stop().getMostRepeatedCount());
+    }
+}
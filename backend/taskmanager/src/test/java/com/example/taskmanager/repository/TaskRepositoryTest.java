@@ -5,15 +5,35 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import com.example.taskmanager.dto.TaskQuery;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.taskmanager.repository.TaskRepositoryTest$RecordingStatementInspector")
 public class TaskRepositoryTest {
 
+    // Keeps the SQL of every statement Hibernate prepares, so tests can check which columns were read
+    public static class RecordingStatementInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
     @Autowired
     private TestEntityManager entityManager;
 
@@ -111,4 +131,219 @@ public class TaskRepositoryTest {
 
         assertNotNull(updatedTask.getUpdatedAt());
     }
-}
\ No newline at end of file
+
+    @Test
+    void version_ShouldIncrementOnUpdateAndRejectStaleWrites() {
+        Task task = taskRepository.saveAndFlush(Task.builder()
+                .title("Test Task")
+                .description("Test Description")
+                .completed(false)
+                .build());
+        Long initialVersion = task.getVersion();
+        assertNotNull(initialVersion);
+        entityManager.clear();
+
+        Task first = taskRepository.findById(task.getId()).orElseThrow();
+        entityManager.detach(first);
+        Task second = taskRepository.findById(task.getId()).orElseThrow();
+        entityManager.detach(second);
+
+        first.setTitle("First writer");
+        taskRepository.saveAndFlush(first);
+        assertEquals(initialVersion + 1, taskRepository.findVersionById(task.getId()).orElseThrow());
+
+        second.setTitle("Second writer");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> taskRepository.saveAndFlush(second));
+    }
+
+    @Test
+    void completeById_ShouldUpdateAndReturnTheRowInOneStatement() {
+        Task task = Task.builder()
+                .title("Test Task")
+                .description("Test Description")
+                .completed(false)
+                .build();
+        entityManager.persistAndFlush(task);
+        LocalDateTime completedAt = LocalDateTime.of(2030, 1, 1, 12, 0);
+        RecordingStatementInspector.STATEMENTS.clear();
+
+        Optional<Task> completed = taskRepository.completeById(task.getId(), completedAt);
+
+        assertEquals(1, RecordingStatementInspector.STATEMENTS.size());
+        assertTrue(completed.isPresent());
+        assertTrue(completed.get().isCompleted());
+        assertEquals("Test Description", completed.get().getDescription());
+        assertEquals(completedAt, completed.get().getUpdatedAt());
+        assertEquals(task.getVersion() + 1, completed.get().getVersion());
+        assertTrue(taskRepository.completeById(task.getId(), completedAt.plusHours(1)).isEmpty());
+        assertTrue(taskRepository.completeById(-1L, completedAt).isEmpty());
+
+        entityManager.clear();
+        Task stored = entityManager.find(Task.class, task.getId());
+        assertTrue(stored.isCompleted());
+        assertEquals(completedAt, stored.getUpdatedAt());
+        assertEquals(task.getVersion() + 1, stored.getVersion());
+    }
+
+    @Test
+    void findByUpdatedAtAfter_ShouldReturnOnlyLaterWritesInOrder() {
+        Task older = Task.builder().title("Older").completed(false).build();
+        Task newer = Task.builder().title("Newer").completed(false).build();
+        entityManager.persist(older);
+        entityManager.persistAndFlush(newer);
+        LocalDateTime watermark = LocalDateTime.of(2030, 1, 1, 12, 0);
+        taskRepository.completeById(newer.getId(), watermark.plusMinutes(2));
+        taskRepository.completeById(older.getId(), watermark.plusMinutes(1));
+
+        List<Task> changed = taskRepository.findByUpdatedAtAfterOrderByUpdatedAtAscIdAsc(watermark);
+
+        assertEquals(List.of(older.getId(), newer.getId()), changed.stream().map(Task::getId).toList());
+        assertTrue(taskRepository.findByUpdatedAtAfterOrderByUpdatedAtAscIdAsc(watermark.plusMinutes(2)).isEmpty());
+    }
+
+    @Test
+    void countByCompleted_ShouldCountCompletedFlags() {
+        Task open = Task.builder().title("Open").completed(false).build();
+        Task done = Task.builder().title("Done").completed(true).build();
+        entityManager.persist(open);
+        entityManager.persistAndFlush(done);
+
+        assertEquals(1, taskRepository.countByCompleted(false));
+        assertEquals(1, taskRepository.countByCompleted(true));
+    }
+
+    @Test
+    void findSummaries_ShouldNotSelectTheDescription() {
+        for (int i = 0; i < 3; i++) {
+            entityManager.persist(Task.builder()
+                    .title("Task " + i)
+                    .description("A long description " + i)
+                    .completed(i == 1)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        RecordingStatementInspector.STATEMENTS.clear();
+
+        List<TaskSummary> summaries = taskRepository.findSummaries(
+                TaskSpecifications.matching(TaskQuery.builder().completed(false).build()),
+                Sort.by(Sort.Direction.DESC, "id"), 10);
+        Optional<TaskSummary> single = taskRepository.findSummaryById(summaries.get(0).id());
+
+        assertEquals(List.of("Task 2", "Task 0"), summaries.stream().map(TaskSummary::title).toList());
+        assertEquals("Task 2", single.orElseThrow().title());
+        assertEquals(2, RecordingStatementInspector.STATEMENTS.size());
+        for (String sql : RecordingStatementInspector.STATEMENTS) {
+            assertTrue(sql.contains("title"), sql);
+            assertFalse(sql.contains("description"), sql);
+        }
+    }
+
+    @Test
+    void removeByIdAndCompleted_ShouldDeleteOnlyWhenTheFlagMatches() {
+        Task task = Task.builder()
+                .title("Test Task")
+                .description("Test Description")
+                .completed(true)
+                .build();
+        entityManager.persistAndFlush(task);
+
+        assertEquals(0, taskRepository.removeByIdAndCompleted(task.getId(), false));
+        assertEquals(1, taskRepository.removeByIdAndCompleted(task.getId(), true));
+        assertEquals(0, taskRepository.removeByIdAndCompleted(task.getId(), true));
+        assertNull(entityManager.find(Task.class, task.getId()));
+    }
+
+    @Test
+    void keysetQueries_ShouldWalkTasksInIdOrder() {
+        for (int i = 0; i < 5; i++) {
+            entityManager.persist(Task.builder()
+                    .title("Task " + i)
+                    .description("Description " + i)
+                    .completed(false)
+                    .build());
+        }
+        entityManager.flush();
+        Sort byId = Sort.by("id");
+        TaskSpecification all = TaskSpecifications.matching(new TaskQuery());
+
+        List<Task> firstPage = taskRepository.findTasks(all, byId, 2);
+        assertEquals(2, firstPage.size());
+        assertTrue(firstPage.get(0).getId() < firstPage.get(1).getId());
+
+        TaskSpecification afterFirst = all.and(TaskSpecifications.after("id", false, null, firstPage.get(1).getId()));
+        List<Task> secondPage = taskRepository.findTasks(afterFirst, byId, 2);
+        assertEquals(2, secondPage.size());
+        assertTrue(secondPage.get(0).getId() > firstPage.get(1).getId());
+
+        TaskSpecification afterSecond = all.and(TaskSpecifications.after("id", false, null, secondPage.get(1).getId()));
+        List<Task> lastPage = taskRepository.findTasks(afterSecond, byId, 2);
+        assertEquals(1, lastPage.size());
+    }
+
+    @Test
+    void keysetQueries_ShouldWalkOpenTasksNewestFirstAcrossEqualTimestamps() {
+        LocalDateTime sameInstant = LocalDateTime.of(2030, 1, 1, 12, 0);
+        for (int i = 0; i < 6; i++) {
+            Task task = Task.builder()
+                    .title("Task " + i)
+                    .description("Description " + i)
+                    .completed(i == 5)
+                    .build();
+            entityManager.persist(task);
+        }
+        entityManager.flush();
+        // Give several rows the same updatedAt so the id tie-breaker matters
+        entityManager.getEntityManager()
+                .createQuery("update Task t set t.updatedAt = :updatedAt")
+                .setParameter("updatedAt", sameInstant)
+                .executeUpdate();
+        entityManager.clear();
+
+        Sort newestFirst = Sort.by(Sort.Direction.DESC, "updatedAt", "id");
+        TaskSpecification open = TaskSpecifications.matching(TaskQuery.builder().completed(false).build());
+        List<Long> seen = new ArrayList<>();
+        TaskSpecification spec = open;
+        while (true) {
+            List<Task> page = taskRepository.findTasks(spec, newestFirst, 2);
+            page.forEach(task -> seen.add(task.getId()));
+            if (page.size() < 2) {
+                break;
+            }
+            Task last = page.get(page.size() - 1);
+            spec = open.and(TaskSpecifications.after("updatedAt", true, last.getUpdatedAt(), last.getId()));
+        }
+
+        assertEquals(5, seen.size());
+        for (int i = 1; i < seen.size(); i++) {
+            assertTrue(seen.get(i - 1) > seen.get(i));
+        }
+    }
+
+    @Test
+    void openTasksNewestFirst_ShouldBeServedByCompositeIndex() {
+        String plan = (String) entityManager.getEntityManager()
+                .createNativeQuery("EXPLAIN SELECT * FROM tasks WHERE completed = FALSE ORDER BY updated_at DESC, id DESC")
+                .getSingleResult();
+
+        assertTrue(plan.toUpperCase().contains("IDX_TASKS_COMPLETED_UPDATED_AT_ID"), plan);
+    }
+
+    @Test
+    void streamAllByOrderByIdAsc_ShouldStreamEveryTask() {
+        for (int i = 0; i < 3; i++) {
+            entityManager.persist(Task.builder()
+                    .title("Task " + i)
+                    .description("Description " + i)
+                    .completed(false)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        try (Stream<Task> tasks = taskRepository.streamAllByOrderByIdAsc()) {
+            List<String> titles = tasks.map(Task::getTitle).toList();
+            assertEquals(List.of("Task 0", "Task 1", "Task 2"), titles);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.model.TaskTombstone;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class TaskTombstoneRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Test
+    void findByDeletedAtAfter_ShouldReturnLaterTombstonesAndPruneShouldDropOlderOnes() {
+        LocalDateTime watermark = LocalDateTime.of(2030, 1, 1, 12, 0);
+        entityManager.persist(new TaskTombstone(1L, watermark.minusDays(10)));
+        entityManager.persist(new TaskTombstone(2L, watermark.plusMinutes(2)));
+        entityManager.persistAndFlush(new TaskTombstone(3L, watermark.plusMinutes(1)));
+
+        List<TaskTombstone> later = taskTombstoneRepository.findByDeletedAtAfterOrderByDeletedAtAsc(watermark);
+        assertEquals(List.of(3L, 2L), later.stream().map(TaskTombstone::getTaskId).toList());
+
+        assertEquals(1, taskTombstoneRepository.removeByDeletedAtBefore(watermark.minusDays(7)));
+        assertEquals(2, taskTombstoneRepository.count());
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.taskmanager.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InFlightWritesTest {
+
+    @Test
+    void oldestStartOr_WithNothingInFlight_ShouldReturnTheGivenTime() {
+        InFlightWrites writes = new InFlightWrites();
+        LocalDateTime now = LocalDateTime.now();
+
+        assertEquals(now, writes.oldestStartOr(now));
+    }
+
+    @Test
+    void oldestStartOr_ShouldReturnTheStartOfTheOldestWriteUntilItEnds() throws Exception {
+        InFlightWrites writes = new InFlightWrites();
+        LocalDateTime beforeFirst = LocalDateTime.now();
+        long first = writes.begin();
+        Thread.sleep(5);
+        LocalDateTime beforeSecond = LocalDateTime.now();
+        long second = writes.begin();
+        Thread.sleep(5);
+        LocalDateTime later = LocalDateTime.now();
+
+        LocalDateTime oldest = writes.oldestStartOr(later);
+        assertFalse(oldest.isBefore(beforeFirst));
+        assertTrue(oldest.isBefore(beforeSecond));
+
+        writes.end(first);
+        LocalDateTime remaining = writes.oldestStartOr(later);
+        assertFalse(remaining.isBefore(beforeSecond));
+        assertTrue(remaining.isBefore(later));
+
+        writes.end(second);
+        assertEquals(later, writes.oldestStartOr(later));
+    }
+}
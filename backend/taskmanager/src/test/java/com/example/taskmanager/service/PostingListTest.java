@@ -0,0 +1,54 @@
+package com.example.taskmanager.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PostingListTest {
+
+    @Test
+    void putGetRemove_ShouldBehaveLikeAMap() {
+        PostingList list = new PostingList();
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20_000; i++) {
+            long id = random.nextInt(2_000) + 1;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(id) != null, list.remove(id));
+            } else {
+                int freq = random.nextInt(10) + 1;
+                expected.put(id, freq);
+                list.put(id, freq);
+            }
+        }
+
+        assertEquals(expected.size(), list.size());
+        for (long id = 1; id <= 2_000; id++) {
+            assertEquals(expected.getOrDefault(id, 0), list.get(id));
+        }
+        Map<Long, Integer> visited = new HashMap<>();
+        list.forEach((id, freq) -> {
+            visited.put(id, freq);
+            return true;
+        });
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    void forEach_ShouldStopWhenVisitorReturnsFalse() {
+        PostingList list = new PostingList();
+        for (long id = 1; id <= 10; id++) {
+            list.put(id, 1);
+        }
+        int[] visits = {0};
+
+        list.forEach((id, freq) -> ++visits[0] < 3);
+
+        assertEquals(3, visits[0]);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.taskmanager.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    @Test
+    void load_WhileTheSameKeyIsLoading_ShouldShareTheResult() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> flights.load("tasks", () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return "loaded";
+        }));
+        loading.await();
+        Thread waiter = new Thread(() -> assertEquals("loaded", flights.load("tasks", () -> {
+            loads.incrementAndGet();
+            return "loaded again";
+        })));
+        waiter.start();
+        // Let the second caller park on the running load before it finishes
+        while (waiter.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        waiter.join();
+
+        assertEquals("loaded", first.get());
+        assertEquals(1, loads.get());
+        assertEquals(0, flights.inFlight());
+    }
+
+    @Test
+    void load_ForDifferentKeys_ShouldNotWaitForEachOther() {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+
+        String outer = flights.load("all", () -> flights.load("completed", () -> "inner") + " then outer");
+
+        assertEquals("inner then outer", outer);
+    }
+
+    @Test
+    void load_AfterTheLoadFailed_ShouldRethrowAndLoadAgain() {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+
+        assertThrows(IllegalArgumentException.class, () -> flights.load("tasks", () -> {
+            throw new IllegalArgumentException("Unknown sort field");
+        }));
+
+        assertEquals(0, flights.inFlight());
+        assertEquals("loaded", flights.load("tasks", () -> "loaded"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
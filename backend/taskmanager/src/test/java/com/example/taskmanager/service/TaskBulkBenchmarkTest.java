@@ -0,0 +1,95 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.BulkItemResult;
+import com.example.taskmanager.dto.BulkOperation;
+import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Compares the bulk path with one createTask/markTaskAsCompleted call per task.
+// Run with: ./mvnw test -Pbenchmark
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class TaskBulkBenchmarkTest {
+
+    private static final int TASKS = 5_000;
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void bulkVersusSingleCalls() {
+        // Warm up both paths so the JIT and connection pool are settled
+        runSingle();
+        runBulk();
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            long single = runSingle();
+            long bulk = runBulk();
+            System.out.printf("round %d: single %,.0f ops/s, bulk %,.0f ops/s (%.1fx)%n",
+                    round, opsPerSecond(single), opsPerSecond(bulk), (double) single / bulk);
+        }
+    }
+
+    // Returns elapsed nanos for TASKS creates followed by TASKS completes
+    private long runSingle() {
+        taskRepository.deleteAllInBatch();
+        long start = System.nanoTime();
+        List<Long> ids = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            ids.add(taskService.createTask(newTask(i)).getId());
+        }
+        for (Long id : ids) {
+            taskService.markTaskAsCompleted(id);
+        }
+        long elapsed = System.nanoTime() - start;
+        assertEquals(TASKS, taskRepository.count());
+        return elapsed;
+    }
+
+    private long runBulk() {
+        taskRepository.deleteAllInBatch();
+        long start = System.nanoTime();
+        List<BulkOperation> creates = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            creates.add(BulkOperation.builder().op(BulkOperation.Type.CREATE).task(newTask(i)).build());
+        }
+        List<BulkOperation> completes = new ArrayList<>(TASKS);
+        for (BulkItemResult result : taskService.bulk(creates)) {
+            completes.add(BulkOperation.builder().op(BulkOperation.Type.COMPLETE).id(result.getTask().getId()).build());
+        }
+        List<BulkItemResult> results = taskService.bulk(completes);
+        long elapsed = System.nanoTime() - start;
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == 200));
+        return elapsed;
+    }
+
+    private TaskDto newTask(int i) {
+        return TaskDto.builder()
+                .title("Task " + i)
+                .description("Benchmark task " + i)
+                .build();
+    }
+
+    private double opsPerSecond(long nanos) {
+        return 2.0 * TASKS / (nanos / 1_000_000_000.0);
+    }
+}
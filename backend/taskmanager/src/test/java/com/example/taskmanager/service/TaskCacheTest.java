@@ -0,0 +1,105 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.CacheStatsDto;
+import com.example.taskmanager.dto.TaskDto;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskCacheTest {
+
+    private TaskDto task(long id) {
+        return TaskDto.builder()
+                .id(id)
+                .title("Task " + id)
+                .build();
+    }
+
+    @Test
+    void get_ShouldLoadOnceAndCountHitsAndMisses() {
+        TaskCache cache = new TaskCache(10, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return task(id);
+        });
+        TaskDto cached = cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return task(id);
+        });
+
+        assertEquals(1L, cached.getId());
+        assertEquals(1, loads.get());
+        CacheStatsDto stats = cache.stats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    void get_WhenLoaderThrows_ShouldNotCacheAnything() {
+        TaskCache cache = new TaskCache(10, Duration.ofMinutes(1));
+
+        assertThrows(EntityNotFoundException.class, () -> cache.get(1L, id -> {
+            throw new EntityNotFoundException("Task not found with id: " + id);
+        }));
+
+        assertEquals(0, cache.stats().getSize());
+    }
+
+    @Test
+    void invalidate_ShouldForceReload() {
+        TaskCache cache = new TaskCache(10, Duration.ofMinutes(1));
+        cache.put(task(1L));
+
+        cache.invalidate(1L);
+        TaskDto reloaded = cache.get(1L, id -> TaskDto.builder().id(id).title("Reloaded").build());
+
+        assertEquals("Reloaded", reloaded.getTitle());
+    }
+
+    @Test
+    void get_WhenInvalidatedDuringTheLoad_ShouldNotKeepTheStaleResult() {
+        TaskCache cache = new TaskCache(10, Duration.ofMinutes(1));
+
+        TaskDto loaded = cache.get(1L, id -> {
+            // A writer commits and invalidates while this load is still reading
+            cache.invalidate(id);
+            return TaskDto.builder().id(id).title("Stale").build();
+        });
+        TaskDto reloaded = cache.get(1L, id -> TaskDto.builder().id(id).title("Fresh").build());
+
+        assertEquals("Stale", loaded.getTitle());
+        assertEquals("Fresh", reloaded.getTitle());
+    }
+
+    @Test
+    void peek_ShouldNotWaitForALoadInProgress() {
+        TaskCache cache = new TaskCache(10, Duration.ofMinutes(1));
+
+        TaskDto seenDuringLoad = cache.get(1L, id -> {
+            assertNull(cache.peek(id));
+            return task(id);
+        });
+
+        assertEquals(seenDuringLoad, cache.peek(1L));
+    }
+
+    @Test
+    void maximumSize_ShouldEvictAndCountEvictions() {
+        TaskCache cache = new TaskCache(5, Duration.ofMinutes(1));
+
+        for (long id = 0; id < 50; id++) {
+            cache.get(id, this::task);
+        }
+        cache.cleanUp();
+
+        CacheStatsDto stats = cache.stats();
+        assertTrue(stats.getSize() <= 5);
+        assertTrue(stats.getEvictions() >= 45);
+    }
+}
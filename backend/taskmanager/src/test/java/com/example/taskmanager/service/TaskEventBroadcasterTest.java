@@ -0,0 +1,166 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.dto.TaskEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskEventBroadcasterTest {
+
+    private static final int QUEUE_CAPACITY = 4;
+
+    private TaskEventBroadcaster broadcaster;
+
+    // Records the frames it is sent instead of writing them to a response
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+        private final List<byte[]> writes = new CopyOnWriteArrayList<>();
+        private final CountDownLatch received;
+
+        RecordingEmitter(int expectedFrames) {
+            this.received = new CountDownLatch(expectedFrames);
+        }
+
+        @Override
+        public void send(Set<ResponseBodyEmitter.DataWithMediaType> items) {
+            for (ResponseBodyEmitter.DataWithMediaType item : items) {
+                byte[] data = (byte[]) item.getData();
+                writes.add(data);
+                for (String frame : new String(data, StandardCharsets.UTF_8).split("(?<=\n\n)")) {
+                    frames.add(frame);
+                    received.countDown();
+                }
+            }
+        }
+
+        void await() throws InterruptedException {
+            assertTrue(received.await(5, TimeUnit.SECONDS), "expected frames did not arrive");
+        }
+    }
+
+    // Blocks in send like a client that stopped reading
+    private static class StalledEmitter extends SseEmitter {
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void send(Set<ResponseBodyEmitter.DataWithMediaType> items) {
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new TaskEventBroadcaster(new ObjectMapper().findAndRegisterModules(), QUEUE_CAPACITY, 2,
+                Duration.ofMinutes(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void subscribe_ShouldUseTheStreamTimeout() {
+        assertEquals(Duration.ofMinutes(30).toMillis(), broadcaster.subscribe().getTimeout());
+    }
+
+    @Test
+    void onTaskEvent_ShouldSendOneSharedFrameToEverySubscriber() throws Exception {
+        RecordingEmitter first = new RecordingEmitter(2);
+        RecordingEmitter second = new RecordingEmitter(2);
+        broadcaster.subscribe(first);
+        broadcaster.subscribe(second);
+
+        broadcaster.onTaskEvent(changed(7L));
+        first.await();
+        second.await();
+
+        // Frame 0 is the heartbeat sent on subscribe
+        String frame = first.frames.get(1);
+        assertEquals(frame, second.frames.get(1));
+        assertTrue(frame.startsWith("id:1\nevent:changed\ndata:{"), frame);
+        assertTrue(frame.contains("\"id\":7"), frame);
+        assertTrue(frame.endsWith("\n\n"), frame);
+    }
+
+    @Test
+    void onTaskEvent_ShouldDropSubscriberThatFallsBehind() throws Exception {
+        StalledEmitter stalled = new StalledEmitter();
+        RecordingEmitter healthy = new RecordingEmitter(1 + QUEUE_CAPACITY * 3);
+        broadcaster.subscribe(stalled);
+        broadcaster.subscribe(healthy);
+
+        for (long id = 1; id <= QUEUE_CAPACITY * 3; id++) {
+            broadcaster.onTaskEvent(changed(id));
+            // Let the healthy subscriber keep up so only the stalled one overflows
+            Thread.sleep(5);
+        }
+        healthy.await();
+
+        assertEquals(1, broadcaster.droppedCount());
+        assertEquals(1, broadcaster.subscriberCount());
+        stalled.release.countDown();
+    }
+
+    @Test
+    void onTaskEvent_ShouldSendTheSameEncodedBytesToEverySubscriber() throws Exception {
+        RecordingEmitter first = new RecordingEmitter(1);
+        RecordingEmitter second = new RecordingEmitter(1);
+        broadcaster.subscribe(first);
+        broadcaster.subscribe(second);
+        first.await();
+        second.await();
+
+        broadcaster.onTaskEvent(changed(7L));
+        waitForWrites(first, 2);
+        waitForWrites(second, 2);
+
+        // Nothing else was queued, so both subscribers were handed the one array encoded for the event
+        assertSame(first.writes.get(1), second.writes.get(1));
+    }
+
+    @Test
+    void sendHeartbeat_ShouldReachSubscribers() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter(2);
+        broadcaster.subscribe(emitter);
+
+        broadcaster.sendHeartbeat();
+        emitter.await();
+
+        assertEquals(":heartbeat\n\n", emitter.frames.get(1));
+    }
+
+    private void waitForWrites(RecordingEmitter emitter, int writes) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (emitter.writes.size() < writes) {
+            assertTrue(System.nanoTime() < deadline, "expected writes did not arrive");
+            Thread.sleep(1);
+        }
+    }
+
+    private TaskEvent changed(Long id) {
+        return TaskEvent.builder()
+                .type(TaskEvent.Type.CHANGED)
+                .id(id)
+                .task(TaskDto.builder().id(id).title("Task " + id).build())
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.exception.IdempotencyKeyReusedException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskIdempotencyStoreTest {
+
+    private final TaskDto request = TaskDto.builder().title("New Task").build();
+
+    private TaskDto created(long id) {
+        return TaskDto.builder()
+                .id(id)
+                .title("New Task")
+                .version(0L)
+                .build();
+    }
+
+    @Test
+    void create_ConcurrentDuplicates_ShouldInsertOnce() throws Exception {
+        TaskIdempotencyStore store = new TaskIdempotencyStore(10, Duration.ofMinutes(1));
+        AtomicInteger inserts = new AtomicInteger();
+        CountDownLatch insertStarted = new CountDownLatch(1);
+        CountDownLatch releaseInsert = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<TaskDto>> results = new ArrayList<>();
+            results.add(callers.submit(() -> store.create("k1", request, () -> {
+                insertStarted.countDown();
+                await(releaseInsert);
+                return created(inserts.incrementAndGet());
+            })));
+            assertTrue(insertStarted.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                results.add(callers.submit(() -> store.create("k1", request,
+                        () -> created(inserts.incrementAndGet()))));
+            }
+            releaseInsert.countDown();
+
+            for (Future<TaskDto> result : results) {
+                assertEquals(1L, result.get(5, TimeUnit.SECONDS).getId());
+            }
+            assertEquals(1, inserts.get());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void create_AfterFailure_ShouldRunAgain() {
+        TaskIdempotencyStore store = new TaskIdempotencyStore(10, Duration.ofMinutes(1));
+
+        assertThrows(IllegalStateException.class, () -> store.create("k1", request, () -> {
+            throw new IllegalStateException("Connection is not available");
+        }));
+        TaskDto retried = store.create("k1", request, () -> created(2L));
+
+        assertEquals(2L, retried.getId());
+    }
+
+    @Test
+    void create_WithKeyOfAnotherRequestOrInvalidKey_ShouldReject() {
+        TaskIdempotencyStore store = new TaskIdempotencyStore(10, Duration.ofMinutes(1));
+        store.create("k1", request, () -> created(1L));
+        TaskDto other = TaskDto.builder().title("Other Task").build();
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> store.create("k1", other, () -> created(2L)));
+        assertThrows(IllegalArgumentException.class, () -> store.create(" ", request, () -> created(3L)));
+        assertThrows(IllegalArgumentException.class, () -> store.create(
+                "k".repeat(TaskIdempotencyStore.MAX_KEY_LENGTH + 1), request, () -> created(4L)));
+    }
+
+    @Test
+    void maximumSize_ShouldBoundTheKeysKept() {
+        TaskIdempotencyStore store = new TaskIdempotencyStore(5, Duration.ofMinutes(1));
+
+        for (long id = 0; id < 50; id++) {
+            long taskId = id;
+            store.create("key-" + id, request, () -> created(taskId));
+        }
+        store.cleanUp();
+
+        assertTrue(store.size() <= 5);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
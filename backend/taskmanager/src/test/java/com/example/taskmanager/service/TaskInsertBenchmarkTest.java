@@ -0,0 +1,69 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.BulkItemResult;
+import com.example.taskmanager.dto.BulkOperation;
+import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.repository.TaskRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Measures insert throughput through the bulk path, where key generation decides whether inserts batch.
+// Run with: ./mvnw test -Pbenchmark
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class TaskInsertBenchmarkTest {
+
+    private static final int TASKS = 10_000;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void bulkInsertThroughput() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<BulkOperation> creates = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            TaskDto task = TaskDto.builder()
+                    .title("Task " + i)
+                    .description("Benchmark task " + i)
+                    .build();
+            creates.add(BulkOperation.builder().op(BulkOperation.Type.CREATE).task(task).build());
+        }
+
+        // Warm-up round
+        taskService.bulk(creates);
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            taskRepository.deleteAllInBatch();
+            statistics.clear();
+
+            long start = System.nanoTime();
+            List<BulkItemResult> results = taskService.bulk(creates);
+            long elapsed = System.nanoTime() - start;
+
+            assertTrue(results.stream().allMatch(result -> result.getStatus() == 201));
+            System.out.printf("round %d: %,.0f inserts/s, %,d JDBC statements prepared%n",
+                    round, TASKS / (elapsed / 1_000_000_000.0), statistics.getPrepareStatementCount());
+        }
+    }
+}
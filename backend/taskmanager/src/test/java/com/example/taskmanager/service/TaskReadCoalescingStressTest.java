@@ -0,0 +1,135 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.dto.TaskQuery;
+import com.example.taskmanager.loadtest.SlowDatabase;
+import com.example.taskmanager.repository.TaskRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Bursts of identical reads arriving together while every SQL statement is slow. Each burst should cost about one
+// query however many callers it has, where reading the repository directly costs one per caller.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:coalescing",
+        "spring.jpa.show-sql=false",
+        "taskmanager.sql-log.sample-rate=0"
+})
+@Import(SlowDatabase.class)
+public class TaskReadCoalescingStressTest {
+
+    private static final int[] CALLERS = {1, 16, 64, 256};
+    private static final int BURSTS = 3;
+    private static final long DB_DELAY_MILLIS = 100;
+    private static final int TASKS = 200;
+
+    private static ExecutorService callers;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskCache taskCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeAll
+    static void startCallers() {
+        callers = Executors.newFixedThreadPool(CALLERS[CALLERS.length - 1]);
+    }
+
+    @AfterAll
+    static void stopCallers() {
+        callers.shutdownNow();
+    }
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (taskRepository.count() == 0) {
+            for (int i = 0; i < TASKS; i++) {
+                taskService.createTask(TaskDto.builder().title("Task " + i).description("Read in bursts").build());
+            }
+        }
+        SlowDatabase.setStatementDelayMillis(DB_DELAY_MILLIS);
+    }
+
+    @AfterEach
+    void restoreDatabaseSpeed() {
+        SlowDatabase.setStatementDelayMillis(0);
+    }
+
+    @Test
+    void concurrentListReads_ShouldShareOneQueryPerBurst() throws Exception {
+        TaskQuery query = TaskQuery.builder().sort("updatedAt,desc").build();
+
+        System.out.printf("%d ms per statement, statements per burst of list reads%n", DB_DELAY_MILLIS);
+        System.out.printf("%8s %12s %12s%n", "callers", "repository", "service");
+        for (int count : CALLERS) {
+            long direct = burst(count, () -> taskRepository.findAll());
+            long shared = 0;
+            for (int i = 0; i < BURSTS; i++) {
+                long statements = burst(count, () -> assertEquals(TASKS, taskService.getAllTasks(query).size()));
+                assertTrue(statements <= 2, count + " callers ran " + statements + " statements in one burst");
+                shared = Math.max(shared, statements);
+            }
+            System.out.printf("%8d %12d %12d%n", count, direct, shared);
+            assertEquals(count, direct);
+        }
+    }
+
+    @Test
+    void concurrentReadsOfOneTask_ShouldShareOneQueryPerBurst() throws Exception {
+        Long id = taskRepository.findAll().get(0).getId();
+
+        for (int count : CALLERS) {
+            for (int i = 0; i < BURSTS; i++) {
+                taskCache.invalidate(id);
+                long statements = burst(count, () -> assertEquals(id, taskService.getTaskById(id).getId()));
+                assertTrue(statements <= 2, count + " callers ran " + statements + " statements in one burst");
+            }
+        }
+    }
+
+    // Release the callers together and count the statements they cause
+    private long burst(int count, Runnable read) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> reads = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            reads.add(callers.submit(() -> {
+                start.await();
+                read.run();
+                return null;
+            }));
+        }
+        statistics.clear();
+        start.countDown();
+        for (Future<?> future : reads) {
+            future.get();
+        }
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.TaskManagerApplication;
+import com.example.taskmanager.dto.SnapshotResult;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Measures how long a node takes to come back with a large dataset: reopening the durable file store,
+// and restoring a snapshot into a fresh in-memory database. "Started" is when the context is up and
+// serving; "ready" also includes rebuilding the search index over every task.
+// Run with: ./mvnw test -Pbenchmark -Dtest=TaskRestartBenchmarkTest -DargLine="-Xms3g -Xmx3g -XX:MaxTenuringThreshold=0"
+// [-Drestart.tasks=1000000]
+// Size the heap up front: growing it from the default while a million rows load costs more than the load itself.
+// Restored rows all stay live, so tenure them at once instead of copying them between survivor spaces.
+@Tag("benchmark")
+public class TaskRestartBenchmarkTest {
+
+    private static final int TASKS = Integer.getInteger("restart.tasks", 1_000_000);
+
+    @TempDir
+    private Path workDir;
+
+    @Test
+    void restartTimes() {
+        Path dataDir = workDir.resolve("data");
+        Path snapshotDir = workDir.resolve("snapshots");
+        System.out.printf("%-36s %12s %12s%n", "step", "started ms", "ready ms");
+
+        SnapshotResult snapshot;
+        try (ConfigurableApplicationContext context = start(new long[1], durable(dataDir, snapshotDir))) {
+            long seedStart = System.nanoTime();
+            seed(context.getBean(DataSource.class));
+            print("seed " + TASKS + " tasks (SQL)", millisSince(seedStart), -1);
+            snapshot = context.getBean(TaskSnapshotService.class).snapshot();
+            print("online snapshot", snapshot.getMillis(), -1);
+        }
+
+        long[] started = new long[1];
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = start(started, durable(dataDir, snapshotDir))) {
+            long ready = System.nanoTime();
+            assertEquals(TASKS, context.getBean(TaskSearchIndex.class).size());
+            print("restart, durable file store", (started[0] - start) / 1_000_000, (ready - start) / 1_000_000);
+        }
+
+        start = System.nanoTime();
+        try (ConfigurableApplicationContext context = start(started,
+                "--spring.datasource.url=jdbc:h2:mem:restart-benchmark",
+                "--taskmanager.snapshot.dir=" + snapshotDir,
+                "--taskmanager.snapshot.restore-from=" + snapshot.getPath())) {
+            long ready = System.nanoTime();
+            assertEquals(TASKS, context.getBean(TaskSearchIndex.class).size());
+            print("restart, in-memory from snapshot", (started[0] - start) / 1_000_000, (ready - start) / 1_000_000);
+        }
+
+
+
+    }
+
+    private static String[] durable(Path dataDir, Path snapshotDir) {
+        return new String[] {
+                "--spring.profiles.active=durable",
+                "--taskmanager.data-dir=" + dataDir,
+                "--taskmanager.snapshot.dir=" + snapshotDir
+        };
+    }
+
+    // Arguments override application.properties, which the builder's default properties would not
+    private static ConfigurableApplicationContext start(long[] started, String... args) {
+        List<String> all = new ArrayList<>(List.of("--server.port=0", "--logging.level.root=WARN",
+                "--taskmanager.sql-log.slow-threshold=1h", "--taskmanager.sql-log.sample-rate=0",
+                "--logging.level.com.example.taskmanager.service=INFO"));
+        all.addAll(List.of(args));
+        return new SpringApplicationBuilder(TaskManagerApplication.class)
+                .listeners((ApplicationListener<ApplicationStartedEvent>) event -> started[0] = System.nanoTime())
+                .run(all.toArray(String[]::new));
+    }
+
+    // Generated in the database so seeding does not dominate the run
+    private static void seed(DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO tasks (id, title, description, completed, created_at, updated_at, version) "
+                + "SELECT x, 'Task ' || x || ' ' || CASEWHEN(MOD(x, 2) = 0, 'review', 'deploy'), "
+                + "'Benchmark task ' || x || ' for the ' || CASEWHEN(MOD(x, 3) = 0, 'release', 'invoice') || ' project', "
+                + "MOD(x, 4) = 0, DATEADD(SECOND, -x, LOCALTIMESTAMP), DATEADD(SECOND, -x, LOCALTIMESTAMP), 0 "
+                + "FROM SYSTEM_RANGE(1, ?)", TASKS);
+        jdbcTemplate.execute("ALTER SEQUENCE task_id_seq RESTART WITH " + (TASKS + 1_000));
+    }
+
+    private static void print(String step, long startedMillis, long readyMillis) {
+        System.out.printf("%-36s %12d %12s%n", step, startedMillis, readyMillis < 0 ? "" : String.valueOf(readyMillis));
+    }
+
+    private static long millisSince(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskSearchIndexTest {
+
+    private TaskSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TaskSearchIndex();
+        index.index(task(1L, "Call customer about refund", "Customer asked for a refund on order 1234", 0L));
+        index.index(task(2L, "Refund", "Process refund for damaged parcel", 0L));
+        index.index(task(3L, "Update address", "Customer moved, update the shipping address", 0L));
+    }
+
+    private TaskDto task(Long id, String title, String description, Long version) {
+        return TaskDto.builder()
+                .id(id)
+                .title(title)
+                .description(description)
+                .version(version)
+                .build();
+    }
+
+    private List<Long> ids(List<TaskSearchIndex.Hit> hits) {
+        return hits.stream().map(TaskSearchIndex.Hit::getId).toList();
+    }
+
+    @Test
+    void tokenize_ShouldLowercaseAndSplitOnNonWordCharacters() {
+        assertEquals(List.of("re", "order", "1234", "café"), TaskSearchIndex.tokenize("Re: order #1234, Café!"));
+    }
+
+    @Test
+    void search_ShouldRankTitleMatchesHigher() {
+        List<TaskSearchIndex.Hit> hits = index.search("refund ", 10);
+
+        assertEquals(List.of(2L, 1L), ids(hits));
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    }
+
+    @Test
+    void search_ShouldRequireEveryTerm() {
+        assertEquals(List.of(1L), ids(index.search("customer refund ", 10)));
+        assertTrue(index.search("refund address ", 10).isEmpty());
+        assertTrue(index.search("unknown ", 10).isEmpty());
+    }
+
+    @Test
+    void search_ShouldTreatLastTermAsPrefix() {
+        assertEquals(List.of(3L), ids(index.search("shipping addr", 10)));
+        assertTrue(index.search("shipping addr ", 10).isEmpty());
+    }
+
+    @Test
+    void search_ShouldHonourLimit() {
+        assertEquals(1, index.search("customer", 1).size());
+    }
+
+    @Test
+    void index_ShouldReplacePreviousVersionAndIgnoreOlderOnes() {
+        index.index(task(2L, "Exchange", "Swap the damaged parcel", 1L));
+        assertEquals(List.of(1L), ids(index.search("refund ", 10)));
+        assertEquals(List.of(2L), ids(index.search("exchange ", 10)));
+
+        index.index(task(2L, "Refund", "Stale copy", 0L));
+        assertEquals(List.of(2L), ids(index.search("exchange ", 10)));
+    }
+
+    @Test
+    void remove_ShouldDropTaskFromResults() {
+        index.remove(1L);
+
+        assertEquals(List.of(2L), ids(index.search("refund ", 10)));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void rebuild_ShouldNotResurrectTasksDeletedWhileStreaming() {
+        index.rebuild(sink -> {
+            sink.accept(task(1L, "Call customer about refund", "Customer asked for a refund", 0L));
+            // A delete that commits while the rebuild is still streaming older rows
+            index.remove(2L);
+            sink.accept(task(2L, "Refund", "Process refund for damaged parcel", 0L));
+        });
+
+        assertEquals(List.of(1L), ids(index.search("refund ", 10)));
+        assertEquals(1, index.size());
+    }
+}
@@ -1,23 +1,51 @@
 package com.example.taskmanager.service;
 
+import com.example.taskmanager.dto.BulkItemResult;
+import com.example.taskmanager.dto.BulkOperation;
+import com.example.taskmanager.dto.TaskChanges;
 import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.dto.TaskEvent;
+import com.example.taskmanager.dto.TaskPage;
+import com.example.taskmanager.dto.TaskQuery;
+import com.example.taskmanager.dto.TaskSearchHit;
+import com.example.taskmanager.dto.TaskStatsDto;
+import com.example.taskmanager.exception.PreconditionFailedException;
 import com.example.taskmanager.model.Task;
+import com.example.taskmanager.model.TaskTombstone;
 import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.TaskSpecification;
+import com.example.taskmanager.repository.TaskSummary;
+import com.example.taskmanager.repository.TaskTombstoneRepository;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +54,27 @@ public class TaskServiceTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private TaskCache taskCache = new TaskCache(100, Duration.ofMinutes(5));
+
+    @Spy
+    private TaskSearchIndex taskSearchIndex = new TaskSearchIndex();
+
+    @Spy
+    private TaskStatistics taskStatistics = new TaskStatistics(30);
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -63,6 +112,11 @@ public class TaskServiceTest {
                 .build();
     }
 
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
     @Test
     void getAllTasks_ShouldReturnAllTasks() {
         when(taskRepository.findAll()).thenReturn(Arrays.asList(task1, task2));
@@ -75,6 +129,217 @@ public class TaskServiceTest {
         verify(taskRepository, times(1)).findAll();
     }
 
+    @Test
+    void getAllTasks_WithoutFilters_ShouldUsePlainFindAll() {
+        when(taskRepository.findAll()).thenReturn(Arrays.asList(task1, task2));
+
+        List<TaskDto> result = taskService.getAllTasks(new TaskQuery());
+
+        assertEquals(2, result.size());
+        verify(taskRepository, never()).findTasks(any(TaskSpecification.class), any(Sort.class), anyInt());
+    }
+
+    @Test
+    void getAllTasks_WithFilters_ShouldQueryWithSpecificationAndSort() {
+        when(taskRepository.findTasks(any(TaskSpecification.class), any(Sort.class), anyInt())).thenReturn(List.of(task2));
+
+        List<TaskDto> result = taskService.getAllTasks(TaskQuery.builder().completed(true).sort("updatedAt,desc").build());
+
+        assertEquals(1, result.size());
+        verify(taskRepository, times(1)).findTasks(any(TaskSpecification.class),
+                eq(Sort.by(Sort.Direction.DESC, "updatedAt", "id")), eq(Integer.MAX_VALUE));
+        verify(taskRepository, never()).findAll();
+    }
+
+    @Test
+    void getAllTasks_WithUnknownSort_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.getAllTasks(TaskQuery.builder().sort("description,asc").build()));
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.getAllTasks(TaskQuery.builder().sort("updatedAt,sideways").build()));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void getAllTasks_WhenAWriteLandsDuringALoad_ShouldNotShareThatLoad() throws Exception {
+        runTransactionsInline();
+        when(taskRepository.removeByIdAndCompleted(2L, false)).thenReturn(1);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(taskRepository.findAll())
+                .thenAnswer(invocation -> {
+                    loading.countDown();
+                    release.await();
+                    return List.of(task1, task2);
+                })
+                .thenReturn(List.of(task1));
+
+        CompletableFuture<List<TaskDto>> before = CompletableFuture.supplyAsync(() -> taskService.getAllTasks());
+        loading.await();
+        taskService.deleteTask(2L);
+        // Started after the delete, so it must not wait for the load that may have missed it
+        List<TaskDto> after = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> taskService.getAllTasks());
+        release.countDown();
+
+        assertEquals(2, before.get().size());
+        assertEquals(1, after.size());
+        verify(taskRepository, times(2)).findAll();
+    }
+
+    @Test
+    void getTaskPage_WithMoreRows_ShouldReturnCursor() {
+        when(taskRepository.findTasks(any(TaskSpecification.class), any(Sort.class), eq(2))).thenReturn(Arrays.asList(task1, task2));
+
+        TaskPage result = taskService.getTaskPage(new TaskQuery(), 1, null);
+
+        assertEquals(1, result.getItems().size());
+        assertEquals(1L, result.getItems().get(0).getId());
+        assertNotNull(result.getNext());
+        assertEquals(1L, TaskCursor.decode(result.getNext(), TaskSort.DEFAULT).id());
+    }
+
+    @Test
+    void getTaskPage_SortedByUpdatedAt_ShouldEncodeTimestampInCursor() {
+        when(taskRepository.findTasks(any(TaskSpecification.class), any(Sort.class), eq(2))).thenReturn(Arrays.asList(task1, task2));
+        TaskQuery query = TaskQuery.builder().sort("updatedAt,desc").build();
+
+        TaskPage result = taskService.getTaskPage(query, 1, null);
+
+        TaskCursor cursor = TaskCursor.decode(result.getNext(), TaskSort.parse("updatedAt,desc"));
+        assertEquals(now, cursor.value());
+        assertEquals(1L, cursor.id());
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTaskPage(new TaskQuery(), 1, result.getNext()));
+    }
+
+    @Test
+    void getTaskPage_WithCursor_ShouldReturnLastPage() {
+        when(taskRepository.findTasks(any(TaskSpecification.class), any(Sort.class), eq(3))).thenReturn(List.of(task2));
+
+        TaskPage result = taskService.getTaskPage(new TaskQuery(), 2, TaskCursor.encode(TaskSort.DEFAULT, null, 1L));
+
+        assertEquals(1, result.getItems().size());
+        assertEquals(2L, result.getItems().get(0).getId());
+        assertNull(result.getNext());
+    }
+
+    @Test
+    void getTaskPage_WithInvalidLimit_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTaskPage(new TaskQuery(), 0, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.getTaskPage(new TaskQuery(), TaskService.MAX_PAGE_SIZE + 1, null));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void getTaskPage_WithInvalidCursor_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.getTaskPage(new TaskQuery(), 10, "not-a-cursor"));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void getAllTasks_WithoutDescriptionField_ShouldReadSummaries() {
+        TaskSummary summary = new TaskSummary(1L, "Test Task 1", false, now, now, 3L);
+        when(taskRepository.findSummaries(any(TaskSpecification.class), eq(Sort.by(Sort.Direction.ASC, "id")),
+                eq(Integer.MAX_VALUE))).thenReturn(List.of(summary));
+
+        List<TaskDto> result = taskService.getAllTasks(new TaskQuery(), TaskFields.parse("id,title"));
+
+        assertEquals(1, result.size());
+        assertEquals("Test Task 1", result.get(0).getTitle());
+        assertNull(result.get(0).getDescription());
+        verify(taskRepository, never()).findAll();
+    }
+
+    @Test
+    void getTaskPage_WithoutDescriptionField_ShouldPageOverSummaries() {
+        when(taskRepository.findSummaries(any(TaskSpecification.class), any(Sort.class), eq(2))).thenReturn(List.of(
+                new TaskSummary(1L, "Test Task 1", false, now, now, 0L),
+                new TaskSummary(2L, "Test Task 2", true, now, now, 0L)));
+
+        TaskPage result = taskService.getTaskPage(new TaskQuery(), 1, null, TaskFields.parse("id,completed"));
+
+        assertEquals(1, result.getItems().size());
+        assertEquals(1L, TaskCursor.decode(result.getNext(), TaskSort.DEFAULT).id());
+        verify(taskRepository, never()).findTasks(any(TaskSpecification.class), any(Sort.class), anyInt());
+    }
+
+    @Test
+    void getTaskById_WithoutDescriptionField_ShouldUseCacheOrSummary() {
+        when(taskRepository.findSummaryById(1L)).thenReturn(Optional.of(new TaskSummary(1L, "Test Task 1", false, now, now, 0L)));
+        when(taskRepository.findById(2L)).thenReturn(Optional.of(task2));
+
+        assertNull(taskService.getTaskById(1L, TaskFields.parse("title")).getDescription());
+        // A summary is not cached: it would be served to requests that want the description
+        assertNull(taskCache.peek(1L));
+
+        taskService.getTaskById(2L);
+        assertEquals("Test Description 2", taskService.getTaskById(2L, TaskFields.parse("title")).getDescription());
+        verify(taskRepository, never()).findSummaryById(2L);
+        assertThrows(EntityNotFoundException.class, () -> taskService.getTaskById(99L, TaskFields.parse("title")));
+    }
+
+    @Test
+    void taskFields_WithUnknownField_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> TaskFields.parse("id,password"));
+        assertTrue(TaskFields.parse(" ").isAll());
+        assertFalse(TaskFields.parse("id, title").includes("description"));
+    }
+
+    @Test
+    void exportTasks_ShouldStreamAndDetachEachTask() {
+        when(taskRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(task1, task2));
+        List<TaskDto> exported = new ArrayList<>();
+
+        taskService.exportTasks(exported::add);
+
+        assertEquals(2, exported.size());
+        assertEquals("Test Task 1", exported.get(0).getTitle());
+        assertEquals("Test Task 2", exported.get(1).getTitle());
+        verify(entityManager, times(1)).detach(task1);
+        verify(entityManager, times(1)).detach(task2);
+        verify(taskRepository, never()).findAll();
+    }
+
+    @Test
+    void searchTasks_ShouldReturnIndexedTasksInRankOrder() {
+        Task savedTask = Task.builder()
+                .id(3L)
+                .title("Refund order")
+                .description("Customer wants a refund")
+                .build();
+        when(taskRepository.save(any(Task.class))).thenReturn(savedTask);
+        taskService.createTask(taskDto);
+        taskSearchIndex.index(TaskDto.builder().id(2L).title("Other").description("Mentions refund once").build());
+        when(taskRepository.findAllById(List.of(3L, 2L))).thenReturn(List.of(task2, savedTask));
+
+        List<TaskSearchHit> hits = taskService.searchTasks("refund", 10);
+
+        assertEquals(2, hits.size());
+        assertEquals(3L, hits.get(0).getTask().getId());
+        assertEquals(2L, hits.get(1).getTask().getId());
+        verify(taskRepository, times(1)).findAllById(List.of(3L, 2L));
+    }
+
+    @Test
+    void searchTasks_ShouldFollowUpdatesAndDeletes() {
+        runTransactionsInline();
+        when(taskRepository.removeByIdAndCompleted(1L, false)).thenReturn(1);
+        taskSearchIndex.index(TaskDto.builder().id(1L).title("Refund").build());
+
+        taskService.deleteTask(1L);
+
+        assertTrue(taskService.searchTasks("refund", 10).isEmpty());
+        verify(taskRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void searchTasks_WithBlankQuery_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.searchTasks(" ", 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.searchTasks("refund", TaskService.MAX_SEARCH_RESULTS + 1));
+    }
+
     @Test
     void getTaskById_WithValidId_ShouldReturnTask() {
         when(taskRepository.findById(1L)).thenReturn(Optional.of(task1));
@@ -87,6 +352,53 @@ public class TaskServiceTest {
         verify(taskRepository, times(1)).findById(1L);
     }
 
+    @Test
+    void getTaskById_CalledTwice_ShouldHitRepositoryOnce() {
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task1));
+
+        taskService.getTaskById(1L);
+        TaskDto result = taskService.getTaskById(1L);
+
+        assertEquals("Test Task 1", result.getTitle());
+        verify(taskRepository, times(1)).findById(1L);
+        assertEquals(1, taskService.getCacheStats().getHits());
+        assertEquals(1, taskService.getCacheStats().getMisses());
+    }
+
+    @Test
+    void updateTask_ShouldInvalidateCachedTask() {
+        Task updatedTask = Task.builder()
+                .id(1L)
+                .title("Updated Task")
+                .description("Updated Description")
+                .completed(false)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task1), Optional.of(task1), Optional.of(updatedTask));
+        when(taskRepository.save(any(Task.class))).thenReturn(updatedTask);
+
+        taskService.getTaskById(1L);
+        taskService.updateTask(1L, TaskDto.builder().title("Updated Task").description("Updated Description").build());
+        TaskDto result = taskService.getTaskById(1L);
+
+        assertEquals("Updated Task", result.getTitle());
+        verify(taskCache, times(1)).invalidate(1L);
+    }
+
+    @Test
+    void deleteTask_ShouldInvalidateCachedTask() {
+        runTransactionsInline();
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task1), Optional.empty());
+        when(taskRepository.removeByIdAndCompleted(1L, false)).thenReturn(1);
+
+        taskService.getTaskById(1L);
+        taskService.deleteTask(1L);
+
+        assertThrows(EntityNotFoundException.class, () -> taskService.getTaskById(1L));
+        verify(taskRepository, times(2)).findById(1L);
+    }
+
     @Test
     void getTaskById_WithInvalidId_ShouldThrowException() {
         when(taskRepository.findById(99L)).thenReturn(Optional.empty());
@@ -152,6 +464,58 @@ public class TaskServiceTest {
         verify(taskRepository, times(1)).save(any(Task.class));
     }
 
+    @Test
+    void updateTask_WithStaleVersion_ShouldThrowPreconditionFailed() {
+        task1.setVersion(4L);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task1));
+
+        assertThrows(PreconditionFailedException.class, () -> taskService.updateTask(1L, taskDto, 3L));
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    @Test
+    void updateTask_WithCurrentVersion_ShouldSave() {
+        task1.setVersion(4L);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task1));
+        when(taskRepository.save(any(Task.class))).thenReturn(task1);
+
+        taskService.updateTask(1L, taskDto, 4L);
+
+        verify(taskRepository, times(1)).save(task1);
+    }
+
+    @Test
+    void getTaskVersion_ShouldPreferCacheOverRepository() {
+        task1.setVersion(7L);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task1));
+        when(taskRepository.findVersionById(2L)).thenReturn(Optional.of(3L));
+
+        taskService.getTaskById(1L);
+
+        assertEquals(7L, taskService.getTaskVersion(1L));
+        assertEquals(3L, taskService.getTaskVersion(2L));
+        verify(taskRepository, never()).findVersionById(1L);
+    }
+
+    @Test
+    void getTaskVersion_WithInvalidId_ShouldThrowException() {
+        when(taskRepository.findVersionById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> taskService.getTaskVersion(99L));
+    }
+
+    @Test
+    void getListVersion_ShouldChangeAfterWrite() {
+        runTransactionsInline();
+        when(taskRepository.removeByIdAndCompleted(1L, false)).thenReturn(1);
+        String before = taskService.getListVersion();
+
+        assertEquals(before, taskService.getListVersion());
+        taskService.deleteTask(1L);
+
+        assertNotEquals(before, taskService.getListVersion());
+    }
+
     @Test
     void updateTask_WithInvalidId_ShouldThrowException() {
         when(taskRepository.findById(99L)).thenReturn(Optional.empty());
@@ -174,48 +538,321 @@ public class TaskServiceTest {
                 .updatedAt(now)
                 .build();
 
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task1));
-        when(taskRepository.save(any(Task.class))).thenReturn(completedTask);
+        when(taskRepository.completeById(eq(1L), any(LocalDateTime.class))).thenReturn(Optional.of(completedTask));
 
         TaskDto result = taskService.markTaskAsCompleted(1L);
 
         assertNotNull(result);
         assertEquals(1L, result.getId());
         assertTrue(result.isCompleted());
-        verify(taskRepository, times(1)).findById(1L);
-        verify(taskRepository, times(1)).save(any(Task.class));
+        verify(taskRepository, times(1)).completeById(eq(1L), any(LocalDateTime.class));
+        // The update returns the row, so nothing is read back
+        verify(taskRepository, never()).findById(1L);
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    @Test
+    void markTaskAsCompleted_ShouldReplaceCachedTask() {
+        Task completedTask = Task.builder()
+                .id(1L)
+                .title("Test Task 1")
+                .completed(true)
+                .build();
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task1), Optional.of(completedTask));
+        when(taskRepository.completeById(eq(1L), any(LocalDateTime.class))).thenReturn(Optional.of(completedTask));
+
+        taskService.getTaskById(1L);
+        taskService.markTaskAsCompleted(1L);
+
+        assertTrue(taskService.getTaskById(1L).isCompleted());
+        verify(taskRepository, times(2)).findById(1L);
     }
 
     @Test
     void markTaskAsCompleted_WithInvalidId_ShouldThrowException() {
+        when(taskRepository.completeById(eq(99L), any(LocalDateTime.class))).thenReturn(Optional.empty());
         when(taskRepository.findById(99L)).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () -> {
             taskService.markTaskAsCompleted(99L);
         });
-        verify(taskRepository, times(1)).findById(99L);
-        verify(taskRepository, never()).save(any(Task.class));
+        verify(taskRepository, times(1)).completeById(eq(99L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void markTaskAsCompleted_WhenAlreadyCompleted_ShouldChangeNothing() {
+        when(taskRepository.completeById(eq(2L), any(LocalDateTime.class))).thenReturn(Optional.empty());
+        when(taskRepository.findById(2L)).thenReturn(Optional.of(task2));
+
+        TaskDto result = taskService.markTaskAsCompleted(2L);
+
+        assertTrue(result.isCompleted());
+        assertEquals(0, taskStatistics.completed());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void writes_ShouldKeepStatisticsCounters() {
+        runTransactionsInline();
+        when(taskRepository.save(any(Task.class))).thenReturn(task1);
+        when(taskRepository.completeById(eq(1L), any(LocalDateTime.class))).thenReturn(Optional.of(task1));
+        when(taskRepository.removeByIdAndCompleted(1L, false)).thenReturn(0);
+        when(taskRepository.removeByIdAndCompleted(1L, true)).thenReturn(1);
+
+        taskService.createTask(taskDto);
+        assertEquals(1, taskStatistics.open());
+        taskService.markTaskAsCompleted(1L);
+        assertEquals(0, taskStatistics.open());
+        assertEquals(1, taskStatistics.completed());
+        taskService.deleteTask(1L);
+        assertEquals(0, taskStatistics.completed());
+
+        TaskStatsDto stats = taskService.getStats();
+        assertEquals(0, stats.getTotal());
+        assertEquals(1, stats.getDays().get(stats.getDays().size() - 1).getCreated());
+        assertEquals(1, stats.getDays().get(stats.getDays().size() - 1).getCompleted());
+    }
+
+    @Test
+    void updateTask_ShouldMoveCountersOnlyWhenCompletedChanges() {
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task1));
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        taskService.updateTask(1L, TaskDto.builder().title("Renamed").completed(false).build());
+        assertEquals(0, taskStatistics.completed());
+        taskService.updateTask(1L, TaskDto.builder().title("Renamed").completed(true).build());
+        assertEquals(1, taskStatistics.completed());
+        assertEquals(-1, taskStatistics.open());
     }
 
     @Test
     void deleteTask_WithValidId_ShouldDeleteTask() {
-        when(taskRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(taskRepository).deleteById(1L);
+        runTransactionsInline();
+        when(taskRepository.removeByIdAndCompleted(1L, false)).thenReturn(1);
 
         taskService.deleteTask(1L);
 
-        verify(taskRepository, times(1)).existsById(1L);
-        verify(taskRepository, times(1)).deleteById(1L);
+        verify(taskRepository, times(1)).removeByIdAndCompleted(1L, false);
+        verify(taskRepository, never()).removeByIdAndCompleted(1L, true);
+        verify(entityManager, times(1)).persist(argThat(tombstone -> ((TaskTombstone) tombstone).getTaskId() == 1L));
+        verify(taskRepository, never()).existsById(any());
+        verify(taskRepository, never()).deleteById(any());
     }
 
     @Test
     void deleteTask_WithInvalidId_ShouldThrowException() {
-        when(taskRepository.existsById(99L)).thenReturn(false);
+        runTransactionsInline();
+        when(taskRepository.removeByIdAndCompleted(eq(99L), anyBoolean())).thenReturn(0);
 
         assertThrows(EntityNotFoundException.class, () -> {
             taskService.deleteTask(99L);
         });
-        verify(taskRepository, times(1)).existsById(99L);
-        verify(taskRepository, never()).deleteById(any());
+        verify(taskRepository, times(1)).removeByIdAndCompleted(99L, false);
+        verify(taskRepository, times(1)).removeByIdAndCompleted(99L, true);
+        verify(entityManager, never()).persist(any());
+    }
+
+    @Test
+    void writes_ShouldPublishTaskEventsAfterTheyComplete() {
+        runTransactionsInline();
+        when(taskRepository.save(any(Task.class))).thenReturn(task1);
+        when(taskRepository.removeByIdAndCompleted(1L, false)).thenReturn(1);
+
+        taskService.createTask(taskDto);
+        taskService.deleteTask(1L);
+
+        verify(eventPublisher, times(1)).publishEvent(argThat((Object event) -> event instanceof TaskEvent taskEvent
+                && taskEvent.getType() == TaskEvent.Type.CHANGED && taskEvent.getTask().getId() == 1L));
+        verify(eventPublisher, times(1)).publishEvent(argThat((Object event) -> event instanceof TaskEvent taskEvent
+                && taskEvent.getType() == TaskEvent.Type.DELETED && taskEvent.getId() == 1L));
+    }
+
+    @Test
+    void deleteTask_WithInvalidId_ShouldNotPublishEvent() {
+        runTransactionsInline();
+        when(taskRepository.removeByIdAndCompleted(eq(99L), anyBoolean())).thenReturn(0);
+
+        assertThrows(EntityNotFoundException.class, () -> taskService.deleteTask(99L));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void getChanges_WithoutToken_ShouldReturnFullSnapshot() {
+        when(taskRepository.findAll()).thenReturn(Arrays.asList(task1, task2));
+
+        TaskChanges changes = taskService.getChanges(null);
+
+        assertTrue(changes.isFull());
+        assertEquals(2, changes.getChanged().size());
+        assertTrue(changes.getDeleted().isEmpty());
+        assertNotNull(changes.getToken());
+        verifyNoInteractions(taskTombstoneRepository);
+    }
+
+    @Test
+    void getChanges_WhenNothingWasWritten_ShouldNotQueryTheDatabase() {
+        when(taskRepository.findAll()).thenReturn(List.of());
+        String token = taskService.getChanges(null).getToken();
+
+        TaskChanges changes = taskService.getChanges(token);
+
+        assertFalse(changes.isFull());
+        assertTrue(changes.getChanged().isEmpty());
+        assertTrue(changes.getDeleted().isEmpty());
+        assertEquals(token, changes.getToken());
+        verify(taskRepository, never()).findByUpdatedAtAfterOrderByUpdatedAtAscIdAsc(any());
+        verifyNoInteractions(taskTombstoneRepository);
+    }
+
+    @Test
+    void getChanges_WithTheTokenOfAListRead_ShouldReturnOnlyLaterWrites() {
+        String token = taskService.getChangeToken();
+
+        assertTrue(taskService.getChanges(token).getChanged().isEmpty());
+        verifyNoInteractions(taskRepository, taskTombstoneRepository);
+
+        when(taskRepository.save(any(Task.class))).thenReturn(task1);
+        taskService.createTask(taskDto);
+        LocalDateTime watermark = TaskChangeToken.decode(token).watermark();
+        when(taskRepository.findByUpdatedAtAfterOrderByUpdatedAtAscIdAsc(watermark)).thenReturn(List.of(task1));
+
+        TaskChanges changes = taskService.getChanges(token);
+
+        assertFalse(changes.isFull());
+        assertEquals(List.of(1L), changes.getChanged().stream().map(TaskDto::getId).toList());
+    }
+
+    @Test
+    void getChanges_AfterWrites_ShouldReturnChangedTasksAndTombstones() {
+        runTransactionsInline();
+        when(taskRepository.findAll()).thenReturn(List.of());
+        when(taskRepository.removeByIdAndCompleted(2L, false)).thenReturn(1);
+        String token = taskService.getChanges(null).getToken();
+        LocalDateTime watermark = TaskChangeToken.decode(token).watermark();
+        taskService.deleteTask(2L);
+        when(taskRepository.findByUpdatedAtAfterOrderByUpdatedAtAscIdAsc(watermark)).thenReturn(List.of(task1));
+        when(taskTombstoneRepository.findByDeletedAtAfterOrderByDeletedAtAsc(watermark))
+                .thenReturn(List.of(new TaskTombstone(2L, now)));
+
+        TaskChanges changes = taskService.getChanges(token);
+
+        assertFalse(changes.isFull());
+        assertEquals(List.of(1L), changes.getChanged().stream().map(TaskDto::getId).toList());
+        assertEquals(List.of(2L), changes.getDeleted());
+        assertNotEquals(token, changes.getToken());
+        assertTrue(TaskChangeToken.decode(changes.getToken()).watermark().isAfter(watermark));
+    }
+
+    @Test
+    void getChanges_WhileAWriteIsInFlight_ShouldResumeFromBeforeItStarted() throws Exception {
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(taskRepository.findAll()).thenReturn(List.of());
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> {
+            saving.countDown();
+            release.await();
+            return task1;
+        });
+        LocalDateTime beforeWrite = LocalDateTime.now();
+        CompletableFuture<TaskDto> write = CompletableFuture.supplyAsync(() -> taskService.createTask(taskDto));
+        saving.await();
+        Thread.sleep(20);
+        LocalDateTime issued = LocalDateTime.now();
+
+        LocalDateTime watermark = TaskChangeToken.decode(taskService.getChanges(null).getToken()).watermark();
+        release.countDown();
+        write.get();
+
+        assertTrue(watermark.isBefore(issued.minus(TaskService.SYNC_OVERLAP)));
+        assertFalse(watermark.isBefore(beforeWrite.minus(TaskService.SYNC_OVERLAP)));
+        LocalDateTime afterWrite = LocalDateTime.now();
+        LocalDateTime next = TaskChangeToken.decode(taskService.getChanges(null).getToken()).watermark();
+        assertFalse(next.isBefore(afterWrite.minus(TaskService.SYNC_OVERLAP)));
+    }
+
+    @Test
+    void getChanges_WithTokenOlderThanTombstoneRetention_ShouldReturnFullSnapshot() {
+        when(taskRepository.findAll()).thenReturn(List.of(task1));
+        String token = TaskChangeToken.encode("old-epoch-0",
+                LocalDateTime.now().minus(TaskService.TOMBSTONE_RETENTION).minusHours(1));
+
+        TaskChanges changes = taskService.getChanges(token);
+
+        assertTrue(changes.isFull());
+        assertEquals(1, changes.getChanged().size());
+        verifyNoInteractions(taskTombstoneRepository);
+    }
+
+    @Test
+    void getChanges_WithInvalidToken_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.getChanges("not-a-token"));
+    }
+
+    @Test
+    void bulk_ShouldApplyEachOperationAndReportPerItemStatus() {
+        runTransactionsInline();
+        when(taskRepository.findAllById(anyList())).thenReturn(List.of(task1, task2));
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> {
+            Task task = invocation.getArgument(0);
+            task.setId(3L);
+            return task;
+        });
+
+        List<BulkOperation> operations = List.of(
+                BulkOperation.builder().op(BulkOperation.Type.CREATE).task(taskDto).build(),
+                BulkOperation.builder().op(BulkOperation.Type.COMPLETE).id(1L).build(),
+                BulkOperation.builder().op(BulkOperation.Type.DELETE).id(2L).build(),
+                BulkOperation.builder().op(BulkOperation.Type.UPDATE).id(99L).task(taskDto).build(),
+                BulkOperation.builder().op(BulkOperation.Type.UPDATE).id(1L).build()
+        );
+
+        List<BulkItemResult> results = taskService.bulk(operations);
+
+        assertEquals(5, results.size());
+        assertEquals(201, results.get(0).getStatus());
+        assertEquals(3L, results.get(0).getTask().getId());
+        assertEquals(200, results.get(1).getStatus());
+        assertTrue(results.get(1).getTask().isCompleted());
+        assertEquals(204, results.get(2).getStatus());
+        assertEquals(404, results.get(3).getStatus());
+        assertEquals(400, results.get(4).getStatus());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+        verify(taskRepository, times(1)).findAllById(anyList());
+        verify(taskRepository, times(1)).delete(task2);
+        verify(taskRepository, times(1)).flush();
+        // One created open, one open completed, one completed deleted
+        assertEquals(0, taskStatistics.open());
+        assertEquals(0, taskStatistics.completed());
+        verify(taskStatistics, times(1)).created(false);
+        verify(taskStatistics, times(1)).changed(false, true);
+        verify(taskStatistics, times(1)).deleted(true);
+    }
+
+    @Test
+    void bulk_WhenChunkFails_ShouldReportEveryItemInChunk() {
+        when(transactionTemplate.execute(any())).thenThrow(new IllegalStateException("Connection lost"));
+
+        List<BulkItemResult> results = taskService.bulk(List.of(
+                BulkOperation.builder().op(BulkOperation.Type.CREATE).task(taskDto).build(),
+                BulkOperation.builder().op(BulkOperation.Type.DELETE).id(1L).build()
+        ));
+
+        assertEquals(2, results.size());
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == 500));
+        assertEquals("Connection lost", results.get(1).getError());
+        verifyNoInteractions(taskStatistics);
+    }
+
+    @Test
+    void bulk_WithTooManyOperations_ShouldThrowException() {
+        List<BulkOperation> operations = new ArrayList<>();
+        for (int i = 0; i <= TaskService.MAX_BULK_OPERATIONS; i++) {
+            operations.add(BulkOperation.builder().op(BulkOperation.Type.DELETE).id((long) i).build());
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.bulk(operations));
+        verifyNoInteractions(transactionTemplate);
     }
-}
\ No newline at end of file
+}
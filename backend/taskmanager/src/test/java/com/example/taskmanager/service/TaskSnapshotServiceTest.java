@@ -0,0 +1,127 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.SnapshotResult;
+import com.example.taskmanager.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs against the Flyway schema; the service uses its own connections, so the test commits as it goes
+@JdbcTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TaskSnapshotServiceTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @TempDir
+    private Path snapshotDir;
+
+    private JdbcTemplate jdbcTemplate;
+    private TaskSnapshotService taskSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // Two tasks to a file, so a handful of tasks already spans several files
+        taskSnapshotService = new TaskSnapshotService(dataSource, snapshotDir, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        clear();
+    }
+
+    @Test
+    void snapshotAndRestore_ShouldRoundTripRowsIncludingNullsAndSpecialCharacters() {
+        LocalDateTime createdAt = LocalDateTime.of(2030, 1, 1, 12, 0, 0, 123_456_000);
+        insertTask(1, "Plain", null, false, createdAt, 0);
+        insertTask(2, "Quote \" and, comma", "Line one\nline two", true, createdAt.plusSeconds(1), 3);
+        insertTask(3, "Empty description", "", false, createdAt.plusSeconds(2), 1);
+        jdbcTemplate.update("INSERT INTO task_tombstones (task_id, deleted_at) VALUES (?, ?)", 120, createdAt);
+        List<Map<String, Object>> before = jdbcTemplate.queryForList("SELECT * FROM tasks ORDER BY id");
+
+        SnapshotResult snapshot = taskSnapshotService.snapshot();
+        assertEquals(3, snapshot.getTasks());
+        assertEquals(1, snapshot.getTombstones());
+        assertTrue(Files.isRegularFile(Path.of(snapshot.getPath()).resolve(TaskSnapshotService.tasksFile(1))));
+
+        clear();
+        assertTrue(taskSnapshotService.isEmpty());
+        SnapshotResult restored = taskSnapshotService.restore(Path.of(snapshot.getPath()));
+
+        assertEquals(3, restored.getTasks());
+        assertEquals(1, restored.getTombstones());
+        assertEquals(before, jdbcTemplate.queryForList("SELECT * FROM tasks ORDER BY id"));
+        assertEquals(createdAt, jdbcTemplate.queryForObject(
+                "SELECT deleted_at FROM task_tombstones WHERE task_id = 120", LocalDateTime.class));
+    }
+
+    @Test
+    void restore_ShouldMoveIdSequencePastRestoredAndDeletedIds() {
+        insertTask(7, "Task", "Description", false, LocalDateTime.now(), 0);
+        jdbcTemplate.update("INSERT INTO task_tombstones (task_id, deleted_at) VALUES (?, ?)", 500, LocalDateTime.now());
+        SnapshotResult snapshot = taskSnapshotService.snapshot();
+        clear();
+
+        taskSnapshotService.restore(Path.of(snapshot.getPath()));
+
+        // The pooled optimizer hands out the block that ends at the sequence value
+        long next = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR task_id_seq", Long.class);
+        assertTrue(next - Task.ID_ALLOCATION_SIZE + 1 > 500, "next block starts at " + (next - Task.ID_ALLOCATION_SIZE + 1));
+    }
+
+    @Test
+    void restore_WhenAFileFailsToLoad_ShouldLeaveTheDatabaseEmpty() throws Exception {
+        for (int id = 1; id <= 5; id++) {
+            insertTask(id, "Task " + id, null, false, LocalDateTime.now(), 0);
+        }
+        SnapshotResult snapshot = taskSnapshotService.snapshot();
+        clear();
+        // The first file loads and commits before the second one fails
+        Files.writeString(Path.of(snapshot.getPath()).resolve(TaskSnapshotService.tasksFile(1)),
+                "ID,TITLE,DESCRIPTION,COMPLETED,CREATED_AT,UPDATED_AT,VERSION\nnot-a-number,Task,,FALSE,,,0\n");
+
+        assertThrows(IllegalStateException.class, () -> taskSnapshotService.restore(Path.of(snapshot.getPath())));
+        assertTrue(taskSnapshotService.isEmpty());
+    }
+
+    @Test
+    void restore_ShouldRefuseNonEmptyDatabase() {
+        insertTask(1, "Task", "Description", false, LocalDateTime.now(), 0);
+        SnapshotResult snapshot = taskSnapshotService.snapshot();
+
+        assertThrows(IllegalStateException.class, () -> taskSnapshotService.restore(Path.of(snapshot.getPath())));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks", Long.class));
+    }
+
+    @Test
+    void restore_ShouldRejectDirectoryWithoutSnapshot() {
+        assertThrows(IllegalArgumentException.class, () -> taskSnapshotService.restore(snapshotDir));
+    }
+
+    private void insertTask(long id, String title, String description, boolean completed, LocalDateTime at, long version) {
+        jdbcTemplate.update("INSERT INTO tasks (id, title, description, completed, created_at, updated_at, version) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", id, title, description, completed, at, at, version);
+    }
+
+    private void clear() {
+        jdbcTemplate.update("DELETE FROM tasks");
+        jdbcTemplate.update("DELETE FROM task_tombstones");
+    }
+}
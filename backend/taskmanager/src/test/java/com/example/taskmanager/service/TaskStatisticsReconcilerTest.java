@@ -0,0 +1,62 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskStatisticsReconcilerTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Spy
+    private TaskStatistics taskStatistics = new TaskStatistics(30);
+
+    @InjectMocks
+    private TaskStatisticsReconciler reconciler;
+
+    @Test
+    void initialize_ShouldLoadCountersFromTheDatabase() {
+        when(taskRepository.countByCompleted(false)).thenReturn(7L);
+        when(taskRepository.countByCompleted(true)).thenReturn(3L);
+
+        reconciler.initialize();
+
+        assertEquals(7, taskStatistics.open());
+        assertEquals(3, taskStatistics.completed());
+    }
+
+    @Test
+    void reconcile_ShouldCorrectOnlyDriftSeenTwiceInARow() {
+        when(taskRepository.countByCompleted(false)).thenReturn(2L);
+        when(taskRepository.countByCompleted(true)).thenReturn(0L);
+
+        reconciler.reconcile();
+        assertEquals(0, taskStatistics.open());
+
+        reconciler.reconcile();
+        assertEquals(2, taskStatistics.open());
+        verify(taskStatistics, times(1)).correct(2, 0);
+    }
+
+    @Test
+    void reconcile_WhenDriftChanges_ShouldWaitForItToSettle() {
+        when(taskRepository.countByCompleted(false)).thenReturn(1L, 2L, 2L);
+        when(taskRepository.countByCompleted(true)).thenReturn(0L);
+
+        reconciler.reconcile();
+        reconciler.reconcile();
+        verify(taskStatistics, never()).correct(anyLong(), anyLong());
+
+        reconciler.reconcile();
+        assertEquals(2, taskStatistics.open());
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.DailyTaskStatsDto;
+import com.example.taskmanager.dto.TaskStatsDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskStatisticsTest {
+
+    @Test
+    void writes_ShouldMoveTotalsAndTodaysRollup() {
+        TaskStatistics statistics = new TaskStatistics(7);
+
+        statistics.created(false);
+        statistics.created(false);
+        statistics.created(true);
+        statistics.changed(false, true);
+        statistics.changed(true, true);
+        statistics.deleted(false);
+
+        TaskStatsDto stats = statistics.snapshot();
+        assertEquals(0, stats.getOpen());
+        assertEquals(2, stats.getCompleted());
+        assertEquals(2, stats.getTotal());
+        DailyTaskStatsDto today = stats.getDays().get(stats.getDays().size() - 1);
+        assertEquals(LocalDate.now(), today.getDate());
+        assertEquals(3, today.getCreated());
+        assertEquals(2, today.getCompleted());
+    }
+
+    @Test
+    void reopening_ShouldNotTakeBackTheDailyCompletion() {
+        TaskStatistics statistics = new TaskStatistics(7);
+        statistics.created(false);
+        statistics.changed(false, true);
+
+        statistics.changed(true, false);
+
+        TaskStatsDto stats = statistics.snapshot();
+        assertEquals(1, stats.getOpen());
+        assertEquals(0, stats.getCompleted());
+        assertEquals(1, stats.getDays().get(6).getCompleted());
+    }
+
+    @Test
+    void snapshot_ShouldListEveryDayOfTheWindowOldestFirst() {
+        TaskStatsDto stats = new TaskStatistics(7).snapshot();
+
+        assertEquals(7, stats.getDays().size());
+        assertEquals(LocalDate.now().minusDays(6), stats.getDays().get(0).getDate());
+        assertTrue(stats.getDays().stream().allMatch(day -> day.getCreated() == 0 && day.getCompleted() == 0));
+    }
+
+    @Test
+    void bindTo_ShouldExposeCountersAsGauges() {
+        TaskStatistics statistics = new TaskStatistics(7);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        statistics.bindTo(registry);
+
+        statistics.created(false);
+        statistics.correct(4, 2);
+
+        assertEquals(5, registry.get("taskmanager.tasks").tag("state", "open").gauge().value());
+        assertEquals(2, registry.get("taskmanager.tasks").tag("state", "completed").gauge().value());
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Measures how long a committed change takes to reach every connected /api/tasks/stream client.
+// Run with: ./mvnw test -Pbenchmark -Dtest=TaskStreamLatencyBenchmarkTest
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "server.tomcat.max-connections=20000"
+})
+public class TaskStreamLatencyBenchmarkTest {
+
+    private static final int SUBSCRIBERS = Integer.getInteger("stream.subscribers", 2_000);
+    private static final int WARMUP_EVENTS = 20;
+    private static final int EVENTS = 50;
+    // Spacing between writes; each one is delivered SUBSCRIBERS times
+    private static final long EVENT_INTERVAL_MILLIS = 100;
+    private static final Pattern EVENT_TITLE = Pattern.compile("\"title\":\"latency-(\\d+)\"");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskEventBroadcaster taskEventBroadcaster;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void deliveryLatencyWithManySubscribers() throws Exception {
+        long[] publishedAt = new long[EVENTS];
+        AtomicLongArray latencies = new AtomicLongArray(SUBSCRIBERS * EVENTS);
+        CountDownLatch delivered = new CountDownLatch(SUBSCRIBERS * EVENTS);
+        CountDownLatch connected = new CountDownLatch(SUBSCRIBERS);
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tasks/stream"))
+                .header("Accept", "text/event-stream")
+                .build();
+        List<CompletableFuture<HttpResponse<Void>>> streams = new ArrayList<>(SUBSCRIBERS);
+        for (int s = 0; s < SUBSCRIBERS; s++) {
+            int subscriber = s;
+            streams.add(client.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(new LineSubscriber() {
+                @Override
+                void onLine(String line) {
+                    if (line.startsWith(":heartbeat")) {
+                        connected.countDown();
+                        return;
+                    }
+                    Matcher matcher = EVENT_TITLE.matcher(line);
+                    if (matcher.find()) {
+                        int event = Integer.parseInt(matcher.group(1));
+                        latencies.set(subscriber * EVENTS + event, System.nanoTime() - publishedAt[event]);
+                        delivered.countDown();
+                    }
+                }
+            })));
+        }
+        assertTrue(connected.await(60, TimeUnit.SECONDS), "subscribers did not connect");
+        assertEquals(SUBSCRIBERS, taskEventBroadcaster.subscriberCount());
+
+        // Not measured: lets the JIT compile the write path on both ends
+        for (int event = 0; event < WARMUP_EVENTS; event++) {
+            taskService.createTask(TaskDto.builder().title("warmup-" + event).build());
+            Thread.sleep(EVENT_INTERVAL_MILLIS);
+        }
+
+        for (int event = 0; event < EVENTS; event++) {
+            publishedAt[event] = System.nanoTime();
+            taskService.createTask(TaskDto.builder().title("latency-" + event).build());
+            Thread.sleep(EVENT_INTERVAL_MILLIS);
+        }
+        assertTrue(delivered.await(60, TimeUnit.SECONDS), delivered.getCount() + " deliveries missing");
+        assertEquals(0, taskEventBroadcaster.droppedCount());
+
+        long[] sorted = new long[latencies.length()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = latencies.get(i);
+        }
+        Arrays.sort(sorted);
+        System.out.printf("%,d subscribers x %d events: p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                SUBSCRIBERS, EVENTS, millis(sorted, 0.50), millis(sorted, 0.99), sorted[sorted.length - 1] / 1e6);
+
+        streams.forEach(stream -> stream.cancel(true));
+    }
+
+    private double millis(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1e6;
+    }
+
+    private abstract static class LineSubscriber implements Flow.Subscriber<String> {
+        abstract void onLine(String line);
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            onLine(line);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.BulkOperation;
+import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Many concurrent callers each completing and then renaming tasks, once with a transaction per call and once through
+// TaskWriteCoalescer. Run with: ./mvnw test -Pbenchmark -Dtest=TaskWriteBatchingBenchmarkTest
+// -Dbatching.callers=64 sets the number of concurrent callers, -Dbatching.max-delay-ms=0 the coalescer's max-delay.
+@Tag("benchmark")
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "taskmanager.sql-log.sample-rate=0"})
+public class TaskWriteBatchingBenchmarkTest {
+
+    private static final int TASKS = 10_000;
+    private static final int ROUNDS = 3;
+    private static final int CALLERS = Integer.getInteger("batching.callers", 64);
+    private static final Duration MAX_DELAY = Duration.ofMillis(Long.getLong("batching.max-delay-ms", 0));
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void coalescedVersusSingleTransactions() throws Exception {
+        TaskWriteCoalescer coalescer =
+                new TaskWriteCoalescer(taskService, new SimpleMeterRegistry(), 100, MAX_DELAY, 10_000);
+        try {
+            BiConsumer<Long, TaskDto> single = (id, update) -> {
+                taskService.markTaskAsCompleted(id);
+                taskService.updateTask(id, update);
+            };
+            BiConsumer<Long, TaskDto> coalesced = (id, update) -> {
+                coalescer.complete(id);
+                coalescer.update(id, update);
+            };
+
+            // Warm up both paths so the JIT and connection pool are settled
+            run(single);
+            run(coalesced);
+
+            for (int round = 1; round <= ROUNDS; round++) {
+                long singleNanos = run(single);
+                long coalescedNanos = run(coalesced);
+                System.out.printf("round %d, %d callers, max-delay %d ms: single %,.0f writes/s, coalesced %,.0f writes/s (%.1fx)%n",
+                        round, CALLERS, MAX_DELAY.toMillis(), writesPerSecond(singleNanos), writesPerSecond(coalescedNanos),
+                        (double) singleNanos / coalescedNanos);
+            }
+        } finally {
+            coalescer.close();
+        }
+    }
+
+    // Returns elapsed nanos for CALLERS threads completing and renaming TASKS fresh tasks between them
+    private long run(BiConsumer<Long, TaskDto> write) throws Exception {
+        List<Long> ids = seed();
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(callers.submit(() -> {
+                    for (int index = next.getAndIncrement(); index < ids.size(); index = next.getAndIncrement()) {
+                        Long id = ids.get(index);
+                        write.accept(id, TaskDto.builder().title("Renamed " + id).completed(true).build());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            assertEquals(TASKS, taskRepository.countByCompleted(true));
+            return elapsed;
+        } finally {
+            callers.shutdown();
+        }
+    }
+
+    private List<Long> seed() {
+        taskRepository.deleteAllInBatch();
+        List<BulkOperation> creates = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            creates.add(BulkOperation.builder()
+                    .op(BulkOperation.Type.CREATE)
+                    .task(TaskDto.builder().title("Task " + i).description("Benchmark task " + i).build())
+                    .build());
+        }
+        return taskService.bulk(creates).stream().map(result -> result.getTask().getId()).toList();
+    }
+
+    private double writesPerSecond(long nanos) {
+        return 2.0 * TASKS / (nanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.BulkItemResult;
+import com.example.taskmanager.dto.BulkOperation;
+import com.example.taskmanager.dto.TaskDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskWriteCoalescerTest {
+
+    @Mock
+    private TaskService taskService;
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(3);
+    private TaskWriteCoalescer coalescer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        callers.shutdownNow();
+        if (coalescer != null) {
+            coalescer.close();
+        }
+    }
+
+    // A batch closes after three writes, long before the delay runs out
+    private void startCoalescer() {
+        coalescer = new TaskWriteCoalescer(taskService, new SimpleMeterRegistry(), 3, Duration.ofSeconds(10), 100);
+    }
+
+    private BulkItemResult result(int index, int status, Long id) {
+        return BulkItemResult.builder()
+                .index(index)
+                .status(status)
+                .task(status == 200 ? TaskDto.builder().id(id).completed(true).build() : null)
+                .error(status == 404 ? "Task not found with id: " + id : null)
+                .build();
+    }
+
+    private List<Future<TaskDto>> completeConcurrently(long... ids) throws InterruptedException {
+        List<Future<TaskDto>> futures = new ArrayList<>();
+        for (long id : ids) {
+            futures.add(callers.submit(() -> coalescer.complete(id)));
+            // Keep the queue order, and so the batch order, predictable
+            Thread.sleep(50);
+        }
+        return futures;
+    }
+
+    @Test
+    void concurrentWrites_ShouldShareOneBulkCallAndEachGetTheirOwnResult() throws Exception {
+        startCoalescer();
+        when(taskService.bulk(anyList())).thenAnswer(invocation -> {
+            List<BulkOperation> operations = invocation.getArgument(0);
+            List<BulkItemResult> results = new ArrayList<>();
+            for (int i = 0; i < operations.size(); i++) {
+                Long id = operations.get(i).getId();
+                results.add(result(i, id == 2L ? 404 : 200, id));
+            }
+            return results;
+        });
+
+        List<Future<TaskDto>> futures = completeConcurrently(1L, 2L, 3L);
+
+        assertEquals(1L, futures.get(0).get().getId());
+        Exception notFound = assertThrows(Exception.class, () -> futures.get(1).get());
+        assertInstanceOf(EntityNotFoundException.class, notFound.getCause());
+        assertEquals(3L, futures.get(2).get().getId());
+        verify(taskService, times(1)).bulk(argThat(operations -> operations.size() == 3
+                && operations.stream().allMatch(operation -> operation.getOp() == BulkOperation.Type.COMPLETE)));
+        verify(taskService, never()).markTaskAsCompleted(any());
+    }
+
+    @Test
+    void secondWriteToATask_ShouldGoInTheNextBatchAndGetItsOwnResult() throws Exception {
+        startCoalescer();
+        when(taskService.bulk(anyList())).thenAnswer(invocation -> {
+            List<BulkOperation> operations = invocation.getArgument(0);
+            List<BulkItemResult> results = new ArrayList<>();
+            for (int i = 0; i < operations.size(); i++) {
+                BulkOperation operation = operations.get(i);
+                TaskDto task = operation.getOp() == BulkOperation.Type.UPDATE
+                        ? TaskDto.builder().id(operation.getId()).title(operation.getTask().getTitle()).build()
+                        : TaskDto.builder().id(operation.getId()).completed(true).build();
+                results.add(BulkItemResult.builder().index(i).status(200).task(task).build());
+            }
+            return results;
+        });
+        TaskDto update = TaskDto.builder().title("Renamed").build();
+
+        List<Future<TaskDto>> futures = new ArrayList<>();
+        futures.add(callers.submit(() -> coalescer.complete(1L)));
+        Thread.sleep(50);
+        futures.add(callers.submit(() -> coalescer.complete(2L)));
+        Thread.sleep(50);
+        futures.add(callers.submit(() -> coalescer.update(1L, update)));
+        Thread.sleep(50);
+        futures.addAll(completeConcurrently(3L, 4L));
+
+        assertTrue(futures.get(0).get().isCompleted());
+        assertNull(futures.get(0).get().getTitle());
+        assertEquals("Renamed", futures.get(2).get().getTitle());
+        assertFalse(futures.get(2).get().isCompleted());
+        verify(taskService).bulk(argThat(operations -> operations.size() == 2
+                && operations.get(0).getId() == 1L && operations.get(1).getId() == 2L));
+        verify(taskService).bulk(argThat(operations -> operations.size() == 3
+                && operations.get(0).getOp() == BulkOperation.Type.UPDATE && operations.get(0).getId() == 1L));
+        verify(taskService, times(2)).bulk(anyList());
+    }
+
+    @Test
+    void failedBatch_ShouldBeRetriedOneWriteAtATime() throws Exception {
+        startCoalescer();
+        when(taskService.bulk(anyList())).thenReturn(List.of(result(0, 500, 1L), result(1, 500, 2L), result(2, 500, 3L)));
+        when(taskService.markTaskAsCompleted(anyLong())).thenAnswer(invocation -> {
+            Long id = invocation.getArgument(0);
+            if (id == 2L) {
+                throw new ObjectOptimisticLockingFailureException("Task", id);
+            }
+            return TaskDto.builder().id(id).completed(true).build();
+        });
+
+        List<Future<TaskDto>> futures = completeConcurrently(1L, 2L, 3L);
+
+        assertEquals(1L, futures.get(0).get().getId());
+        Exception conflict = assertThrows(Exception.class, () -> futures.get(1).get());
+        assertInstanceOf(ObjectOptimisticLockingFailureException.class, conflict.getCause());
+        assertEquals(3L, futures.get(2).get().getId());
+        verify(taskService, times(3)).markTaskAsCompleted(anyLong());
+    }
+
+    @Test
+    void loneWrite_ShouldTakeTheSingleRequestPath() {
+        coalescer = new TaskWriteCoalescer(taskService, new SimpleMeterRegistry(), 100, Duration.ofMillis(1), 100);
+        TaskDto update = TaskDto.builder().title("Renamed").build();
+        when(taskService.updateTask(1L, update)).thenReturn(TaskDto.builder().id(1L).title("Renamed").build());
+
+        assertEquals("Renamed", coalescer.update(1L, update).getTitle());
+        assertThrows(IllegalArgumentException.class,
+                () -> new TaskWriteCoalescer(taskService, new SimpleMeterRegistry(), 0, Duration.ofMillis(1), 100));
+        verify(taskService, never()).bulk(anyList());
+    }
+
+    @Test
+    void close_ShouldSendLaterWritesDownTheSingleRequestPath() throws InterruptedException {
+        startCoalescer();
+        when(taskService.markTaskAsCompleted(1L)).thenReturn(TaskDto.builder().id(1L).completed(true).build());
+
+        coalescer.close();
+
+        assertTrue(coalescer.complete(1L).isCompleted());
+        verify(taskService, never()).bulk(anyList());
+    }
+}
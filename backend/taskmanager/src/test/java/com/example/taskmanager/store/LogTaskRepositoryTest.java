@@ -0,0 +1,219 @@
+package com.example.taskmanager.store;
+
+import com.example.taskmanager.dto.BulkItemResult;
+import com.example.taskmanager.dto.BulkOperation;
+import com.example.taskmanager.dto.TaskChanges;
+import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.dto.TaskPage;
+import com.example.taskmanager.dto.TaskQuery;
+import com.example.taskmanager.exception.PreconditionFailedException;
+import com.example.taskmanager.model.Task;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.TaskSpecification;
+import com.example.taskmanager.repository.TaskSpecifications;
+import com.example.taskmanager.service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// TaskService end to end on the log profile, where TaskRepository is served by LogTaskStore
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:logstore")
+@ActiveProfiles("log")
+public class LogTaskRepositoryTest {
+
+    @TempDir
+    static Path logDirectory;
+
+    @DynamicPropertySource
+    static void logStoreProperties(DynamicPropertyRegistry registry) {
+        registry.add("taskmanager.log-store.dir", logDirectory::toString);
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private LogTaskStore store;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository.deleteAll();
+    }
+
+    @Test
+    void createUpdateCompleteAndDelete_ShouldGoThroughTheLogStore() {
+        TaskDto created = taskService.createTask(TaskDto.builder().title("Logged").description("Task").build());
+        assertEquals("Logged", store.findById(created.getId()).orElseThrow().getTitle());
+
+        TaskDto update = TaskDto.builder().title("Renamed").description("Task").build();
+        TaskDto updated = taskService.updateTask(created.getId(), update, created.getVersion());
+        assertEquals(created.getVersion() + 1, updated.getVersion());
+        assertThrows(PreconditionFailedException.class,
+                () -> taskService.updateTask(created.getId(), update, created.getVersion()));
+
+        TaskDto completed = taskService.markTaskAsCompleted(created.getId());
+        assertTrue(completed.isCompleted());
+        assertEquals("Renamed", completed.getTitle());
+
+        taskService.deleteTask(created.getId());
+        assertFalse(store.existsById(created.getId()));
+    }
+
+    @Test
+    void getTaskPage_ShouldWalkFilteredTasksWithCursors() {
+        for (int i = 0; i < 7; i++) {
+            taskService.createTask(TaskDto.builder().title("Task " + i).completed(i % 2 == 0).build());
+        }
+        TaskQuery query = new TaskQuery();
+        query.setCompleted(true);
+        query.setSort("createdAt,desc");
+
+        List<String> titles = new ArrayList<>();
+        String cursor = null;
+        do {
+            TaskPage page = taskService.getTaskPage(query, 2, cursor);
+            page.getItems().forEach(task -> titles.add(task.getTitle()));
+            cursor = page.getNext();
+        } while (cursor != null);
+
+        assertEquals(List.of("Task 6", "Task 4", "Task 2", "Task 0"), titles);
+    }
+
+    @Test
+    void findTasks_ShouldSortByAnyTaskProperty() {
+        taskService.createTask(TaskDto.builder().title("Banana").description("Fruit").build());
+        taskService.createTask(TaskDto.builder().title("Apple").description("Fruit").build());
+        taskService.createTask(TaskDto.builder().title("Cherry").description("Fruit").build());
+        TaskSpecification all = TaskSpecifications.matching(TaskQuery.builder().build());
+
+        List<String> titles = taskRepository.findTasks(all, Sort.by(Sort.Direction.DESC, "title"), 2).stream()
+                .map(Task::getTitle)
+                .toList();
+        assertEquals(List.of("Cherry", "Banana"), titles);
+        assertThrows(PropertyReferenceException.class,
+                () -> taskRepository.findTasks(all, Sort.by("priority"), 2));
+    }
+
+    @Test
+    void bulk_ShouldWriteBackChangedTasksAtCommit() {
+        TaskDto first = taskService.createTask(TaskDto.builder().title("First").build());
+        TaskDto second = taskService.createTask(TaskDto.builder().title("Second").build());
+
+        List<BulkItemResult> results = taskService.bulk(List.of(
+                BulkOperation.builder().op(BulkOperation.Type.CREATE).task(TaskDto.builder().title("Third").build()).build(),
+                BulkOperation.builder().op(BulkOperation.Type.COMPLETE).id(first.getId()).build(),
+                BulkOperation.builder().op(BulkOperation.Type.DELETE).id(second.getId()).build()
+        ));
+
+        assertEquals(List.of(201, 200, 204), results.stream().map(BulkItemResult::getStatus).toList());
+        assertEquals(first.getVersion() + 1, results.get(1).getTask().getVersion());
+        assertTrue(store.findById(first.getId()).orElseThrow().isCompleted());
+        assertFalse(store.existsById(second.getId()));
+        assertTrue(store.existsById(results.get(0).getTask().getId()));
+    }
+
+    @Test
+    void getChangesAndExport_ShouldSeeWritesAndDeletes() {
+        TaskChanges initial = taskService.getChanges(null);
+        TaskDto kept = taskService.createTask(TaskDto.builder().title("Kept").build());
+        TaskDto deleted = taskService.createTask(TaskDto.builder().title("Deleted").build());
+        taskService.deleteTask(deleted.getId());
+
+        TaskChanges changes = taskService.getChanges(initial.getToken());
+        assertTrue(changes.getChanged().stream().anyMatch(task -> task.getId().equals(kept.getId())));
+        assertTrue(changes.getDeleted().contains(deleted.getId()));
+
+        List<TaskDto> exported = new ArrayList<>();
+        taskService.exportTasks(exported::add);
+        assertEquals(List.of(kept.getId()), exported.stream().map(TaskDto::getId).toList());
+    }
+
+    @Test
+    void transaction_ShouldSeeItsOwnWritesAndApplyThemAtCommit() {
+        Task kept = store.save(Task.builder().title("Kept").build());
+        Task deleted = store.save(Task.builder().title("Deleted").build());
+
+        Long createdId = new TransactionTemplate(transactionManager).execute(status -> {
+            Task created = taskRepository.save(Task.builder().title("Created").build());
+            Task renamed = taskRepository.findById(kept.getId()).orElseThrow();
+            renamed.setTitle("Renamed");
+            taskRepository.save(renamed);
+            taskRepository.deleteById(deleted.getId());
+
+            assertEquals("Renamed", taskRepository.findById(kept.getId()).orElseThrow().getTitle());
+            assertFalse(taskRepository.existsById(deleted.getId()));
+            assertEquals(List.of(kept.getId(), created.getId()),
+                    taskRepository.findAll().stream().map(Task::getId).toList());
+            assertEquals(2, taskRepository.count());
+            // Nothing reaches the store before the commit
+            assertFalse(store.existsById(created.getId()));
+            assertEquals("Kept", store.findById(kept.getId()).orElseThrow().getTitle());
+            assertTrue(store.existsById(deleted.getId()));
+            return created.getId();
+        });
+
+        assertEquals("Created", store.findById(createdId).orElseThrow().getTitle());
+        assertEquals("Renamed", store.findById(kept.getId()).orElseThrow().getTitle());
+        assertFalse(store.existsById(deleted.getId()));
+    }
+
+    @Test
+    void transaction_ThatRollsBack_ShouldLeaveTheStoreUnchanged() {
+        Task kept = store.save(Task.builder().title("Kept").build());
+        long records = store.logRecords();
+
+        Long createdId = new TransactionTemplate(transactionManager).execute(status -> {
+            Task created = taskRepository.save(Task.builder().title("Created").build());
+            taskRepository.completeById(kept.getId(), kept.getUpdatedAt());
+            assertEquals(1, taskRepository.removeByIdAndCompleted(kept.getId(), true));
+            status.setRollbackOnly();
+            return created.getId();
+        });
+
+        assertFalse(store.existsById(createdId));
+        Task stored = store.findById(kept.getId()).orElseThrow();
+        assertFalse(stored.isCompleted());
+        assertEquals(kept.getVersion(), stored.getVersion());
+        assertEquals(records, store.logRecords());
+    }
+
+    @Test
+    void transaction_WhenAnotherWriterChangedATaskFirst_ShouldApplyNoneOfItsWrites() {
+        Task contended = store.save(Task.builder().title("Contended").build());
+        List<Long> created = new ArrayList<>();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    created.add(taskRepository.save(Task.builder().title("Created").build()).getId());
+                    Task task = taskRepository.findById(contended.getId()).orElseThrow();
+                    task.setTitle("Mine");
+                    taskRepository.save(task);
+                    store.update(contended.getId(), other -> other.setTitle("Theirs"));
+                }));
+
+        assertFalse(store.existsById(created.get(0)));
+        assertEquals("Theirs", store.findById(contended.getId()).orElseThrow().getTitle());
+    }
+}
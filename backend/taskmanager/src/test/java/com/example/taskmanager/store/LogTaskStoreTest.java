@@ -0,0 +1,291 @@
+package com.example.taskmanager.store;
+
+import com.example.taskmanager.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogTaskStoreTest {
+
+    // Small regions so a few hundred records already cross region boundaries
+    private static final DataSize REGION_SIZE = DataSize.ofKilobytes(16);
+
+    @TempDir
+    Path directory;
+
+    private LogTaskStore store;
+
+    @AfterEach
+    void tearDown() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void save_ShouldAssignIdsAndKeepTasksAcrossRestarts() throws IOException {
+        store = open(directory);
+        Task first = store.save(Task.builder().title("First").description("One").build());
+        Task second = store.save(Task.builder().title("Second").build());
+        first.setCompleted(true);
+        store.save(first);
+
+        store.close();
+        store = open(directory);
+
+        assertEquals(2, store.count());
+        Task reloaded = store.findById(first.getId()).orElseThrow();
+        assertEquals("First", reloaded.getTitle());
+        assertEquals("One", reloaded.getDescription());
+        assertTrue(reloaded.isCompleted());
+        assertEquals(1L, reloaded.getVersion());
+        assertEquals(first.getCreatedAt(), reloaded.getCreatedAt());
+        assertEquals(first.getUpdatedAt(), reloaded.getUpdatedAt());
+        assertNull(store.findById(second.getId()).orElseThrow().getDescription());
+        assertEquals(second.getId() + 1, store.save(Task.builder().title("Third").build()).getId());
+    }
+
+    @Test
+    void save_WithStaleVersion_ShouldThrowOptimisticLockingFailure() throws IOException {
+        store = open(directory);
+        Task task = store.save(Task.builder().title("Task").build());
+        Task stale = store.findById(task.getId()).orElseThrow();
+        store.save(task);
+
+        stale.setTitle("Lost update");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> store.save(stale));
+        assertEquals("Task", store.findById(task.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    void findById_ShouldReturnCopiesThatDoNotChangeTheStore() throws IOException {
+        store = open(directory);
+        Task task = store.save(Task.builder().title("Task").build());
+
+        store.findById(task.getId()).orElseThrow().setTitle("Changed without save");
+
+        assertEquals("Task", store.findById(task.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    void find_ShouldFilterSortAndLimit() throws IOException {
+        store = open(directory);
+        for (int i = 0; i < 100; i++) {
+            store.save(Task.builder().title("Task " + i).completed(i % 2 == 0).build());
+        }
+
+        List<Task> found = store.find(Task::isCompleted, (a, b) -> Long.compare(b.getId(), a.getId()), 3);
+
+        assertEquals(List.of(99L, 97L, 95L), found.stream().map(Task::getId).toList());
+        assertEquals(50, store.count(Task::isCompleted));
+    }
+
+    @Test
+    void findPage_ShouldSeekToThePositionInsteadOfScanning() throws IOException {
+        store = open(directory);
+        for (int i = 0; i < 1000; i++) {
+            store.save(Task.builder().title("Task " + i).completed(i % 2 == 0).build());
+        }
+        AtomicInteger tested = new AtomicInteger();
+        Predicate<Task> completed = task -> {
+            tested.incrementAndGet();
+            return task.isCompleted();
+        };
+
+        List<Task> page = store.findPage("id", false, new LogTaskStore.TaskPosition(null, 500), completed, 3);
+        assertEquals(List.of(501L, 503L, 505L), page.stream().map(Task::getId).toList());
+        assertEquals(5, tested.get());
+
+        tested.set(0);
+        page = store.findPage("id", true, new LogTaskStore.TaskPosition(null, 500), completed, 3);
+        assertEquals(List.of(499L, 497L, 495L), page.stream().map(Task::getId).toList());
+        assertEquals(5, tested.get());
+    }
+
+    @Test
+    void findPage_ShouldFollowWritesAndDeletesAndSurviveARestart() throws IOException {
+        store = open(directory);
+        for (int i = 0; i < 10; i++) {
+            store.save(Task.builder().title("Task " + i).build());
+        }
+        store.update(3L, task -> task.setCompleted(true));
+        store.deleteById(5L);
+
+        for (int restart = 0; restart < 2; restart++) {
+            List<Task> newestFirst = store.findPage("updatedAt", true, null, task -> true, Integer.MAX_VALUE);
+            assertEquals(9, newestFirst.size());
+            assertEquals(3L, newestFirst.get(0).getId());
+            assertTrue(newestFirst.stream().noneMatch(task -> task.getId() == 5L));
+
+            Task second = newestFirst.get(1);
+            List<Task> after = store.findPage("updatedAt", true,
+                    new LogTaskStore.TaskPosition(second.getUpdatedAt(), second.getId()), task -> true, 2);
+            assertEquals(newestFirst.subList(2, 4).stream().map(Task::getId).toList(),
+                    after.stream().map(Task::getId).toList());
+
+            store.close();
+            store = open(directory);
+        }
+    }
+
+    @Test
+    void update_ShouldApplyTheChangeAndBumpTheVersion() throws IOException {
+        store = open(directory);
+        Task task = store.save(Task.builder().title("Task").build());
+
+        Task completed = store.update(task.getId(), t -> t.setCompleted(true)).orElseThrow();
+
+        assertTrue(completed.isCompleted());
+        assertEquals(1L, completed.getVersion());
+        assertTrue(store.update(task.getId() + 1, t -> t.setCompleted(true)).isEmpty());
+    }
+
+    @Test
+    void compact_ShouldKeepLiveTasksAndNeverReuseDeletedIds() throws IOException {
+        store = open(directory);
+        Task kept = store.save(Task.builder().title("Kept").build());
+        for (int i = 0; i < 500; i++) {
+            kept.setDescription("Revision " + i);
+            store.save(kept);
+        }
+        Task deleted = store.save(Task.builder().title("Deleted").build());
+        assertTrue(store.deleteById(deleted.getId()));
+        long recordsBefore = store.logRecords();
+
+        store.compact();
+        store.close();
+        store = open(directory);
+
+        assertTrue(store.logRecords() < recordsBefore);
+        assertEquals(1, store.count());
+        assertEquals("Revision 499", store.findById(kept.getId()).orElseThrow().getDescription());
+        assertEquals(deleted.getId() + 1, store.save(Task.builder().title("New").build()).getId());
+    }
+
+    @Test
+    void compactIfNeeded_ShouldOnlyCompactOnceSupersededRecordsDominate() throws IOException {
+        store = new LogTaskStore(directory.toString(), REGION_SIZE, Duration.ZERO, 10, 2);
+        Task task = store.save(Task.builder().title("Task").build());
+        for (int i = 0; i < 5; i++) {
+            store.save(task);
+        }
+
+        store.compactIfNeeded();
+        assertEquals(6, store.logRecords());
+
+        for (int i = 0; i < 5; i++) {
+            store.save(task);
+        }
+        store.compactIfNeeded();
+        assertEquals(2, store.logRecords());
+    }
+
+    @Test
+    void recovery_WithTornLastRecord_ShouldDropItAndKeepAppending() throws IOException {
+        store = open(directory);
+        Task intact = store.save(Task.builder().title("Intact").build());
+        Task torn = store.save(Task.builder().title("Torn").description("Cut short by a crash").build());
+        long end = store.logPosition();
+        store.close();
+        store = null;
+
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve(TaskLog.FILE_NAME).toFile(), "rw")) {
+            file.seek(end - 1);
+            int last = file.read();
+            file.seek(end - 1);
+            file.write(last ^ 0xFF);
+        }
+
+        store = open(directory);
+        assertTrue(store.existsById(intact.getId()));
+        assertFalse(store.existsById(torn.getId()));
+
+        Task next = store.save(Task.builder().title("Next").build());
+        store.close();
+        store = open(directory);
+        assertEquals(2, store.count());
+        assertEquals("Next", store.findById(next.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    void recovery_AfterWriterIsKilled_ShouldKeepEveryAcknowledgedWrite() throws Exception {
+        Process writer = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                KilledWriter.class.getName(), directory.toString())
+                .redirectErrorStream(true)
+                .start();
+
+        // Latest acknowledged version of every task; a write is acknowledged only after save returned
+        Map<Long, Long> acknowledged = new HashMap<>();
+        try (BufferedReader output = new BufferedReader(
+                new InputStreamReader(writer.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while (acknowledged.size() < 2_000 && (line = output.readLine()) != null) {
+                if (line.startsWith("ack ")) {
+                    String[] parts = line.split(" ");
+                    acknowledged.put(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+                }
+            }
+            // Kill the writer in the middle of its stream of writes, with no chance to close the log
+            writer.destroyForcibly();
+            assertTrue(writer.waitFor(30, TimeUnit.SECONDS));
+        }
+        assertEquals(2_000, acknowledged.size(), "the writer exited before acknowledging enough writes");
+
+        store = open(directory);
+
+        for (Map.Entry<Long, Long> ack : acknowledged.entrySet()) {
+            Task task = store.findById(ack.getKey()).orElse(null);
+            assertNotNull(task, "acknowledged task " + ack.getKey() + " was lost");
+            assertTrue(task.getVersion() >= ack.getValue(), "acknowledged update of task " + ack.getKey() + " was lost");
+        }
+        long next = store.save(Task.builder().title("After the crash").build()).getId();
+        assertTrue(acknowledged.keySet().stream().allMatch(id -> id < next));
+    }
+
+    private static LogTaskStore open(Path directory) throws IOException {
+        return new LogTaskStore(directory.toString(), REGION_SIZE, Duration.ZERO, Long.MAX_VALUE, 2);
+    }
+
+    // Runs in a separate JVM: creates and updates tasks forever, printing each write once it is acknowledged
+    public static final class KilledWriter {
+
+        public static void main(String[] args) throws IOException {
+            LogTaskStore store = open(Path.of(args[0]));
+            Random random = new Random(7);
+            long created = 0;
+            while (true) {
+                Task task;
+                if (created > 0 && random.nextInt(3) == 0) {
+                    long id = 1 + random.nextInt((int) created);
+                    task = store.update(id, t -> t.setDescription("Updated " + System.nanoTime())).orElseThrow();
+                } else {
+                    task = store.save(Task.builder().title("Task").description("Created " + System.nanoTime()).build());
+                    created++;
+                }
+                System.out.println("ack " + task.getId() + " " + task.getVersion());
+                System.out.flush();
+            }
+        }
+    }
+}
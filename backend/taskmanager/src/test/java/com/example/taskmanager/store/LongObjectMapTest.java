@@ -0,0 +1,60 @@
+package com.example.taskmanager.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongObjectMapTest {
+
+    @Test
+    void putGetRemove_ShouldBehaveLikeAMap() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 50_000; i++) {
+            long key = random.nextInt(5_000) - 100;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                String value = "v" + i;
+                assertEquals(expected.put(key, value), map.put(key, value));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = -100; key < 4_900; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+        List<String> visited = new ArrayList<>();
+        map.forEachValue(visited::add);
+        assertEquals(expected.size(), visited.size());
+        assertTrue(visited.containsAll(expected.values()));
+    }
+
+    @Test
+    void clear_ShouldRemoveEverything() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        for (long key = 1; key <= 100; key++) {
+            map.put(key, "v");
+        }
+
+        map.clear();
+
+        assertEquals(0, map.size());
+        assertNull(map.get(1));
+    }
+
+    @Test
+    void put_WithReservedKey_ShouldThrowException() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(Long.MIN_VALUE, "v"));
+    }
+}
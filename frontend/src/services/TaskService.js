@@ -3,8 +3,19 @@ import axios from 'axios';
 const API_URL = 'http://localhost:8080/api/tasks';
 
 class TaskService {
-  getAllTasks() {
-    return axios.get(API_URL);
+  // The Change-Token response header resumes getChanges from this read
+  getAllTasks(params = {}) {
+    return axios.get(API_URL, { params });
+  }
+
+  // Tasks changed or deleted since the token from the previous call; without one, every task
+  getChanges(since) {
+    return axios.get(`${API_URL}/changes`, { params: since ? { since } : {} });
+  }
+
+  // Server-Sent Events for every committed change; the caller closes it
+  openChangeStream() {
+    return new EventSource(`${API_URL}/stream`);
   }
 
   getTaskById(id) {